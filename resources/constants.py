@@ -1239,6 +1239,13 @@ DEFAULT_LANG = {
     'tfc.commands.locate.volcano_not_found': 'Could not find a volcano within reasonable distance',
     'tfc.commands.propick.found_blocks': 'The propick scan found %s %s',
     'tfc.commands.propick.cleared': 'Cleared %s blocks, Found %s prospectable blocks',
+    'tfc.commands.pregen.started': 'Pregenerating %s chunks around chunk %s, %s in %s',
+    'tfc.commands.pregen.progress': 'Pregenerated %s / %s chunks (%s%%), %s chunks/s at %s ms/tick',
+    'tfc.commands.pregen.timings': 'Average time per chunk: %s, %s carver start checks saved by caching',
+    'tfc.commands.pregen.done': 'Pregeneration finished, %s chunks in %s s',
+    'tfc.commands.pregen.cancelled': 'Pregeneration cancelled after %s chunks',
+    'tfc.commands.pregen.already_running': 'A pregeneration job is already running, use /tfc pregen cancel to stop it',
+    'tfc.commands.pregen.not_running': 'No pregeneration job is running',
 
     # Entities
     'entity.tfc.cod': 'Cod',
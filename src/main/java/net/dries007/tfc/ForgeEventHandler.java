@@ -9,10 +9,11 @@ package net.dries007.tfc;
 import java.util.Random;
 import java.util.concurrent.Executor;
 
+import net.minecraft.Util;
 import net.minecraft.advancements.CriteriaTriggers;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
 import net.minecraft.core.Registry;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.nbt.CompoundTag;
@@ -52,7 +53,6 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.GameRules;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
-import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.entity.BaseContainerBlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -61,6 +61,7 @@ import net.minecraft.world.level.chunk.*;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Material;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraft.world.level.storage.ServerLevelData;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
@@ -78,14 +79,15 @@ import net.minecraftforge.event.entity.player.BonemealEvent;
 import net.minecraftforge.event.entity.player.PlayerContainerEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.event.world.*;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.server.ServerLifecycleHooks;
 
-import com.mojang.datafixers.util.Pair;
 import com.mojang.logging.LogUtils;
 import net.dries007.tfc.client.ClientHelpers;
 import net.dries007.tfc.common.TFCEffects;
@@ -102,15 +104,16 @@ import net.dries007.tfc.common.blocks.rock.AqueductBlock;
 import net.dries007.tfc.common.blocks.rock.Rock;
 import net.dries007.tfc.common.blocks.rock.RockAnvilBlock;
 import net.dries007.tfc.common.blocks.wood.TFCLecternBlock;
+import net.dries007.tfc.common.capabilities.ItemCapabilityTable;
 import net.dries007.tfc.common.capabilities.egg.EggCapability;
 import net.dries007.tfc.common.capabilities.egg.EggHandler;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.FoodDefinition;
 import net.dries007.tfc.common.capabilities.food.FoodHandler;
 import net.dries007.tfc.common.capabilities.food.TFCFoodData;
-import net.dries007.tfc.common.capabilities.forge.Forging;
 import net.dries007.tfc.common.capabilities.forge.ForgingBonus;
 import net.dries007.tfc.common.capabilities.forge.ForgingCapability;
+import net.dries007.tfc.common.capabilities.forge.ForgingHandler;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
 import net.dries007.tfc.common.capabilities.heat.HeatDefinition;
 import net.dries007.tfc.common.capabilities.player.PlayerData;
@@ -141,17 +144,24 @@ import net.dries007.tfc.util.climate.OverworldClimateModel;
 import net.dries007.tfc.util.collections.IndirectHashCollection;
 import net.dries007.tfc.util.events.SelectClimateModelEvent;
 import net.dries007.tfc.util.events.StartFireEvent;
+import net.dries007.tfc.util.tracker.LifecycleScheduler;
+import net.dries007.tfc.util.tracker.LifecycleSchedulerCapability;
+import net.dries007.tfc.util.tracker.SupportIndex;
+import net.dries007.tfc.util.tracker.SupportIndexCapability;
 import net.dries007.tfc.util.tracker.WeatherHelpers;
 import net.dries007.tfc.util.tracker.WorldTracker;
 import net.dries007.tfc.util.tracker.WorldTrackerCapability;
-import net.dries007.tfc.world.NoopClimateSampler;
+import net.dries007.tfc.world.Pregenerator;
+import net.dries007.tfc.world.biome.BiomeSearch;
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
-import net.dries007.tfc.world.biome.TFCBiomes;
 import net.dries007.tfc.world.chunkdata.ChunkData;
 import net.dries007.tfc.world.chunkdata.ChunkDataCache;
 import net.dries007.tfc.world.chunkdata.ChunkDataCapability;
 import net.dries007.tfc.world.chunkdata.ChunkGeneratorExtension;
+import net.dries007.tfc.world.river.Watershed;
+import net.dries007.tfc.world.river.WatershedStorage;
 import net.dries007.tfc.world.settings.RockLayerSettings;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 public final class ForgeEventHandler
@@ -182,7 +192,11 @@ public final class ForgeEventHandler
         bus.addListener(ForgeEventHandler::onNeighborUpdate);
         bus.addListener(ForgeEventHandler::onExplosionDetonate);
         bus.addListener(ForgeEventHandler::onWorldTick);
+        bus.addListener(ForgeEventHandler::onServerTick);
+        bus.addListener(ForgeEventHandler::onServerStopped);
         bus.addListener(ForgeEventHandler::onWorldLoad);
+        bus.addListener(ForgeEventHandler::onWorldSave);
+        bus.addListener(ForgeEventHandler::onWorldUnload);
         bus.addListener(ForgeEventHandler::onCreateNetherPortal);
         bus.addListener(ForgeEventHandler::onFluidPlaceBlock);
         bus.addListener(ForgeEventHandler::onFluidCreateSource);
@@ -229,17 +243,20 @@ public final class ForgeEventHandler
             final BiomeSourceExtension source = extension.getBiomeSource();
             final Random random = new Random(level.getSeed());
 
-            Pair<BlockPos, Holder<Biome>> posPair = generator.getBiomeSource().findBiomeHorizontal(source.getSpawnCenterX(), 0, source.getSpawnCenterZ(), source.getSpawnDistance(), source.getSpawnDistance() / 256, biome -> TFCBiomes.getExtensionOrThrow(level, biome.value()).isSpawnable(), random, false, NoopClimateSampler.INSTANCE);
+            // Equivalent to BiomeSource#findBiomeHorizontal, picking a random spawnable biome, but searched in parallel
+            final BiomeSearch.Result result = BiomeSearch.random(QuartPos.fromBlock(source.getSpawnCenterX()), QuartPos.fromBlock(source.getSpawnCenterZ()), QuartPos.fromBlock(source.getSpawnDistance()), Math.max(1, source.getSpawnDistance() / 256), (x, z) -> source.getNoiseBiomeVariants(x, z).isSpawnable() ? new BlockPos(QuartPos.toBlock(x), 0, QuartPos.toBlock(z)) : null, random, Util.backgroundExecutor()).join();
+            LOGGER.info("Spawn biome search: {}", result);
+
             BlockPos pos;
             ChunkPos chunkPos;
-            if (posPair == null)
+            if (result.pos() == null)
             {
                 LOGGER.warn("Unable to find spawn biome!");
                 pos = new BlockPos(0, generator.getSeaLevel(), 0);
             }
             else
             {
-                pos = posPair.getFirst();
+                pos = result.pos();
             }
             chunkPos = new ChunkPos(pos);
 
@@ -319,6 +336,12 @@ public final class ForgeEventHandler
 
             }
             event.addCapability(ChunkDataCapability.KEY, data);
+
+            if (!Helpers.isClientSide(level))
+            {
+                event.addCapability(LifecycleSchedulerCapability.KEY, new LifecycleScheduler(chunk));
+                event.addCapability(SupportIndexCapability.KEY, new SupportIndex(chunk));
+            }
         }
     }
 
@@ -333,16 +356,16 @@ public final class ForgeEventHandler
         if (!stack.isEmpty())
         {
             // Attach mandatory capabilities
-            event.addCapability(ForgingCapability.KEY, new Forging(stack));
+            event.addCapability(ForgingCapability.KEY, new ForgingHandler(stack));
 
-            // Optional capabilities
-            HeatDefinition def = HeatCapability.get(stack);
+            // Optional capabilities, which are resolved per item where possible
+            HeatDefinition def = ItemCapabilityTable.getHeat(stack);
             if (def != null)
             {
                 event.addCapability(HeatCapability.KEY, def.create());
             }
 
-            FoodDefinition food = FoodCapability.get(stack);
+            FoodDefinition food = ItemCapabilityTable.getFood(stack);
             if (food != null)
             {
                 event.addCapability(FoodCapability.KEY, new FoodHandler(food.getData()));
@@ -365,12 +388,12 @@ public final class ForgeEventHandler
 
     public static void onChunkWatch(ChunkWatchEvent.Watch event)
     {
-        // Send an update packet to the client when watching the chunk
+        // Queue an update packet to the client when watching the chunk, which will be sent at the end of the tick
         ChunkPos pos = event.getPos();
         ChunkData chunkData = ChunkData.get(event.getWorld(), pos);
         if (chunkData.getStatus() != ChunkData.Status.EMPTY)
         {
-            PacketHandler.send(PacketDistributor.PLAYER.with(event::getPlayer), chunkData.getUpdatePacket());
+            ChunkDataCache.WATCH_BATCHER.enqueue(event.getPlayer(), pos, chunkData);
         }
         else
         {
@@ -385,6 +408,7 @@ public final class ForgeEventHandler
         ChunkPos pos = event.getPos();
         PacketHandler.send(PacketDistributor.PLAYER.with(event::getPlayer), new ChunkUnwatchPacket(pos));
         ChunkDataCache.WATCH_QUEUE.dequeueChunk(pos, event.getPlayer());
+        ChunkDataCache.WATCH_BATCHER.dequeue(event.getPlayer(), pos);
     }
 
     public static void onChunkLoad(ChunkEvent.Load event)
@@ -396,6 +420,11 @@ public final class ForgeEventHandler
                 ChunkDataCache.SERVER.update(pos, data);
                 ChunkDataCache.WATCH_QUEUE.dequeueLoadedChunk(pos, data);
             });
+            if (event.getChunk() instanceof LevelChunk && event.getWorld() instanceof ServerLevel level)
+            {
+                // Bushes in this chunk may need to catch up, once it has finished loading
+                level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.addLifecycleChunk(pos.toLong()));
+            }
         }
     }
 
@@ -405,6 +434,10 @@ public final class ForgeEventHandler
         if (!Helpers.isClientSide(event.getWorld()) && !(event.getChunk() instanceof EmptyLevelChunk))
         {
             ChunkDataCache.SERVER.remove(event.getChunk().getPos());
+            if (event.getWorld() instanceof ServerLevel level)
+            {
+                level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.removeLifecycleChunk(event.getChunk().getPos().toLong()));
+            }
         }
     }
 
@@ -533,6 +566,23 @@ public final class ForgeEventHandler
         }
     }
 
+    public static void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END)
+        {
+            // Sync all chunk data watched this tick
+            ChunkDataCache.WATCH_BATCHER.flush();
+
+            // Schedule more chunks for any running pregeneration
+            Pregenerator.onServerTick(ServerLifecycleHooks.getCurrentServer());
+        }
+    }
+
+    public static void onServerStopped(ServerStoppedEvent event)
+    {
+        Pregenerator.onServerStopped();
+    }
+
     public static void onWorldLoad(WorldEvent.Load event)
     {
         if (event.getWorld() instanceof final ServerLevel level)
@@ -556,6 +606,37 @@ public final class ForgeEventHandler
             {
                 ItemSizeManager.applyItemStackSizeOverrides();
                 SelfTests.runServerSelfTests();
+
+                final Watershed.Context watersheds = getWatersheds(level);
+                if (watersheds != null && TFCConfig.COMMON.enableWatershedCache.get())
+                {
+                    watersheds.setStorage(new WatershedStorage(server.getWorldPath(LevelResource.ROOT).resolve("data").resolve("tfc_watersheds"), watersheds.seed(), watersheds.settingsHash()));
+                }
+            }
+        }
+    }
+
+    public static void onWorldSave(WorldEvent.Save event)
+    {
+        if (event.getWorld() instanceof final ServerLevel level)
+        {
+            final Watershed.Context watersheds = getWatersheds(level);
+            if (watersheds != null && watersheds.getStorage() != null)
+            {
+                watersheds.getStorage().flush();
+            }
+        }
+    }
+
+    public static void onWorldUnload(WorldEvent.Unload event)
+    {
+        if (event.getWorld() instanceof final ServerLevel level)
+        {
+            final Watershed.Context watersheds = getWatersheds(level);
+            if (watersheds != null && watersheds.getStorage() != null)
+            {
+                watersheds.getStorage().flush();
+                watersheds.setStorage(null);
             }
         }
     }
@@ -1294,6 +1375,7 @@ public final class ForgeEventHandler
         // First, reload all caches
         final RecipeManager manager = Helpers.getUnsafeRecipeManager();
         IndirectHashCollection.reloadAllCaches(manager);
+        ItemCapabilityTable.reload();
 
         // Then apply post reload actions which may query the cache
         Support.updateMaximumSupportRange();
@@ -1404,4 +1486,10 @@ public final class ForgeEventHandler
             Helpers.tickInfestation(level, container.getBlockEntity().getBlockPos(), amount, player);
         }
     }
-}
\ No newline at end of file
+
+    @Nullable
+    private static Watershed.Context getWatersheds(ServerLevel level)
+    {
+        return level.getChunkSource().getGenerator() instanceof ChunkGeneratorExtension ex ? ex.getBiomeSource().getWatersheds() : null;
+    }
+}
@@ -69,6 +69,8 @@ import net.dries007.tfc.util.calendar.CalendarEventHandler;
 import net.dries007.tfc.util.calendar.ServerCalendar;
 import net.dries007.tfc.util.climate.ClimateModels;
 import net.dries007.tfc.util.loot.TFCLoot;
+import net.dries007.tfc.util.tracker.LifecycleScheduler;
+import net.dries007.tfc.util.tracker.SupportIndex;
 import net.dries007.tfc.util.tracker.WorldTracker;
 import net.dries007.tfc.world.TFCChunkGenerator;
 import net.dries007.tfc.world.TFCWorldType;
@@ -193,6 +195,8 @@ public final class TerraFirmaCraft
         event.register(WorldTracker.class);
         event.register(IFood.class);
         event.register(PlayerData.class);
+        event.register(LifecycleScheduler.class);
+        event.register(SupportIndex.class);
     }
 
     public void loadComplete(FMLLoadCompleteEvent event)
@@ -8,24 +8,26 @@ package net.dries007.tfc.common.blockentities;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 
 import net.dries007.tfc.common.blocks.plant.fruit.IBushBlock;
+import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.calendar.Calendars;
-import net.dries007.tfc.util.calendar.ICalendar;
-import net.dries007.tfc.util.calendar.ICalendarTickable;
+import net.dries007.tfc.util.tracker.LifecycleScheduler;
 
-public class BerryBushBlockEntity extends TFCBlockEntity implements ICalendarTickable
+/**
+ * Bushes do not tick. The last time each bush was updated is tracked per chunk, by the {@link LifecycleScheduler}, which this delegates to.
+ */
+public class BerryBushBlockEntity extends TFCBlockEntity
 {
-    public static void serverTick(Level level, BlockPos pos, BlockState state, BerryBushBlockEntity bush)
-    {
-        bush.checkForCalendarUpdate();
-    }
+    private static final long NONE = Long.MIN_VALUE;
 
-    private long lastTick; // The last tick this bush was ticked via the block entity's serverTick() method. A delta of > 1 is used to detect time skips
-    private long lastUpdateTick; // The last tick the bush block was ticked via IBushBlock#onUpdate()
+    private long legacyLastTick; // Saved by older versions, which ticked every bush, in order to detect time skips
+    private long legacyLastUpdateTick; // Saved by older versions, the last tick the bush block was ticked via IBushBlock#onUpdate()
 
     public BerryBushBlockEntity(BlockPos pos, BlockState state)
     {
@@ -35,8 +37,8 @@ public class BerryBushBlockEntity extends TFCBlockEntity implements ICalendarTic
     protected BerryBushBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state)
     {
         super(type, pos, state);
-        lastTick = Integer.MIN_VALUE;
-        lastUpdateTick = Calendars.SERVER.getTicks();
+        legacyLastTick = NONE;
+        legacyLastUpdateTick = NONE;
     }
 
     /**
@@ -44,56 +46,48 @@ public class BerryBushBlockEntity extends TFCBlockEntity implements ICalendarTic
      */
     public long getTicksSinceBushUpdate()
     {
-        return Calendars.SERVER.getTicks() - lastUpdateTick;
-    }
-
-    @Override
-    public void loadAdditional(CompoundTag nbt)
-    {
-        lastUpdateTick = nbt.getLong("lastUpdateTick");
-        lastTick = nbt.getLong("lastTick");
-        super.loadAdditional(nbt);
+        return level == null ? 0 : LifecycleScheduler.get(level, worldPosition).map(scheduler -> scheduler.getTicksSinceUpdate(worldPosition)).orElse(0L);
     }
 
-    @Override
-    public void saveAdditional(CompoundTag nbt)
-    {
-        nbt.putLong("lastUpdateTick", lastUpdateTick);
-        nbt.putLong("lastTick", lastTick);
-        super.saveAdditional(nbt);
-    }
-
-    @Override
-    public void onCalendarUpdate(long ticks)
+    public void setLastBushTick(long ticks)
     {
-        if (level != null && ticks >= ICalendar.TICKS_IN_DAY)
+        if (level != null)
         {
-            final BlockState state = level.getBlockState(worldPosition);
-            if (state.getBlock() instanceof IBushBlock bush)
-            {
-                bush.onUpdate(level, worldPosition, state); // Update the bush
-                lastUpdateTick = Calendars.SERVER.getTicks(); // And the current time
-                setChanged();
-            }
+            LifecycleScheduler.get(level, worldPosition).ifPresent(scheduler -> scheduler.setLastUpdateTick(worldPosition, ticks));
         }
     }
 
     @Override
-    @Deprecated
-    public long getLastUpdateTick()
+    public void onLoad()
     {
-        return lastTick;
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel)
+        {
+            LifecycleScheduler.get(level, worldPosition).ifPresent(scheduler -> {
+                final long tick = Calendars.SERVER.getTicks();
+                if (legacyLastUpdateTick != NONE && TFCConfig.SERVER.migrateBushLifecycles.get())
+                {
+                    scheduler.track(worldPosition, legacyLastUpdateTick);
+                    if (legacyLastTick != NONE && legacyLastTick != Integer.MIN_VALUE && LifecycleScheduler.isCatchUpNeeded(tick - legacyLastTick))
+                    {
+                        scheduler.schedule(serverLevel, worldPosition, getBlockState().getBlock());
+                    }
+                }
+                else
+                {
+                    // Newly placed, generated, or not migrated
+                    scheduler.track(worldPosition, tick);
+                }
+            });
+            legacyLastTick = legacyLastUpdateTick = NONE;
+        }
     }
 
     @Override
-    @Deprecated
-    public void setLastUpdateTick(long tick)
-    {
-        lastTick = tick;
-    }
-
-    public void setLastBushTick(long ticks)
+    public void loadAdditional(CompoundTag nbt)
     {
-        lastUpdateTick = ticks;
+        legacyLastUpdateTick = nbt.contains("lastUpdateTick", Tag.TAG_LONG) ? nbt.getLong("lastUpdateTick") : NONE;
+        legacyLastTick = nbt.contains("lastTick", Tag.TAG_LONG) ? nbt.getLong("lastTick") : NONE;
+        super.loadAdditional(nbt);
     }
 }
@@ -28,7 +28,11 @@ import net.dries007.tfc.util.advancements.TFCAdvancements;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.climate.Climate;
+import net.dries007.tfc.util.climate.ClimateModel;
 import net.dries007.tfc.util.climate.ClimateRange;
+import net.dries007.tfc.util.climate.WorldGenClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Common growth logic for crop blocks
@@ -52,115 +56,176 @@ public final class CropHelpers
     }
 
     /**
+     * Catches up on all growth since the crop was last updated, in intervals of {@link #UPDATE_INTERVAL}, followed by a final partial interval.
+     *
      * @return {@code true} if the crop survived.
      */
     public static boolean growthTick(Level level, BlockPos pos, BlockState state, CropBlockEntity crop)
     {
         final long firstTick = crop.getLastGrowthTick(), thisTick = Calendars.SERVER.getTicks();
-        long tick = firstTick + CropHelpers.UPDATE_INTERVAL, lastTick = firstTick;
-        for (; tick < thisTick; tick += CropHelpers.UPDATE_INTERVAL)
+        return firstTick >= thisTick || growthTicks(level, pos, state, level.getRandom(), intervalBoundaries(firstTick, thisTick), crop);
+    }
+
+    public static boolean growthTickStep(Level level, BlockPos pos, BlockState state, Random random, long fromTick, long toTick, CropBlockEntity crop)
+    {
+        return growthTicks(level, pos, state, random, new long[] {fromTick, toTick}, crop);
+    }
+
+    /**
+     * @return The boundaries of consecutive intervals of {@link #UPDATE_INTERVAL} ticks, starting at {@code firstTick}, with the last interval ending at {@code lastTick}, which must be greater than {@code firstTick}.
+     */
+    public static long[] intervalBoundaries(long firstTick, long lastTick)
+    {
+        final int intervals = (int) ((lastTick - firstTick + UPDATE_INTERVAL - 1) / UPDATE_INTERVAL);
+        final long[] ticks = new long[intervals + 1];
+        for (int i = 0; i < intervals; i++)
         {
-            if (!CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, tick, crop))
-            {
-                return false;
-            }
-            lastTick = tick;
+            ticks[i] = firstTick + i * UPDATE_INTERVAL;
         }
-        return lastTick >= thisTick || CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, thisTick, crop);
+        ticks[intervals] = lastTick;
+        return ticks;
     }
 
-    public static boolean growthTickStep(Level level, BlockPos pos, BlockState state, Random random, long fromTick, long toTick, CropBlockEntity crop)
+    /**
+     * Grows the crop over consecutive intervals. Since the world is not modified in between intervals, everything except the temperature is queried once, and the temperature is sampled once at each boundary, rather than at both ends of each interval.
+     *
+     * @param ticks The boundaries of each interval, see {@link #intervalBoundaries(long, long)}.
+     * @return {@code true} if the crop survived.
+     */
+    private static boolean growthTicks(Level level, BlockPos pos, BlockState state, Random random, long[] ticks, CropBlockEntity crop)
     {
-        // Calculate invariants
         final ICalendar calendar = Calendars.get(level);
         final BlockPos sourcePos = pos.below();
-        final int hydration = FarmlandBlock.getHydration(level, sourcePos);
-        final float startTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(fromTick));
-        final float endTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(toTick));
-        final long tickDelta = toTick - fromTick;
-
         final ICropBlock cropBlock = (ICropBlock) state.getBlock();
         final ClimateRange range = cropBlock.getClimateRange();
-        final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
-        final boolean healthy = growing || checkClimate(range, hydration, startTemperature, endTemperature, true);
+        final int hydration = FarmlandBlock.getHydration(level, sourcePos);
 
-        // Nutrients are consumed first, since they are independent of growth or health.
-        // As long as the crop exists it consumes nutrients.
+        final GrowthConditions conditions = new GrowthConditions(
+            range.checkHydration(hydration, false) == ClimateRange.Result.VALID,
+            range.checkHydration(hydration, true) == ClimateRange.Result.VALID,
+            cropBlock.getGrowthLimit(level, pos, state),
+            TFCConfig.SERVER.cropGrowthModifier.get().floatValue(),
+            TFCConfig.SERVER.cropExpiryModifier.get().floatValue()
+        );
+        final float[] temperatures = sampleTemperatures(level, pos, calendar, ticks);
+        final IFarmland farmland = level.getBlockEntity(sourcePos) instanceof IFarmland found ? found : null;
+        final Growth growth = new Growth(crop.getGrowth(), crop.getYield(), crop.getExpiry());
 
-        final FarmlandBlockEntity.NutrientType primaryNutrient = cropBlock.getPrimaryNutrient();
-        float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
-        if (level.getBlockEntity(sourcePos) instanceof IFarmland farmland)
+        if (!simulateGrowth(conditions, range::checkTemperature, ticks, temperatures, random, farmland, cropBlock.getPrimaryNutrient(), growth))
         {
-            nutrientsAvailable = farmland.getNutrient(primaryNutrient);
-            nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+            // Lenient here - instead of assuming it expired at the start of the duration, we assume at the end. Including growth during this period.
+            cropBlock.die(level, pos, state, growth.growth >= 1);
+            return false;
         }
 
-        final float growthModifier = TFCConfig.SERVER.cropGrowthModifier.get().floatValue(); // Higher = Slower growth
-        final float expiryModifier = TFCConfig.SERVER.cropExpiryModifier.get().floatValue(); // Higher = Slower expiry
-        final float localExpiryLimit = EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+        crop.setGrowth(growth.growth);
+        crop.setYield(growth.yield);
+        crop.setExpiry(growth.expiry);
+        crop.setLastGrowthTick(calendar.getTicks());
+        return true;
+    }
 
-        // Total growth is based on the ticks and the nutrients consumed. It is then allocated to actual growth or expiry based on other factors.
-        final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * NUTRIENT_GROWTH_FACTOR;
-        final float initialGrowth = crop.getGrowth();
-        float remainingGrowthDelta = totalGrowthDelta;
-        float growth = initialGrowth, expiry = crop.getExpiry(), actualYield = crop.getYield();
+    /**
+     * Simulates growth over consecutive intervals, stopping at the end of the first interval in which the crop dies.
+     *
+     * @param ticks        The boundaries of each interval.
+     * @param temperatures The temperature at each boundary.
+     * @param farmland     The farmland to consume nutrients from, if present.
+     * @param growth       The initial state of the crop, which is updated in place.
+     * @return {@code true} if the crop survived all intervals.
+     */
+    public static boolean simulateGrowth(GrowthConditions conditions, TemperatureCheck temperatureCheck, long[] ticks, float[] temperatures, Random random, @Nullable IFarmland farmland, FarmlandBlockEntity.NutrientType primaryNutrient, Growth growth)
+    {
+        // Climate is checked at each boundary, and each interval requires both of its boundaries to be valid
+        final boolean[] validTemperature = new boolean[ticks.length], validTemperatureWithWiggle = new boolean[ticks.length];
+        for (int i = 0; i < ticks.length; i++)
+        {
+            validTemperature[i] = temperatureCheck.check(temperatures[i], false) == ClimateRange.Result.VALID;
+            validTemperatureWithWiggle[i] = temperatureCheck.check(temperatures[i], true) == ClimateRange.Result.VALID;
+        }
 
-        // Re-scale expiry to within our imaginary limits
-        expiry *= localExpiryLimit / EXPIRY_LIMIT;
+        final float growthModifier = conditions.growthModifier(); // Higher = Slower growth
+        final float expiryModifier = conditions.expiryModifier(); // Higher = Slower expiry
+        final float localExpiryLimit = EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+        final float growthLimit = conditions.growthLimit();
 
-        final float growthLimit = cropBlock.getGrowthLimit(level, pos, state);
-        if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
+        for (int i = 0; i + 1 < ticks.length; i++)
         {
-            // Allocate to growth
-            final float delta = Math.min(remainingGrowthDelta, growthLimit - growth);
+            final long tickDelta = ticks[i + 1] - ticks[i];
+            final boolean growing = conditions.hydrationValid() && validTemperature[i] && validTemperature[i + 1];
+            final boolean healthy = growing || (conditions.hydrationValidWithWiggle() && validTemperatureWithWiggle[i] && validTemperatureWithWiggle[i + 1]);
 
-            growth += delta;
-            remainingGrowthDelta -= delta;
-        }
-        if (remainingGrowthDelta > 0)
-        {
-            // Allocate remaining growth to expiry
-            final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - expiry);
+            // Nutrients are consumed first, since they are independent of growth or health.
+            // As long as the crop exists it consumes nutrients.
+            float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
+            if (farmland != null)
+            {
+                nutrientsAvailable = farmland.getNutrient(primaryNutrient);
+                nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+            }
 
-            expiry += delta;
-        }
+            // Total growth is based on the ticks and the nutrients consumed. It is then allocated to actual growth or expiry based on other factors.
+            final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * NUTRIENT_GROWTH_FACTOR;
+            final float initialGrowth = growth.growth;
+            float remainingGrowthDelta = totalGrowthDelta;
 
-        // Calculate yield, which depends both on a flat rate per growth, and on the nutrient satisfaction, which is a measure of nutrient consumption over the growth time.
-        final float growthDelta = growth - initialGrowth;
-        final float nutrientSatisfaction;
-        if (growthDelta <= 0 || nutrientsRequired <= 0)
-        {
-            nutrientSatisfaction = 1; // Either condition causes the below formula to result in NaN
-        }
-        else
-        {
-            nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
-        }
+            // Re-scale expiry to within our imaginary limits
+            growth.expiry *= localExpiryLimit / EXPIRY_LIMIT;
 
-        actualYield += growthDelta * Helpers.lerp(nutrientSatisfaction, YIELD_MIN, YIELD_LIMIT);
+            if (remainingGrowthDelta > 0 && growing && growth.growth < growthLimit)
+            {
+                // Allocate to growth
+                final float delta = Math.min(remainingGrowthDelta, growthLimit - growth.growth);
 
-        // Check if the crop should've expired.
-        if (expiry >= localExpiryLimit || !healthy)
-        {
-            // Lenient here - instead of assuming it expired at the start of the duration, we assume at the end. Including growth during this period.
-            cropBlock.die(level, pos, state, growth >= 1);
-            return false;
-        }
+                growth.growth += delta;
+                remainingGrowthDelta -= delta;
+            }
+            if (remainingGrowthDelta > 0)
+            {
+                // Allocate remaining growth to expiry
+                final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - growth.expiry);
 
-        // Re-scale expiry to constant values to maintain invariance if the config value is updated
-        expiry *= EXPIRY_LIMIT / localExpiryLimit;
+                growth.expiry += delta;
+            }
 
-        crop.setGrowth(growth);
-        crop.setYield(actualYield);
-        crop.setExpiry(expiry);
-        crop.setLastGrowthTick(calendar.getTicks());
+            // Calculate yield, which depends both on a flat rate per growth, and on the nutrient satisfaction, which is a measure of nutrient consumption over the growth time.
+            final float growthDelta = growth.growth - initialGrowth;
+            final float nutrientSatisfaction;
+            if (growthDelta <= 0 || nutrientsRequired <= 0)
+            {
+                nutrientSatisfaction = 1; // Either condition causes the below formula to result in NaN
+            }
+            else
+            {
+                nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
+            }
+
+            growth.yield += growthDelta * Helpers.lerp(nutrientSatisfaction, YIELD_MIN, YIELD_LIMIT);
 
+            // Check if the crop should've expired.
+            if (growth.expiry >= localExpiryLimit || !healthy)
+            {
+                return false;
+            }
+
+            // Re-scale expiry to constant values to maintain invariance if the config value is updated
+            growth.expiry *= EXPIRY_LIMIT / localExpiryLimit;
+        }
         return true;
     }
 
-    private static boolean checkClimate(ClimateRange range, int hydration, float firstTemperature, float secondTemperature, boolean allowWiggle)
+    private static float[] sampleTemperatures(Level level, BlockPos pos, ICalendar calendar, long[] ticks)
     {
-        return range.checkBoth(hydration, firstTemperature, allowWiggle) && range.checkTemperature(secondTemperature, allowWiggle) == ClimateRange.Result.VALID;
+        final ClimateModel model = Climate.model(level);
+        final ChunkData data = model instanceof WorldGenClimateModel ? ChunkData.get(level, pos) : null;
+        final int daysInMonth = calendar.getCalendarDaysInMonth();
+        final float[] temperatures = new float[ticks.length];
+        for (int i = 0; i < ticks.length; i++)
+        {
+            final long calendarTick = Calendars.SERVER.ticksToCalendarTicks(ticks[i]);
+            temperatures[i] = data != null ? ((WorldGenClimateModel) model).getTemperature(level, pos, data, calendarTick, daysInMonth) : model.getTemperature(level, pos, calendarTick, daysInMonth);
+        }
+        return temperatures;
     }
 
     public static boolean useFertilizer(Level level, Player player, InteractionHand hand, BlockPos farmlandPos)
@@ -189,4 +254,29 @@ public final class CropHelpers
         return false;
     }
 
+    /**
+     * The parts of a crop's environment which do not change over the intervals being simulated.
+     */
+    public record GrowthConditions(boolean hydrationValid, boolean hydrationValidWithWiggle, float growthLimit, float growthModifier, float expiryModifier) {}
+
+    @FunctionalInterface
+    public interface TemperatureCheck
+    {
+        ClimateRange.Result check(float temperature, boolean allowWiggle);
+    }
+
+    /**
+     * The growth state of a crop, as stored in {@link CropBlockEntity}.
+     */
+    public static final class Growth
+    {
+        public float growth, yield, expiry;
+
+        public Growth(float growth, float yield, float expiry)
+        {
+            this.growth = growth;
+            this.yield = yield;
+            this.expiry = expiry;
+        }
+    }
 }
@@ -132,7 +132,7 @@ public class FruitTreeLeavesBlock extends SeasonalPlantBlock implements IForgeBl
                     // Advance the lifecycle (if the at-the-time conditions were valid)
                     nextCalendarTick = Math.min(nextCalendarTick + Calendars.SERVER.getCalendarTicksInMonth(), currentCalendarTick);
 
-                    float temperatureAtNextTick = Climate.getTemperature(level, pos, nextCalendarTick, Calendars.SERVER.getCalendarDaysInMonth());
+                    final float temperatureAtNextTick = getLifecycleTemperature(level, pos, nextCalendarTick);
                     Lifecycle lifecycleAtNextTick = getLifecycleForMonth(ICalendar.getMonthOfYear(nextCalendarTick, Calendars.SERVER.getCalendarDaysInMonth()));
                     if (range.checkBoth(hydration, temperatureAtNextTick, false))
                     {
@@ -252,6 +252,10 @@ public class FruitTreeLeavesBlock extends SeasonalPlantBlock implements IForgeBl
             level.destroyBlock(pos, true);
             TFCLeavesBlock.doParticles(level, pos.getX() + rand.nextFloat(), pos.getY() + rand.nextFloat(), pos.getZ() + rand.nextFloat(), 1);
         }
+        else
+        {
+            IBushBlock.scheduledTick(this, state, level, pos);
+        }
     }
 
     @Override
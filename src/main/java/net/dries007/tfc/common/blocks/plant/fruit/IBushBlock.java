@@ -15,10 +15,12 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 
 import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.tracker.LifecycleScheduler;
 
 /**
  * Marker interface for common bush-type blocks.
  * These do random tick updates that are on average 1/day, and use time tracking to implement fast forwarding.
+ * Time skips, such as when the chunk was unloaded, are caught up via scheduled ticks from the {@link LifecycleScheduler}.
  */
 public interface IBushBlock
 {
@@ -37,5 +39,13 @@ public interface IBushBlock
         }
     }
 
+    /**
+     * Must be called from the scheduled tick of the block, to run any catch-up scheduled by the {@link LifecycleScheduler}.
+     */
+    static void scheduledTick(IBushBlock bush, BlockState state, ServerLevel level, BlockPos pos)
+    {
+        LifecycleScheduler.get(level, pos).ifPresent(scheduler -> scheduler.onScheduledTick(bush, level, pos, state));
+    }
+
     void onUpdate(Level level, BlockPos pos, BlockState state);
 }
@@ -53,7 +53,9 @@ import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.calendar.Month;
+import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateRange;
+import net.dries007.tfc.util.tracker.LifecycleScheduler;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class SeasonalPlantBlock extends BushBlock implements IForgeBlockExtension, EntityBlockExtension
@@ -99,6 +101,14 @@ public abstract class SeasonalPlantBlock extends BushBlock implements IForgeBloc
         return false;
     }
 
+    /**
+     * @return The temperature used to simulate the lifecycle of a plant, on the day containing {@code calendarTick}. Nearby plants share the same temperatures, which are cached, as they are queried for each month since the plant was last updated.
+     */
+    public static float getLifecycleTemperature(Level level, BlockPos pos, long calendarTick)
+    {
+        return Climate.getDailyTemperature(level, pos, calendarTick, Calendars.SERVER.getCalendarDaysInMonth());
+    }
+
     public static void randomDestroyTick(ServerLevel level, BlockPos pos, int days)
     {
         if (level.getBlockEntity(pos) instanceof TickCounterBlockEntity counter)
@@ -156,6 +166,17 @@ public abstract class SeasonalPlantBlock extends BushBlock implements IForgeBloc
         return state.setValue(LIFECYCLE, Lifecycle.HEALTHY);
     }
 
+    @Override
+    @SuppressWarnings("deprecation")
+    public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean isMoving)
+    {
+        if (!state.is(newState.getBlock()))
+        {
+            LifecycleScheduler.get(level, pos).ifPresent(scheduler -> scheduler.untrack(pos));
+        }
+        super.onRemove(state, level, pos, newState, isMoving);
+    }
+
     @Override
     @SuppressWarnings("deprecation")
     public VoxelShape getShape(BlockState state, BlockGetter level, BlockPos pos, CollisionContext context)
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.capabilities;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.dries007.tfc.common.capabilities.food.FoodCapability;
+import net.dries007.tfc.common.capabilities.food.FoodDefinition;
+import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatDefinition;
+import net.dries007.tfc.util.ItemDefinition;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A per-{@link Item} table of which data driven capabilities an item stack can possibly have, used when attaching capabilities to item stacks.
+ * Item stacks are constructed extremely frequently (copies, container syncs, recipe matching), and most items have neither heat nor food. So, this is resolved once on reload, rather than querying each definition per stack.
+ * <p>
+ * For each item, if the first definition that could apply has a simple (non-NBT) ingredient, then it must always match, and so is stored directly. Otherwise, the result depends on the stack, and we fall back to a full query.
+ */
+public final class ItemCapabilityTable
+{
+    @Nullable private static volatile Reference2ObjectMap<Item, Entry> TABLE = null;
+
+    /**
+     * Rebuilds the table. Must be called after {@link HeatCapability#CACHE} and {@link FoodCapability#CACHE} are reloaded.
+     */
+    public static void reload()
+    {
+        final Reference2ObjectMap<Item, Entry> table = new Reference2ObjectOpenHashMap<>();
+        for (Item item : ForgeRegistries.ITEMS.getValues())
+        {
+            final Resolved<HeatDefinition> heat = resolve(HeatCapability.CACHE.getAll(item));
+            final Resolved<FoodDefinition> food = resolve(FoodCapability.CACHE.getAll(item));
+            if (heat.isPossible() || food.isPossible())
+            {
+                table.put(item, new Entry(heat, food));
+            }
+        }
+        TABLE = Reference2ObjectMaps.unmodifiable(table);
+    }
+
+    /**
+     * @return The heat definition for the stack, equivalent to {@link HeatCapability#get(ItemStack)}.
+     */
+    @Nullable
+    public static HeatDefinition getHeat(ItemStack stack)
+    {
+        final Reference2ObjectMap<Item, Entry> table = TABLE;
+        if (table == null)
+        {
+            return HeatCapability.get(stack);
+        }
+        final Entry entry = table.get(stack.getItem());
+        return entry == null ? null : entry.heat().get(stack, HeatCapability::get);
+    }
+
+    /**
+     * @return The food definition for the stack, equivalent to {@link FoodCapability#get(ItemStack)}.
+     */
+    @Nullable
+    public static FoodDefinition getFood(ItemStack stack)
+    {
+        final Reference2ObjectMap<Item, Entry> table = TABLE;
+        if (table == null)
+        {
+            return FoodCapability.get(stack);
+        }
+        final Entry entry = table.get(stack.getItem());
+        return entry == null ? null : entry.food().get(stack, FoodCapability::get);
+    }
+
+    /**
+     * Resolves the ordered definitions which could apply to a single item.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends ItemDefinition> Resolved<T> resolve(Collection<T> definitions)
+    {
+        if (definitions.isEmpty())
+        {
+            return (Resolved<T>) Resolved.NONE;
+        }
+        final T first = definitions.iterator().next();
+        return first.isStackIndependent() ? new Resolved<>(first, false) : (Resolved<T>) Resolved.STACK_DEPENDENT;
+    }
+
+    record Entry(Resolved<HeatDefinition> heat, Resolved<FoodDefinition> food) {}
+
+    /**
+     * @param definition     The definition which always applies, if not stack dependent.
+     * @param stackDependent If {@code true}, the definition must be queried per stack.
+     */
+    public record Resolved<T extends ItemDefinition>(@Nullable T definition, boolean stackDependent)
+    {
+        static final Resolved<?> NONE = new Resolved<>(null, false);
+        static final Resolved<?> STACK_DEPENDENT = new Resolved<>(null, true);
+
+        public boolean isPossible()
+        {
+            return definition != null || stackDependent;
+        }
+
+        @Nullable
+        public T get(ItemStack stack, Function<ItemStack, T> query)
+        {
+            return stackDependent ? query.apply(stack) : definition;
+        }
+    }
+}
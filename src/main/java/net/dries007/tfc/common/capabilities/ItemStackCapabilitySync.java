@@ -6,14 +6,24 @@
 
 package net.dries007.tfc.common.capabilities;
 
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.item.ItemStack;
-import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.INBTSerializable;
 
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
+import net.dries007.tfc.common.capabilities.food.FoodData;
+import net.dries007.tfc.common.capabilities.food.FoodHandler;
+import net.dries007.tfc.common.capabilities.food.IFood;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatHandler;
+import net.dries007.tfc.common.capabilities.heat.IHeat;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This is a manager for capabilities that need to be synced externally, constantly.
@@ -31,15 +41,73 @@ import net.dries007.tfc.common.capabilities.heat.HeatCapability;
  * - All other capabilities use the stack tag to avoid sync concerns.
  * <p>
  * Finally, in order to avoid issues caused by other mods due to incorrectly synced item stacks (see <a href="https://github.com/TerraFirmaCraft/TerraFirmaCraft/issues/2198">TerraFirmaCraft#2198</a>), we need to write and read this data in an as unconditional method as possible.
- * This means we cannot check for empty stacks, or those that do not have a capability. In the best case, we write an additional +1 bytes per item stack (a typical item stack has ~4-6 bytes default). This is about as least-cost that we can make it (in the worst case, we write 1 + two nbt tags).
+ * This means we cannot check for empty stacks, or those that do not have a capability. In the best case, we write an additional +1 bytes per item stack (a typical item stack has ~4-6 bytes default). This is about as least-cost that we can make it.
+ * <p>
+ * Default food and heat handlers, which are by far the most common, are written in a compact binary format (a typical food is ~5 bytes, rather than ~50 bytes of NBT). Any other implementations fall back to writing a full NBT tag.
+ * <p>
+ * Containers only resend a stack with these capabilities when the data written here differs from the stack last seen in that slot, see {@link #hasSyncableCapabilityChanged(ItemStack, ItemStack)}. Heat decay and food expiry are computed on the client from the synced values, so they do not need to be resent as time passes.
  */
 public final class ItemStackCapabilitySync
 {
+    /**
+     * The format is a single header byte. Zero indicates no data, otherwise it contains the format version, and an encoding for each capability.
+     */
+    private static final int VERSION = 1;
+
+    private static final int ABSENT = 0;
+    private static final int NBT = 1;
+    private static final int COMPACT = 2;
+
+    private static final ThreadLocal<FriendlyByteBuf> CURRENT_BUFFER = ThreadLocal.withInitial(() -> new FriendlyByteBuf(Unpooled.buffer()));
+    private static final ThreadLocal<FriendlyByteBuf> PREVIOUS_BUFFER = ThreadLocal.withInitial(() -> new FriendlyByteBuf(Unpooled.buffer()));
+
+    private static final LongAdder SLOT_UPDATES_SENT = new LongAdder();
+    private static final LongAdder SLOT_UPDATES_SUPPRESSED = new LongAdder();
+
     public static boolean hasSyncableCapability(ItemStack stack)
     {
         return stack.getCapability(FoodCapability.CAPABILITY).isPresent() || stack.getCapability(HeatCapability.CAPABILITY).isPresent();
     }
 
+    /**
+     * Checks if the synced capability state of {@code current} differs from {@code previous}, by comparing their network representations. Stacks without these capabilities are never considered changed.
+     * <p>
+     * This is used by containers, where {@code previous} is the copy of the stack last seen in the same slot. Since a stack is only ever suppressed when its representation is identical to the previous stack's, the previous stack always has the same representation as the stack last sent to the client.
+     */
+    public static boolean hasSyncableCapabilityChanged(ItemStack current, ItemStack previous)
+    {
+        if (!hasSyncableCapability(current))
+        {
+            return false;
+        }
+
+        final FriendlyByteBuf currentBuffer = CURRENT_BUFFER.get(), previousBuffer = PREVIOUS_BUFFER.get();
+        currentBuffer.clear();
+        previousBuffer.clear();
+        writeToNetwork(current, currentBuffer);
+        writeToNetwork(previous, previousBuffer);
+
+        final boolean changed = !ByteBufUtil.equals(currentBuffer, previousBuffer);
+        (changed ? SLOT_UPDATES_SENT : SLOT_UPDATES_SUPPRESSED).increment();
+        return changed;
+    }
+
+    /**
+     * @return The number of container slot updates that were sent due to a change in synced capabilities.
+     */
+    public static long getSlotUpdatesSent()
+    {
+        return SLOT_UPDATES_SENT.sum();
+    }
+
+    /**
+     * @return The number of container slot updates that were skipped, as the synced capabilities had not changed.
+     */
+    public static long getSlotUpdatesSuppressed()
+    {
+        return SLOT_UPDATES_SUPPRESSED.sum();
+    }
+
     public static void writeToNetwork(ItemStack stack, FriendlyByteBuf buffer)
     {
         // getCapability().resolve() might be called on an uninitialized stack here, which actually involves a mutation to the stack, as capabilities will be initialized for the first time
@@ -47,41 +115,66 @@ public final class ItemStackCapabilitySync
         // While this is a weird construct, we should be able to synchronize on the item stack itself - this will prevent any stacks from having getCapability invoked and resolved by two threads at once. Different stacks should be fully safe to execute independently.
         synchronized (stack)
         {
-            if (hasSyncableCapability(stack))
+            final IFood food = stack.getCapability(FoodCapability.CAPABILITY).resolve().orElse(null);
+            final IHeat heat = stack.getCapability(HeatCapability.CAPABILITY).resolve().orElse(null);
+            if (food == null && heat == null)
             {
-                buffer.writeBoolean(true);
-                writeToNetwork(FoodCapability.CAPABILITY, stack, buffer);
-                writeToNetwork(HeatCapability.CAPABILITY, stack, buffer);
+                buffer.writeByte(0);
+                return;
             }
-            else
+
+            // Only the exact default handlers use the compact encoding. Any others (subclasses or other implementations) may serialize additional data, so they use NBT.
+            final int foodEncoding = food == null ? ABSENT : food.getClass() == FoodHandler.class ? COMPACT : NBT;
+            final int heatEncoding = heat == null ? ABSENT : heat.getClass() == HeatHandler.class ? COMPACT : NBT;
+
+            buffer.writeByte((VERSION << 4) | (foodEncoding << 2) | heatEncoding);
+            switch (foodEncoding)
             {
-                buffer.writeBoolean(false);
+                case COMPACT -> ((FoodHandler) food).encode(buffer);
+                case NBT -> buffer.writeNbt(food.serializeNBT());
+            }
+            switch (heatEncoding)
+            {
+                case COMPACT -> ((HeatHandler) heat).encode(buffer);
+                case NBT -> buffer.writeNbt(heat.serializeNBT());
             }
         }
     }
 
     public static void readFromNetwork(ItemStack stack, FriendlyByteBuf buffer)
     {
-        if (buffer.readBoolean())
+        final int header = buffer.readUnsignedByte();
+        if (header != 0)
         {
-            readFromNetwork(FoodCapability.CAPABILITY, stack, buffer);
-            readFromNetwork(HeatCapability.CAPABILITY, stack, buffer);
-        }
-    }
+            final int version = header >> 4;
+            if (version != VERSION)
+            {
+                throw new DecoderException("Unknown item stack capability sync version: " + version);
+            }
 
-    private static void writeToNetwork(Capability<? extends INBTSerializable<CompoundTag>> capability, ItemStack stack, FriendlyByteBuf buffer)
-    {
-        buffer.writeNbt(stack.getCapability(capability)
-            .map(INBTSerializable::serializeNBT)
-            .orElse(null));
+            final IFood food = stack.getCapability(FoodCapability.CAPABILITY).resolve().orElse(null);
+            final IHeat heat = stack.getCapability(HeatCapability.CAPABILITY).resolve().orElse(null);
+
+            // Data must be read regardless of if the capability is present on this side, in order to consume it from the buffer
+            switch ((header >> 2) & 0b11)
+            {
+                case COMPACT -> FoodHandler.decode(buffer, food != null ? food : new FoodHandler(FoodData.EMPTY));
+                case NBT -> readFromNetwork(food, buffer);
+            }
+            switch (header & 0b11)
+            {
+                case COMPACT -> HeatHandler.decode(buffer, heat != null ? heat : new HeatHandler(0, 0, 0));
+                case NBT -> readFromNetwork(heat, buffer);
+            }
+        }
     }
 
-    private static void readFromNetwork(Capability<? extends INBTSerializable<CompoundTag>> capability, ItemStack stack, FriendlyByteBuf buffer)
+    private static void readFromNetwork(@Nullable INBTSerializable<CompoundTag> capability, FriendlyByteBuf buffer)
     {
         final CompoundTag tag = buffer.readNbt();
-        if (tag != null)
+        if (tag != null && capability != null)
         {
-            stack.getCapability(capability).ifPresent(cap -> cap.deserializeNBT(tag));
+            capability.deserializeNBT(tag);
         }
     }
 }
@@ -14,6 +14,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ICapabilitySerializable;
@@ -22,6 +23,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 
@@ -200,6 +202,59 @@ public class FoodHandler implements ICapabilitySerializable<CompoundTag>, IFood
         creationDate = nbt.contains("creationDate") ? nbt.getLong("creationDate") : UNKNOWN_CREATION_DATE;
     }
 
+    /**
+     * Writes a compact network representation, equivalent to {@link #serializeNBT()}, for non-dynamic food.
+     * The creation date is sent as a variable length value, as in practice it is much smaller than a long, and traits are sent as network ids.
+     */
+    public void encode(FriendlyByteBuf buffer)
+    {
+        final long creationDate = getCreationDate();
+        int traitCount = 0;
+        for (FoodTrait trait : foodTraits)
+        {
+            if (FoodTrait.getNetworkId(trait) != -1)
+            {
+                traitCount++;
+            }
+        }
+
+        // Rotten is common, and Long.MIN_VALUE is the worst case for a variable length encoding, so encode it as a flag
+        buffer.writeVarInt((traitCount << 1) | (creationDate == ROTTEN_DATE ? 1 : 0));
+        if (creationDate != ROTTEN_DATE)
+        {
+            Helpers.writeZigZagVarLong(buffer, creationDate);
+        }
+        for (FoodTrait trait : foodTraits)
+        {
+            final int id = FoodTrait.getNetworkId(trait);
+            if (id != -1)
+            {
+                buffer.writeVarInt(id);
+            }
+        }
+    }
+
+    /**
+     * Reads the representation written by {@link #encode(FriendlyByteBuf)}, and applies it to any food instance.
+     */
+    public static void decode(FriendlyByteBuf buffer, IFood food)
+    {
+        final int header = buffer.readVarInt();
+        final long creationDate = (header & 1) != 0 ? ROTTEN_DATE : Helpers.readZigZagVarLong(buffer);
+        final List<FoodTrait> traits = food.getTraits();
+
+        traits.clear();
+        for (int i = 0, count = header >>> 1; i < count; i++)
+        {
+            final FoodTrait trait = FoodTrait.getTraitByNetworkId(buffer.readVarInt());
+            if (trait != null)
+            {
+                traits.add(trait);
+            }
+        }
+        food.setCreationDate(creationDate);
+    }
+
     /**
      * This marks if the food data should be serialized. For normal food items, it isn't, because all values are provided on construction via CapabilityFood. Only mark this if food data will change per item stack
      */
@@ -7,6 +7,7 @@
 package net.dries007.tfc.common.capabilities.food;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.Nullable;
@@ -26,6 +27,11 @@ public class FoodTrait
 {
     private static final BiMap<ResourceLocation, FoodTrait> REGISTRY = HashBiMap.create();
 
+    /**
+     * Integer ids, used for network sync. These are assigned in order of the trait's registry name, so they are consistent between sides regardless of registration order. Built lazily, and reset on registration.
+     */
+    @Nullable private static volatile FoodTrait[] NETWORK_IDS = null;
+
     /**
      * Register a food trait.
      * This method is safe to call during parallel mod loading.
@@ -37,6 +43,7 @@ public class FoodTrait
             throw new IllegalArgumentException("Duplicate key: " + id);
         }
         REGISTRY.put(id, trait);
+        NETWORK_IDS = null;
         return trait;
     }
 
@@ -56,6 +63,47 @@ public class FoodTrait
         return REGISTRY.inverse().get(trait);
     }
 
+    /**
+     * @return An integer id for the trait, which is consistent across the network, or -1 if the trait is not registered.
+     */
+    public static int getNetworkId(FoodTrait trait)
+    {
+        final FoodTrait[] ids = getNetworkIds();
+        for (int i = 0; i < ids.length; i++)
+        {
+            if (ids[i] == trait)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    public static FoodTrait getTraitByNetworkId(int id)
+    {
+        final FoodTrait[] ids = getNetworkIds();
+        return id >= 0 && id < ids.length ? ids[id] : null;
+    }
+
+    private static FoodTrait[] getNetworkIds()
+    {
+        FoodTrait[] ids = NETWORK_IDS;
+        if (ids == null)
+        {
+            synchronized (FoodTrait.class)
+            {
+                ids = REGISTRY.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(Map.Entry::getValue)
+                    .toArray(FoodTrait[]::new);
+                NETWORK_IDS = ids;
+            }
+        }
+        return ids;
+    }
+
     private final float decayModifier;
     @Nullable private final String translationKey;
 
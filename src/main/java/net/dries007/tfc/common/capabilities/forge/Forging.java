@@ -8,7 +8,6 @@ package net.dries007.tfc.common.capabilities.forge;
 
 import java.util.List;
 
-import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.network.chat.Component;
@@ -16,22 +15,18 @@ import net.minecraft.network.chat.TranslatableComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
-import net.minecraftforge.common.capabilities.Capability;
-import net.minecraftforge.common.capabilities.ICapabilityProvider;
-import net.minecraftforge.common.util.LazyOptional;
 
 import net.dries007.tfc.common.items.VesselItem;
 import net.dries007.tfc.common.recipes.AnvilRecipe;
 import net.dries007.tfc.common.recipes.TFCRecipeTypes;
 import net.dries007.tfc.util.Helpers;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * A capability instance which is attached to all items, in order to store (cached) and manipulate anvil working/forging data.
- * This instance is lazily initialized upon first getCapability() query, and saves all data directly to the stack tag.
+ * A capability instance which is attached to all items (via {@link ForgingHandler}), in order to store (cached) and manipulate anvil working/forging data.
+ * This instance is lazily created upon first getCapability() query, and saves all data directly to the stack tag.
  */
-public final class Forging implements ICapabilityProvider
+public final class Forging
 {
     private static final String KEY = "tfc:forging";
 
@@ -45,7 +40,6 @@ public final class Forging implements ICapabilityProvider
         });
     }
 
-    private final LazyOptional<Forging> capability;
     private final ItemStack stack;
 
     private final ForgeSteps steps;
@@ -56,7 +50,6 @@ public final class Forging implements ICapabilityProvider
 
     public Forging(ItemStack stack)
     {
-        this.capability = LazyOptional.of(() -> this);
         this.stack = stack;
 
         this.work = 0;
@@ -162,16 +155,6 @@ public final class Forging implements ICapabilityProvider
         save();
     }
 
-    @NotNull
-    public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
-    {
-        if (cap == ForgingCapability.CAPABILITY)
-        {
-            return capability.cast();
-        }
-        return LazyOptional.empty();
-    }
-
     private void load()
     {
         final CompoundTag tag = stack.getTagElement(KEY);
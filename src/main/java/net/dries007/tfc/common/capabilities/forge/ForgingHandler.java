@@ -0,0 +1,40 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.capabilities.forge;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The capability provider attached to all items for {@link Forging}. As this is attached to every single item stack, the {@link Forging} instance (and reading the stack tag) is deferred until the capability is first queried.
+ */
+public final class ForgingHandler implements ICapabilityProvider
+{
+    private final LazyOptional<Forging> capability;
+
+    public ForgingHandler(ItemStack stack)
+    {
+        this.capability = LazyOptional.of(() -> new Forging(stack));
+    }
+
+    @NotNull
+    @Override
+    public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
+    {
+        if (cap == ForgingCapability.CAPABILITY)
+        {
+            return capability.cast();
+        }
+        return LazyOptional.empty();
+    }
+}
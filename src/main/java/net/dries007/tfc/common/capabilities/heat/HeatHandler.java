@@ -8,10 +8,12 @@ package net.dries007.tfc.common.capabilities.heat;
 
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ICapabilitySerializable;
 import net.minecraftforge.common.util.LazyOptional;
 
+import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.calendar.Calendars;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -124,6 +126,45 @@ public class HeatHandler implements ICapabilitySerializable<CompoundTag>, IHeat
         lastUpdateTick = nbt.getLong("ticks");
     }
 
+    /**
+     * Writes a compact network representation, equivalent to {@link #serializeNBT()}. The temperature is sent as a half float, so is accurate to within about half a degree at typical forging temperatures.
+     */
+    public void encode(FriendlyByteBuf buffer)
+    {
+        final short half = Helpers.floatToHalf(temperature);
+        if (getTemperature() <= 0 || half == 0)
+        {
+            buffer.writeShort(0);
+        }
+        else
+        {
+            buffer.writeShort(half);
+            buffer.writeVarLong(lastUpdateTick);
+        }
+    }
+
+    /**
+     * Reads the representation written by {@link #encode(FriendlyByteBuf)}, and applies it to any heat instance.
+     */
+    public static void decode(FriendlyByteBuf buffer, IHeat heat)
+    {
+        final short half = buffer.readShort();
+        final float temperature = Helpers.halfToFloat(half);
+        final long lastUpdateTick = half == 0 ? 0 : buffer.readVarLong();
+        if (heat instanceof HeatHandler handler)
+        {
+            handler.temperature = temperature;
+            handler.lastUpdateTick = lastUpdateTick;
+        }
+        else
+        {
+            final CompoundTag nbt = new CompoundTag();
+            nbt.putLong("ticks", lastUpdateTick);
+            nbt.putFloat("heat", temperature);
+            heat.deserializeNBT(nbt);
+        }
+    }
+
     /**
      * Sets the current heat capacity, for implementations that might change this based on an internal state
      */
@@ -8,12 +8,14 @@ package net.dries007.tfc.common.commands;
 
 import java.util.ArrayList;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.arguments.ResourceLocationArgument;
@@ -39,8 +41,10 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.BiomeSearch;
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
 import net.dries007.tfc.world.biome.TFCBiomes;
 import net.dries007.tfc.world.biome.VolcanoNoise;
@@ -48,9 +52,12 @@ import net.dries007.tfc.world.feature.vein.Vein;
 import net.dries007.tfc.world.feature.vein.VeinConfig;
 import net.dries007.tfc.world.feature.vein.VeinFeature;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 public class LocateCommand
 {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
     private static final DynamicCommandExceptionType ERROR_INVALID_BIOME = new DynamicCommandExceptionType(id -> Helpers.translatable("tfc.commands.locate.invalid_biome", id));
     private static final SimpleCommandExceptionType ERROR_INVALID_BIOME_SOURCE = new SimpleCommandExceptionType(Helpers.translatable("tfc.commands.locate.invalid_biome_source"));
     private static final DynamicCommandExceptionType ERROR_NOT_FOUND = new DynamicCommandExceptionType(id -> Helpers.translatable("tfc.commands.locate.not_found", id));
@@ -95,20 +102,16 @@ public class LocateCommand
         }
 
         final BlockPos center = new BlockPos(source.getPosition());
-        final BlockPos result = radialSearch(QuartPos.fromBlock(center.getX()), QuartPos.fromBlock(center.getZ()), 1024, 16, (x, z) -> {
+        final CompletableFuture<BiomeSearch.Result> search = BiomeSearch.nearest(QuartPos.fromBlock(center.getX()), QuartPos.fromBlock(center.getZ()), 1024, 16, (x, z) -> {
             final BiomeExtension found = biomeSourceExtension.getNoiseBiomeVariants(x, z);
             if (found == variants)
             {
                 return new BlockPos(QuartPos.fromSection(x), 0, QuartPos.fromSection(z));
             }
             return null;
-        });
+        }, Util.backgroundExecutor());
 
-        if (result == null)
-        {
-            throw ERROR_NOT_FOUND.create(id);
-        }
-        return showLocateResult(source, id.toString(), center, result, "commands.locate.success");
+        return showLocateResultAsync(source, id.toString(), center, search, () -> ERROR_NOT_FOUND.create(id));
     }
 
     private static int locateVolcano(CommandSourceStack source) throws CommandSyntaxException
@@ -121,7 +124,7 @@ public class LocateCommand
 
         final VolcanoNoise volcanoNoise = new VolcanoNoise(source.getLevel().getSeed());
         final BlockPos center = new BlockPos(source.getPosition());
-        final BlockPos result = radialSearch(center.getX(), center.getZ(), 1024, 16, (x, z) -> {
+        final CompletableFuture<BiomeSearch.Result> search = BiomeSearch.nearest(center.getX(), center.getZ(), 1024, 16, (x, z) -> {
             final BlockPos volcanoPos = volcanoNoise.calculateCenter(x, 0, z, 1); // Sample with rarity 1 first, to always include the cell
             if (volcanoPos != null)
             {
@@ -134,13 +137,9 @@ public class LocateCommand
                 }
             }
             return null;
-        });
+        }, Util.backgroundExecutor());
 
-        if (result == null)
-        {
-            throw ERROR_VOLCANO_NOT_FOUND.create();
-        }
-        return showLocateResult(source, "volcano", center, result, "commands.locate.success");
+        return showLocateResultAsync(source, "volcano", center, search, ERROR_VOLCANO_NOT_FOUND::create);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -194,6 +193,30 @@ public class LocateCommand
         throw ERROR_VEIN_NOT_FOUND.create(id.toString());
     }
 
+    /**
+     * Searches may take a while, so they are run off the server thread, and the result is shown once they complete.
+     * <p>
+     * The command returns before the search completes, so unlike a synchronous locate, it cannot return the distance, or fail if nothing is found. It returns zero, so {@code execute store result} / {@code execute store success} and command blocks do not record a success before there is a result.
+     */
+    private static int showLocateResultAsync(CommandSourceStack context, String nameOfThing, BlockPos source, CompletableFuture<BiomeSearch.Result> search, Supplier<CommandSyntaxException> notFound)
+    {
+        search.thenAcceptAsync(result -> {
+            LOGGER.debug("Located {}: {}", nameOfThing, result);
+            if (result.pos() != null)
+            {
+                showLocateResult(context, nameOfThing, source, result.pos(), "commands.locate.success");
+            }
+            else
+            {
+                context.sendFailure(ComponentUtils.fromMessage(notFound.get().getRawMessage()));
+            }
+        }, context.getServer()).exceptionally(e -> {
+            LOGGER.error("Error locating {}", nameOfThing, e);
+            return null;
+        });
+        return 0; // No result yet, see above
+    }
+
     private static int showLocateResult(CommandSourceStack context, String nameOfThing, BlockPos source, BlockPos dest, String translationKey)
     {
         return showLocateResult(context, nameOfThing, source, dest, "~", translationKey);
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.Pregenerator;
+
+public final class PregenCommand
+{
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("pregen")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("cancel")
+                .executes(cmd -> cancel(cmd.getSource()))
+            )
+            .then(Commands.literal("status")
+                .executes(cmd -> status(cmd.getSource()))
+            )
+            .then(Commands.argument("radius", IntegerArgumentType.integer(1, 1000))
+                .executes(cmd -> start(cmd.getSource(), IntegerArgumentType.getInteger(cmd, "radius")))
+            );
+    }
+
+    private static int start(CommandSourceStack source, int radius)
+    {
+        final ServerLevel level = source.getLevel();
+        final ChunkPos center = new ChunkPos(new BlockPos(source.getPosition()));
+        if (!Pregenerator.start(source, level, center, radius))
+        {
+            source.sendFailure(Helpers.translatable(Pregenerator.ALREADY_RUNNING));
+            return 0;
+        }
+        source.sendSuccess(Helpers.translatable(Pregenerator.STARTED, Pregenerator.count(radius), center.x, center.z, level.dimension().location()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int cancel(CommandSourceStack source)
+    {
+        final Pregenerator job = Pregenerator.getActive();
+        if (job == null || !Pregenerator.cancel())
+        {
+            source.sendFailure(Helpers.translatable(Pregenerator.NOT_RUNNING));
+            return 0;
+        }
+        source.sendSuccess(Helpers.translatable(Pregenerator.CANCELLED, job.done()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int status(CommandSourceStack source)
+    {
+        final Pregenerator job = Pregenerator.getActive();
+        if (job == null)
+        {
+            source.sendFailure(Helpers.translatable(Pregenerator.NOT_RUNNING));
+            return 0;
+        }
+        job.sendStatus(source);
+        return Command.SINGLE_SUCCESS;
+    }
+}
@@ -27,6 +27,7 @@ public class CommonConfig
 
     // General
     public final ForgeConfigSpec.BooleanValue setTFCWorldTypeAsDefault;
+    public final ForgeConfigSpec.BooleanValue enableWatershedCache;
 
     // Calendar
     public final ForgeConfigSpec.IntValue defaultMonthLength;
@@ -50,6 +51,10 @@ public class CommonConfig
             " 2. This ONLY will set the default if it was set to 'default' (or vanilla generation)",
             " 3. This DOES NOT guarantee that the world generation will be TFC, if another mod sets the default another way"
         ).define("setTFCWorldTypeAsDefault", true);
+        enableWatershedCache = builder.apply("enableWatershedCache").comment(
+            " If enabled, generated watersheds (the river networks used by TFC world generation) will be cached on disk, under the world's data/tfc_watersheds/ directory.",
+            " This avoids regenerating them after each restart. The cache is validated against the world seed, and can be safely deleted at any time."
+        ).define("enableWatershedCache", true);
 
         innerBuilder.pop().push("calendar");
 
@@ -54,6 +54,7 @@ public class ServerConfig
     // Blocks - Plants
     public final ForgeConfigSpec.DoubleValue plantGrowthChance;
     public final ForgeConfigSpec.DoubleValue plantsMovementModifier;
+    public final ForgeConfigSpec.BooleanValue migrateBushLifecycles;
     // Blocks - Cobblestone
     public final ForgeConfigSpec.BooleanValue enableMossyRockSpreading;
     public final ForgeConfigSpec.IntValue mossyRockSpreadRate;
@@ -277,6 +278,10 @@ public class ServerConfig
 
         plantGrowthChance = builder.apply("plantGrowthChance").comment("Chance for a plant to grow each random tick, does not include crops. Lower = slower growth. Set to 0 to disable random plant growth.").defineInRange("plantGrowthChance", 0.05, 0, 1);
         plantsMovementModifier = builder.apply("plantsMovementModifier").comment("A movement multiplier for players moving through plants. Individual plants will use a ratio of this value, and lower = slower.").defineInRange("plantsMovementModifier", 0.2, 0, 1);
+        migrateBushLifecycles = builder.apply("migrateBushLifecycles").comment(
+            "If true, berry bushes, fruit tree leaves, and banana plants saved by older versions keep the time they were last updated when they are first loaded, and catch up on any time they spent unloaded.",
+            "If false, they are treated as if they were last updated when first loaded, which avoids a burst of updates when first loading a large world from an older version."
+        ).define("migrateBushLifecycles", true);
 
         innerBuilder.pop().push("leaves");
 
@@ -21,7 +21,7 @@ public abstract class AbstractContainerMenuMixin
     private boolean hasClientStackChangedIncludingSyncableCapabilities(ItemStack current, ItemStack previous, boolean limitTags)
     {
         // This mimics the behavior of ItemStack#equals, and so a 'false' return value means 'we need to sync this anyway'
-        // We add an additional check here in order for these two item stacks to be equal enough to not sync to client.
-        return !ItemStackCapabilitySync.hasSyncableCapability(current) && current.equals(previous, limitTags);
+        // We add an additional check here in order for these two item stacks to be equal enough to not sync to client, which includes their syncable capabilities.
+        return current.equals(previous, limitTags) && !ItemStackCapabilitySync.hasSyncableCapabilityChanged(current, previous);
     }
 }
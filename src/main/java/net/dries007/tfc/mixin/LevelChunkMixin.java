@@ -0,0 +1,40 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.mixin;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import net.dries007.tfc.util.tracker.SupportIndex;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin
+{
+    @Shadow @Final Level level;
+
+    /**
+     * Keep the support index up to date with every block change, as supports can be placed and removed without firing any events (by other supports, explosions, collapses, etc.)
+     * The return value is the previous state, or {@code null} if nothing changed.
+     */
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void updateSupportIndex(BlockPos pos, BlockState state, boolean isMoving, CallbackInfoReturnable<BlockState> cir)
+    {
+        final BlockState oldState = cir.getReturnValue();
+        if (oldState != null && !level.isClientSide())
+        {
+            SupportIndex.onBlockChanged((LevelChunk) (Object) this, pos, oldState, state);
+        }
+    }
+}
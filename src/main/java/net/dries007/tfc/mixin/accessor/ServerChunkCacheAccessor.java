@@ -0,0 +1,28 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.mixin.accessor;
+
+import java.util.concurrent.CompletableFuture;
+
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import com.mojang.datafixers.util.Either;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(ServerChunkCache.class)
+public interface ServerChunkCacheAccessor
+{
+    /**
+     * Unlike {@link ServerChunkCache#getChunkFuture(int, int, ChunkStatus, boolean)}, this does not wait for the chunk when called from the server thread.
+     */
+    @Invoker("getChunkFutureMainThread")
+    CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> invoke$getChunkFutureMainThread(int chunkX, int chunkZ, ChunkStatus status, boolean load);
+}
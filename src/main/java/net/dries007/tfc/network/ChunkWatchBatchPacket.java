@@ -0,0 +1,73 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+/**
+ * Sent from server -> client, syncs chunk data for many chunks at once. This is sent in place of individual {@link ChunkWatchPacket}s, for all chunks watched by a player in a single tick.
+ * Each entry is encoded compactly (see {@link ChunkWatchPacket#encodeCompact(FriendlyByteBuf, int, int)}), and all entries are applied in a single task on the client.
+ */
+public class ChunkWatchBatchPacket
+{
+    /**
+     * The maximum number of entries in a single packet. Each entry is at most ~30 bytes, which keeps a single packet well under the vanilla payload limit.
+     */
+    public static final int MAX_ENTRIES = 1024;
+
+    private final List<ChunkWatchPacket> entries;
+
+    public ChunkWatchBatchPacket(List<ChunkWatchPacket> entries)
+    {
+        this.entries = entries;
+    }
+
+    ChunkWatchBatchPacket(FriendlyByteBuf buffer)
+    {
+        final int size = buffer.readVarInt();
+        if (size > MAX_ENTRIES)
+        {
+            throw new IllegalArgumentException("Too many entries in chunk watch batch: " + size + " > " + MAX_ENTRIES);
+        }
+
+        entries = new ArrayList<>(size);
+        int prevChunkX = 0, prevChunkZ = 0;
+        for (int i = 0; i < size; i++)
+        {
+            final ChunkWatchPacket entry = new ChunkWatchPacket(buffer, prevChunkX, prevChunkZ);
+            entries.add(entry);
+            prevChunkX = entry.chunkX();
+            prevChunkZ = entry.chunkZ();
+        }
+    }
+
+    void encode(FriendlyByteBuf buffer)
+    {
+        buffer.writeVarInt(entries.size());
+        int prevChunkX = 0, prevChunkZ = 0;
+        for (ChunkWatchPacket entry : entries)
+        {
+            entry.encodeCompact(buffer, prevChunkX, prevChunkZ);
+            prevChunkX = entry.chunkX();
+            prevChunkZ = entry.chunkZ();
+        }
+    }
+
+    void handle(NetworkEvent.Context context)
+    {
+        context.enqueueWork(() -> {
+            for (ChunkWatchPacket entry : entries)
+            {
+                entry.apply();
+            }
+        });
+    }
+}
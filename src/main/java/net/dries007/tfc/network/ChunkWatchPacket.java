@@ -9,6 +9,7 @@ package net.dries007.tfc.network;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.ChunkAccess;
@@ -23,6 +24,9 @@ import net.dries007.tfc.world.chunkdata.*;
  */
 public class ChunkWatchPacket
 {
+    private static final int FLAG_RAINFALL = 1;
+    private static final int FLAG_TEMPERATURE = 2;
+
     private final int chunkX;
     private final int chunkZ;
     @Nullable private final LerpFloatLayer rainfallLayer;
@@ -68,24 +72,84 @@ public class ChunkWatchPacket
         buffer.writeByte(plateTectonicsInfo.ordinal());
     }
 
+    /**
+     * Decodes the compact representation used by {@link ChunkWatchBatchPacket}, relative to the previous chunk position in the batch.
+     */
+    ChunkWatchPacket(FriendlyByteBuf buffer, int prevChunkX, int prevChunkZ)
+    {
+        chunkX = prevChunkX + Helpers.readZigZagVarInt(buffer);
+        chunkZ = prevChunkZ + Helpers.readZigZagVarInt(buffer);
+
+        final int flags = buffer.readByte();
+        rainfallLayer = (flags & FLAG_RAINFALL) != 0 ? LerpFloatLayer.decodeQuantized(buffer) : null;
+        temperatureLayer = (flags & FLAG_TEMPERATURE) != 0 ? LerpFloatLayer.decodeQuantized(buffer) : null;
+
+        final int types = buffer.readUnsignedByte();
+        forestType = ForestType.valueOf(types & 0b111);
+        plateTectonicsInfo = PlateTectonicsClassification.valueOf(types >> 3);
+
+        forestDensity = buffer.readUnsignedShort() / 65535f;
+        forestWeirdness = buffer.readUnsignedShort() / 65535f;
+    }
+
+    /**
+     * Encodes a compact representation, used by {@link ChunkWatchBatchPacket}. The position is delta coded against the previous position, climate layers are quantized, and both enum values are packed into a single byte.
+     * Forest density and weirdness are in [0, 1], and are quantized to 16 bits.
+     */
+    void encodeCompact(FriendlyByteBuf buffer, int prevChunkX, int prevChunkZ)
+    {
+        Helpers.writeZigZagVarInt(buffer, chunkX - prevChunkX);
+        Helpers.writeZigZagVarInt(buffer, chunkZ - prevChunkZ);
+
+        buffer.writeByte((rainfallLayer != null ? FLAG_RAINFALL : 0) | (temperatureLayer != null ? FLAG_TEMPERATURE : 0));
+        if (rainfallLayer != null)
+        {
+            rainfallLayer.encodeQuantized(buffer);
+        }
+        if (temperatureLayer != null)
+        {
+            temperatureLayer.encodeQuantized(buffer);
+        }
+
+        buffer.writeByte(forestType.ordinal() | (plateTectonicsInfo.ordinal() << 3));
+        buffer.writeShort(Math.round(Mth.clamp(forestDensity, 0, 1) * 65535f));
+        buffer.writeShort(Math.round(Mth.clamp(forestWeirdness, 0, 1) * 65535f));
+    }
+
+    int chunkX()
+    {
+        return chunkX;
+    }
+
+    int chunkZ()
+    {
+        return chunkZ;
+    }
+
     void handle(NetworkEvent.Context context)
     {
-        context.enqueueWork(() -> {
-            ChunkPos pos = new ChunkPos(chunkX, chunkZ);
-            // Update client-side chunk data capability
-            Level world = ClientHelpers.getLevel();
-            if (world != null)
-            {
-                // First, synchronize the chunk data in the capability and cache.
-                // Then, update the single data instance with the packet data
-                ChunkAccess chunk = world.hasChunk(chunkX, chunkZ) ? world.getChunk(chunkX, chunkZ) : null;
-                ChunkData data = ChunkData.getCapability(chunk)
-                    .map(dataIn -> {
-                        ChunkDataCache.CLIENT.update(pos, dataIn);
-                        return dataIn;
-                    }).orElseGet(() -> ChunkDataCache.CLIENT.computeIfAbsent(pos, ChunkData::createClient));
-                data.onUpdatePacket(rainfallLayer, temperatureLayer, forestType, forestDensity, forestWeirdness, plateTectonicsInfo);
-            }
-        });
+        context.enqueueWork(this::apply);
+    }
+
+    /**
+     * Applies this packet's data to the client cache. Must be called on the main thread.
+     */
+    void apply()
+    {
+        ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+        // Update client-side chunk data capability
+        Level world = ClientHelpers.getLevel();
+        if (world != null)
+        {
+            // First, synchronize the chunk data in the capability and cache.
+            // Then, update the single data instance with the packet data
+            ChunkAccess chunk = world.hasChunk(chunkX, chunkZ) ? world.getChunk(chunkX, chunkZ) : null;
+            ChunkData data = ChunkData.getCapability(chunk)
+                .map(dataIn -> {
+                    ChunkDataCache.CLIENT.update(pos, dataIn);
+                    return dataIn;
+                }).orElseGet(() -> ChunkDataCache.CLIENT.computeIfAbsent(pos, ChunkData::createClient));
+            data.onUpdatePacket(rainfallLayer, temperatureLayer, forestType, forestDensity, forestWeirdness, plateTectonicsInfo);
+        }
     }
 }
\ No newline at end of file
@@ -991,6 +991,98 @@ public final class Helpers
         return null;
     }
 
+    /**
+     * Writes an int as a variable length, zigzag encoded value, so small negative values are also encoded compactly.
+     */
+    public static void writeZigZagVarInt(FriendlyByteBuf buffer, int value)
+    {
+        buffer.writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public static int readZigZagVarInt(FriendlyByteBuf buffer)
+    {
+        final int value = buffer.readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes a long as a variable length, zigzag encoded value, so small negative values are also encoded compactly.
+     */
+    public static void writeZigZagVarLong(FriendlyByteBuf buffer, long value)
+    {
+        buffer.writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public static long readZigZagVarLong(FriendlyByteBuf buffer)
+    {
+        final long value = buffer.readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Converts a float to the bits of an IEEE 754 half precision float, rounding to nearest. Values outside the range of a half float are clamped to the largest finite value, or infinity.
+     */
+    public static short floatToHalf(float value)
+    {
+        final int bits = Float.floatToRawIntBits(value);
+        final int sign = (bits >>> 16) & 0x8000;
+        final int abs = bits & 0x7fffffff;
+        if (abs >= 0x7f800000)
+        {
+            return (short) (abs == 0x7f800000 ? sign | 0x7c00 : sign | 0x7e00); // Infinity, or NaN
+        }
+        if (abs >= 0x47800000)
+        {
+            return (short) (sign | 0x7c00); // Too large, becomes infinity
+        }
+
+        final int rounded = abs + 0x1000;
+        if (rounded >= 0x47800000)
+        {
+            return (short) (sign | 0x7bff); // Rounded up past the largest finite value
+        }
+        if (rounded >= 0x38800000)
+        {
+            return (short) (sign | ((rounded - 0x38000000) >>> 13)); // Normal
+        }
+        if (rounded < 0x33000000)
+        {
+            return (short) sign; // Too small, becomes zero
+        }
+        final int exponent = abs >>> 23; // Subnormal
+        return (short) (sign | ((((abs & 0x7fffff) | 0x800000) + (0x800000 >>> (exponent - 102))) >>> (126 - exponent)));
+    }
+
+    /**
+     * Converts the bits of an IEEE 754 half precision float, to a float. This is exact.
+     */
+    public static float halfToFloat(short half)
+    {
+        final int sign = (half & 0x8000) << 16;
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        if (exponent == 0)
+        {
+            if (mantissa == 0)
+            {
+                return Float.intBitsToFloat(sign); // Zero
+            }
+            // Subnormal, so normalize the mantissa
+            exponent = 1;
+            while ((mantissa & 0x400) == 0)
+            {
+                mantissa <<= 1;
+                exponent--;
+            }
+            mantissa &= 0x3ff;
+        }
+        else if (exponent == 0x1f)
+        {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13)); // Infinity or NaN
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
     /**
      * @see net.minecraft.core.QuartPos#toBlock(int)
      */
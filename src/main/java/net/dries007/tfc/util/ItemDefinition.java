@@ -42,6 +42,14 @@ public class ItemDefinition
         return ingredient.test(stack);
     }
 
+    /**
+     * @return {@code true} if this definition matches every stack of its valid items, regardless of NBT.
+     */
+    public boolean isStackIndependent()
+    {
+        return ingredient.isSimple();
+    }
+
     public Collection<Item> getValidItems()
     {
         return Arrays.stream(ingredient.getItems()).map(ItemStack::getItem).collect(Collectors.toSet());
@@ -6,13 +6,17 @@
 
 package net.dries007.tfc.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.GsonHelper;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.block.Block;
@@ -21,6 +25,7 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredient;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredients;
 import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.tracker.SupportIndex;
 import org.jetbrains.annotations.Nullable;
 
 public final class Support
@@ -38,40 +43,36 @@ public final class Support
      */
     public static Set<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to)
     {
-        Set<BlockPos> listSupported = new HashSet<>();
-        Set<BlockPos> listUnsupported = new HashSet<>();
-        int minX = Math.min(from.getX(), to.getX());
-        int maxX = Math.max(from.getX(), to.getX());
-        int minY = Math.min(from.getY(), to.getY());
-        int maxY = Math.max(from.getY(), to.getY());
-        int minZ = Math.min(from.getZ(), to.getZ());
-        int maxZ = Math.max(from.getZ(), to.getZ());
-        for (BlockPos searchingPoint : getMaximumSupportedAreaAround(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ)))
+        return findUnsupportedPositions(worldIn, from, to, findSupports(worldIn, from, to));
+    }
+
+    /**
+     * @param supports The positions of all supports which may support a position between {@code from} and {@code to}, as returned by {@link #findSupports(BlockGetter, BlockPos, BlockPos)} or {@link #scanForSupports(BlockGetter, BlockPos, BlockPos)}
+     */
+    public static Set<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to, Collection<BlockPos> supports)
+    {
+        final Set<BlockPos> listUnsupported = new HashSet<>();
+        for (BlockPos pos : BlockPos.betweenClosed(from, to))
         {
-            if (!listSupported.contains(searchingPoint))
-            {
-                listUnsupported.add(searchingPoint.immutable()); // Adding blocks that wasn't found supported
-            }
-            final BlockState supportState = worldIn.getBlockState(searchingPoint);
-            final Support support = get(supportState);
+            listUnsupported.add(pos.immutable());
+        }
+        for (BlockPos supportPos : supports)
+        {
+            final Support support = get(worldIn.getBlockState(supportPos));
             if (support != null)
             {
-                for (BlockPos supported : support.getSupportedArea(searchingPoint))
+                for (BlockPos supported : support.getSupportedArea(supportPos))
                 {
-                    listSupported.add(supported.immutable()); // Adding all supported blocks by this support
-                    listUnsupported.remove(supported); // Remove if this block was added earlier
+                    listUnsupported.remove(supported); // Positions outside the area were never added
                 }
             }
         }
-        // Searching point wasn't from points between from <-> to but
-        // Time to remove the outsides that were added for convenience
-        listUnsupported.removeIf(content -> content.getX() < minX || content.getX() > maxX || content.getY() < minY || content.getY() > maxY || content.getZ() < minZ || content.getZ() > maxZ);
         return listUnsupported;
     }
 
     public static boolean isSupported(BlockGetter world, BlockPos pos)
     {
-        for (BlockPos supportPos : getMaximumSupportedAreaAround(pos, pos))
+        for (BlockPos supportPos : findSupports(world, pos, pos))
         {
             final BlockState supportState = world.getBlockState(supportPos);
             final Support support = get(supportState);
@@ -83,9 +84,41 @@ public final class Support
         return false;
     }
 
+    /**
+     * Finds the positions of all supports which may support a position between {@code from} and {@code to}. On the server, this queries the {@link SupportIndex} of each chunk, if they are all loaded. Otherwise, it falls back to {@link #scanForSupports(BlockGetter, BlockPos, BlockPos)}.
+     */
+    public static List<BlockPos> findSupports(BlockGetter worldIn, BlockPos from, BlockPos to)
+    {
+        if (worldIn instanceof ServerLevel level)
+        {
+            final List<BlockPos> supports = SupportIndex.find(level, getMinimumSupportPos(from, to), getMaximumSupportPos(from, to));
+            if (supports != null)
+            {
+                return supports;
+            }
+        }
+        return scanForSupports(worldIn, from, to);
+    }
+
+    /**
+     * Finds the positions of all supports which may support a position between {@code from} and {@code to}, by checking every position within the maximum support range.
+     */
+    public static List<BlockPos> scanForSupports(BlockGetter worldIn, BlockPos from, BlockPos to)
+    {
+        final List<BlockPos> supports = new ArrayList<>();
+        for (BlockPos searchingPoint : getMaximumSupportedAreaAround(from, to))
+        {
+            if (get(worldIn.getBlockState(searchingPoint)) != null)
+            {
+                supports.add(searchingPoint.immutable());
+            }
+        }
+        return supports;
+    }
+
     public static Iterable<BlockPos> getMaximumSupportedAreaAround(BlockPos minPoint, BlockPos maxPoint)
     {
-        return BlockPos.betweenClosed(minPoint.offset(-RANGE.horizontal(), -RANGE.down(), -RANGE.horizontal()), maxPoint.offset(RANGE.horizontal(), RANGE.up(), RANGE.horizontal()));
+        return BlockPos.betweenClosed(getMinimumSupportPos(minPoint, maxPoint), getMaximumSupportPos(minPoint, maxPoint));
     }
 
     @Nullable
@@ -113,6 +146,17 @@ public final class Support
         }
 
         RANGE = new SupportRange(up, down, horizontal);
+        SupportIndex.invalidateAll();
+    }
+
+    private static BlockPos getMinimumSupportPos(BlockPos from, BlockPos to)
+    {
+        return new BlockPos(Math.min(from.getX(), to.getX()) - RANGE.horizontal(), Math.min(from.getY(), to.getY()) - RANGE.down(), Math.min(from.getZ(), to.getZ()) - RANGE.horizontal());
+    }
+
+    private static BlockPos getMaximumSupportPos(BlockPos from, BlockPos to)
+    {
+        return new BlockPos(Math.max(from.getX(), to.getX()) + RANGE.horizontal(), Math.max(from.getY(), to.getY()) + RANGE.up(), Math.max(from.getZ(), to.getZ()) + RANGE.horizontal());
     }
 
     private final ResourceLocation id;
@@ -76,6 +76,18 @@ public final class Climate
         return model(level).getTemperature(level, pos, calendarTick, calendar.getCalendarDaysInMonth());
     }
 
+    /**
+     * The temperature at a position, on the day containing {@code calendarTick}. This is shared by all positions in the same chunk and elevation band, and is cached, so it is suitable for simulating lifecycles over long periods of time, where the exact position and time of day are not important.
+     *
+     * @see TemperatureTimeline
+     */
+    public static float getDailyTemperature(Level level, BlockPos pos, long calendarTick, int daysInMonth)
+    {
+        return level.getCapability(WorldTrackerCapability.CAPABILITY)
+            .map(tracker -> tracker.getTemperatureTimeline().get(pos.getX(), pos.getY(), pos.getZ(), calendarTick, daysInMonth, (x, y, z, tick) -> tracker.getClimateModel().getTemperature(level, new BlockPos(x, y, z), tick, daysInMonth)))
+            .orElseGet(() -> getTemperature(level, pos, calendarTick, daysInMonth));
+    }
+
     public static float getTemperature(Level level, BlockPos pos, ICalendar calendar)
     {
         return model(level).getTemperature(level, pos, calendar.getCalendarTicks(), calendar.getCalendarDaysInMonth());
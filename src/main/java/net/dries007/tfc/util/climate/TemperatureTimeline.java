@@ -0,0 +1,92 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.climate;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.dries007.tfc.util.calendar.ICalendar;
+
+/**
+ * A memo of daily temperatures, for lifecycle simulations which step through months of past temperatures, for many nearby positions at once, such as the leaves of a fruit tree, or a field of berry bushes.
+ * <p>
+ * Positions in the same chunk and elevation band share a single temperature each day, sampled at the center of the chunk and band, at the time of day when the daily variation is zero. The variation in temperature across a chunk is a small fraction of a degree. Above sea level, temperature falls by about 0.16 °C per block, so a band spans about 1.3 °C, and a position may be up to about 0.65 °C from the temperature sampled at the center of its band.
+ * <p>
+ * The most recently used chunks are kept, up to a fixed limit. Each is cleared if it accumulates too many entries.
+ */
+public final class TemperatureTimeline
+{
+    public static final int ELEVATION_BAND = 8; // Blocks
+
+    private static final int MAX_CHUNKS = 256;
+    private static final int MAX_ENTRIES_PER_CHUNK = 2048;
+    private static final long SAMPLE_TIME_OF_DAY = 6 * ICalendar.TICKS_IN_HOUR; // Where the hourly term of the daily temperature is zero
+
+    private final Long2ObjectLinkedOpenHashMap<Long2FloatOpenHashMap> chunks = new Long2ObjectLinkedOpenHashMap<>();
+    private int daysInMonth = -1;
+
+    /**
+     * @param sampler The source of temperatures, called with a position and calendar tick when the temperature for that chunk, band, and day is not known.
+     * @return The temperature at {@code (x, y, z)}, on the day containing {@code calendarTick}.
+     */
+    public synchronized float get(int x, int y, int z, long calendarTick, int daysInMonth, Sampler sampler)
+    {
+        if (daysInMonth != this.daysInMonth)
+        {
+            // Changing the length of the month changes every temperature
+            clear();
+            this.daysInMonth = daysInMonth;
+        }
+
+        final int chunkX = SectionPos.blockToSectionCoord(x), chunkZ = SectionPos.blockToSectionCoord(z);
+        final int band = Math.floorDiv(y, ELEVATION_BAND);
+        final long day = ICalendar.getTotalDays(calendarTick);
+
+        Long2FloatOpenHashMap chunk = chunks.getAndMoveToFirst(ChunkPos.asLong(chunkX, chunkZ));
+        if (chunk == null)
+        {
+            chunk = new Long2FloatOpenHashMap();
+            chunk.defaultReturnValue(Float.NaN);
+            chunks.putAndMoveToFirst(ChunkPos.asLong(chunkX, chunkZ), chunk);
+            if (chunks.size() > MAX_CHUNKS)
+            {
+                chunks.removeLast();
+            }
+        }
+
+        final long key = (day << 16) | (band & 0xFFFF);
+        float temperature = chunk.get(key);
+        if (Float.isNaN(temperature))
+        {
+            temperature = sampler.sample(SectionPos.sectionToBlockCoord(chunkX, 8), band * ELEVATION_BAND + ELEVATION_BAND / 2, SectionPos.sectionToBlockCoord(chunkZ, 8), day * ICalendar.TICKS_IN_DAY + SAMPLE_TIME_OF_DAY);
+            if (chunk.size() >= MAX_ENTRIES_PER_CHUNK)
+            {
+                chunk.clear();
+            }
+            chunk.put(key, temperature);
+        }
+        return temperature;
+    }
+
+    public synchronized void clear()
+    {
+        chunks.clear();
+    }
+
+    public synchronized int size()
+    {
+        return chunks.values().stream().mapToInt(Long2FloatOpenHashMap::size).sum();
+    }
+
+    @FunctionalInterface
+    public interface Sampler
+    {
+        float sample(int x, int y, int z, long calendarTick);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ICapabilitySerializable;
+import net.minecraftforge.common.util.LazyOptional;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.dries007.tfc.common.blocks.plant.fruit.IBushBlock;
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.calendar.ICalendar;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks the last time each bush in a chunk was updated, in place of a block entity per bush which ticks every game tick in order to notice time passing.
+ * <p>
+ * When the chunk is loaded after spending more than a day unloaded, or the calendar jumps forward by more than a day, every bush in the chunk is given a scheduled tick, in which it catches up via {@link IBushBlock#onUpdate(Level, BlockPos, BlockState)}. The ticks are spread out, so a chunk full of bushes does not update all at once.
+ */
+public class LifecycleScheduler implements ICapabilitySerializable<CompoundTag>
+{
+    private static final int CATCH_UP_SPREAD = 20; // Ticks
+
+    public static LazyOptional<LifecycleScheduler> get(Level level, BlockPos pos)
+    {
+        return level.isClientSide() ? LazyOptional.empty() : get(level.getChunkAt(pos));
+    }
+
+    public static LazyOptional<LifecycleScheduler> get(LevelChunk chunk)
+    {
+        return chunk.getCapability(LifecycleSchedulerCapability.CAPABILITY);
+    }
+
+    /**
+     * @return {@code true} if {@code ticks} is a long enough gap in time that bushes should catch up.
+     */
+    public static boolean isCatchUpNeeded(long ticks)
+    {
+        return ticks > ICalendar.TICKS_IN_DAY;
+    }
+
+    private final LevelChunk chunk;
+    private final LazyOptional<LifecycleScheduler> capability;
+
+    private final Long2LongOpenHashMap lastUpdateTicks; // The last tick each bush was updated via a catch-up, in player ticks
+    private final LongOpenHashSet pending; // Bushes with a catch-up tick scheduled
+    private long savedTick; // The tick this chunk was last saved, to tell how long it spent unloaded
+
+    public LifecycleScheduler(LevelChunk chunk)
+    {
+        this.chunk = chunk;
+        this.capability = LazyOptional.of(() -> this);
+        this.lastUpdateTicks = new Long2LongOpenHashMap();
+        this.pending = new LongOpenHashSet();
+        this.savedTick = Long.MIN_VALUE;
+
+        lastUpdateTicks.defaultReturnValue(Long.MIN_VALUE);
+    }
+
+    /**
+     * Start tracking a bush at {@code pos}, if it is not already tracked.
+     */
+    public void track(BlockPos pos, long lastUpdateTick)
+    {
+        if (lastUpdateTicks.putIfAbsent(pos.asLong(), lastUpdateTick) == Long.MIN_VALUE)
+        {
+            chunk.setUnsaved(true);
+        }
+    }
+
+    public void untrack(BlockPos pos)
+    {
+        final long key = pos.asLong();
+        if (lastUpdateTicks.containsKey(key))
+        {
+            lastUpdateTicks.remove(key);
+            pending.remove(key);
+            chunk.setUnsaved(true);
+        }
+    }
+
+    public void setLastUpdateTick(BlockPos pos, long lastUpdateTick)
+    {
+        lastUpdateTicks.put(pos.asLong(), lastUpdateTick);
+        chunk.setUnsaved(true);
+    }
+
+    /**
+     * @return The number of ticks since the bush at {@code pos} was updated, or zero if it is not tracked.
+     */
+    public long getTicksSinceUpdate(BlockPos pos)
+    {
+        final long lastUpdateTick = lastUpdateTicks.get(pos.asLong());
+        return lastUpdateTick == Long.MIN_VALUE ? 0 : Calendars.SERVER.getTicks() - lastUpdateTick;
+    }
+
+    public boolean isEmpty()
+    {
+        return lastUpdateTicks.isEmpty();
+    }
+
+    /**
+     * Called on the first level tick after the chunk is loaded.
+     */
+    public void onChunkLoad(ServerLevel level)
+    {
+        if (savedTick != Long.MIN_VALUE && isCatchUpNeeded(Calendars.SERVER.getTicks() - savedTick))
+        {
+            scheduleAll(level);
+        }
+    }
+
+    /**
+     * Schedule a catch-up for every bush in the chunk. Positions that no longer hold a bush are dropped.
+     */
+    public void scheduleAll(ServerLevel level)
+    {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        final ObjectIterator<Long2LongMap.Entry> iterator = lastUpdateTicks.long2LongEntrySet().fastIterator();
+        while (iterator.hasNext())
+        {
+            final long key = iterator.next().getLongKey();
+            final BlockState state = chunk.getBlockState(cursor.set(key));
+            if (state.getBlock() instanceof IBushBlock)
+            {
+                schedule(level, key, state.getBlock());
+            }
+            else
+            {
+                iterator.remove();
+                pending.remove(key);
+            }
+        }
+        chunk.setUnsaved(true);
+    }
+
+    /**
+     * Schedule a catch-up for a single bush.
+     */
+    public void schedule(ServerLevel level, BlockPos pos, Block block)
+    {
+        schedule(level, pos.asLong(), block);
+        chunk.setUnsaved(true);
+    }
+
+    /**
+     * Called from the scheduled tick of a bush. If the bush has a catch-up pending, this updates it.
+     */
+    public void onScheduledTick(IBushBlock bush, ServerLevel level, BlockPos pos, BlockState state)
+    {
+        final long key = pos.asLong();
+        if (pending.remove(key))
+        {
+            bush.onUpdate(level, pos, state);
+            if (level.getBlockState(pos).getBlock() instanceof IBushBlock)
+            {
+                lastUpdateTicks.put(key, Calendars.SERVER.getTicks());
+            }
+            else
+            {
+                lastUpdateTicks.remove(key);
+            }
+            chunk.setUnsaved(true);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
+    {
+        return LifecycleSchedulerCapability.CAPABILITY.orEmpty(cap, capability);
+    }
+
+    @Override
+    public CompoundTag serializeNBT()
+    {
+        final CompoundTag nbt = new CompoundTag();
+        nbt.putLongArray("positions", lastUpdateTicks.keySet().toLongArray());
+        nbt.putLongArray("lastUpdateTicks", lastUpdateTicks.values().toLongArray());
+        nbt.putLongArray("pending", pending.toLongArray());
+        nbt.putLong("savedTick", Calendars.SERVER.getTicks());
+        return nbt;
+    }
+
+    @Override
+    public void deserializeNBT(CompoundTag nbt)
+    {
+        lastUpdateTicks.clear();
+        pending.clear();
+
+        final long[] positions = nbt.getLongArray("positions"), ticks = nbt.getLongArray("lastUpdateTicks");
+        if (positions.length == ticks.length)
+        {
+            for (int i = 0; i < positions.length; i++)
+            {
+                lastUpdateTicks.put(positions[i], ticks[i]);
+            }
+        }
+        for (long key : nbt.getLongArray("pending"))
+        {
+            pending.add(key);
+        }
+        savedTick = nbt.contains("savedTick", Tag.TAG_LONG) ? nbt.getLong("savedTick") : Long.MIN_VALUE;
+    }
+
+    private void schedule(ServerLevel level, long key, Block block)
+    {
+        // Always schedule, as duplicate ticks are ignored, and a pending catch-up may have lost its tick if the block was replaced in the meantime
+        pending.add(key);
+        level.scheduleTick(BlockPos.of(key), block, 1 + level.random.nextInt(CATCH_UP_SPREAD));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.dries007.tfc.util.Support;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of the positions of all supports in a chunk, by section, so support checks can query the few supports nearby, rather than scanning every block within the maximum support range.
+ * <p>
+ * The index is not saved. It is built the first time the chunk is queried, and kept up to date by {@link #onBlockChanged(LevelChunk, BlockPos, BlockState, BlockState)}, which sees every block change in the chunk, including those which fire no events, such as the extra beams placed by a horizontal support. When supports are reloaded, every index is rebuilt on its next query.
+ */
+public class SupportIndex implements ICapabilityProvider
+{
+    private static volatile int generation = 0; // Incremented on reload, which may be off the server thread
+
+    /**
+     * Finds the positions of all supports within {@code [min, max]}.
+     *
+     * @return The positions, or {@code null} if not every chunk in the area is loaded, in which case the caller should fall back to scanning the area.
+     */
+    @Nullable
+    public static List<BlockPos> find(ServerLevel level, BlockPos min, BlockPos max)
+    {
+        final int minChunkX = SectionPos.blockToSectionCoord(min.getX()), maxChunkX = SectionPos.blockToSectionCoord(max.getX());
+        final int minChunkZ = SectionPos.blockToSectionCoord(min.getZ()), maxChunkZ = SectionPos.blockToSectionCoord(max.getZ());
+        final List<SupportIndex> indexes = new ArrayList<>();
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+        {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+            {
+                final LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                final SupportIndex index = chunk == null ? null : chunk.getCapability(SupportIndexCapability.CAPABILITY).orElse(null);
+                if (index == null)
+                {
+                    return null;
+                }
+                indexes.add(index);
+            }
+        }
+
+        final List<BlockPos> supports = new ArrayList<>();
+        for (SupportIndex index : indexes)
+        {
+            index.collect(min, max, supports);
+        }
+        return supports;
+    }
+
+    /**
+     * Called whenever a block in a server side chunk is changed.
+     */
+    public static void onBlockChanged(LevelChunk chunk, BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        // Check the index is built first, as this is called for every block change, and most chunks are never queried
+        final SupportIndex index = chunk.getCapability(SupportIndexCapability.CAPABILITY).orElse(null);
+        if (index != null && index.isBuilt())
+        {
+            final boolean wasSupport = Support.get(oldState) != null, isSupport = Support.get(newState) != null;
+            if (wasSupport != isSupport)
+            {
+                index.update(pos, isSupport);
+            }
+        }
+    }
+
+    /**
+     * Invalidates every index, as the blocks which are supports have changed.
+     */
+    public static void invalidateAll()
+    {
+        generation++;
+    }
+
+    private final LevelChunk chunk;
+    private final LazyOptional<SupportIndex> capability;
+
+    private final LongOpenHashSet[] sections; // Positions of supports, by section index. Null if a section has none.
+    private int builtGeneration; // The generation this index was built in, if it is not the current generation then the index needs to be rebuilt
+
+    public SupportIndex(LevelChunk chunk)
+    {
+        this.chunk = chunk;
+        this.capability = LazyOptional.of(() -> this);
+        this.sections = new LongOpenHashSet[chunk.getSectionsCount()];
+        this.builtGeneration = -1;
+    }
+
+    @NotNull
+    @Override
+    public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
+    {
+        return SupportIndexCapability.CAPABILITY.orEmpty(cap, capability);
+    }
+
+    private boolean isBuilt()
+    {
+        return builtGeneration == generation;
+    }
+
+    private void update(BlockPos pos, boolean isSupport)
+    {
+        final int index = chunk.getSectionIndex(pos.getY());
+        if (index >= 0 && index < sections.length)
+        {
+            final long key = pos.asLong();
+            if (isSupport)
+            {
+                if (sections[index] == null)
+                {
+                    sections[index] = new LongOpenHashSet();
+                }
+                sections[index].add(key);
+            }
+            else if (sections[index] != null)
+            {
+                sections[index].remove(key);
+            }
+        }
+    }
+
+    private void collect(BlockPos min, BlockPos max, List<BlockPos> supports)
+    {
+        if (!isBuilt())
+        {
+            build();
+        }
+
+        final int minIndex = Math.max(0, chunk.getSectionIndex(min.getY())), maxIndex = Math.min(sections.length - 1, chunk.getSectionIndex(max.getY()));
+        for (int index = minIndex; index <= maxIndex; index++)
+        {
+            final LongOpenHashSet section = sections[index];
+            if (section != null)
+            {
+                final LongIterator iterator = section.iterator();
+                while (iterator.hasNext())
+                {
+                    final long key = iterator.nextLong();
+                    final int x = BlockPos.getX(key), y = BlockPos.getY(key), z = BlockPos.getZ(key);
+                    if (min.getX() <= x && x <= max.getX() && min.getY() <= y && y <= max.getY() && min.getZ() <= z && z <= max.getZ())
+                    {
+                        supports.add(new BlockPos(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    private void build()
+    {
+        final LevelChunkSection[] chunkSections = chunk.getSections();
+        final int minX = chunk.getPos().getMinBlockX(), minZ = chunk.getPos().getMinBlockZ();
+        for (int index = 0; index < sections.length; index++)
+        {
+            sections[index] = null;
+
+            // Most sections can be skipped by checking their palette, without looking at any blocks
+            final LevelChunkSection section = chunkSections[index];
+            if (section.hasOnlyAir() || !section.maybeHas(state -> Support.get(state) != null))
+            {
+                continue;
+            }
+
+            final int minY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(index));
+            for (int y = 0; y < 16; y++)
+            {
+                for (int z = 0; z < 16; z++)
+                {
+                    for (int x = 0; x < 16; x++)
+                    {
+                        if (Support.get(section.getBlockState(x, y, z)) != null)
+                        {
+                            if (sections[index] == null)
+                            {
+                                sections[index] = new LongOpenHashSet();
+                            }
+                            sections[index].add(BlockPos.asLong(minX + x, minY + y, minZ + z));
+                        }
+                    }
+                }
+            }
+        }
+        builtGeneration = generation;
+    }
+}
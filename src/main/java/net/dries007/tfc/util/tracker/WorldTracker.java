@@ -18,14 +18,19 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ICapabilitySerializable;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.network.PacketDistributor;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.dries007.tfc.client.TFCSounds;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.entities.TFCFallingBlockEntity;
@@ -39,6 +44,7 @@ import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.climate.BiomeBasedClimateModel;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
+import net.dries007.tfc.util.climate.TemperatureTimeline;
 import net.dries007.tfc.util.collections.BufferedList;
 import net.dries007.tfc.util.loot.TFCLoot;
 import org.jetbrains.annotations.NotNull;
@@ -54,8 +60,13 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     private final BufferedList<BlockPos> isolatedPositions;
     private final List<Collapse> collapsesInProgress;
 
+    private final LongSet lifecycleChunks; // Loaded chunks, which may have bushes in their lifecycle scheduler
+    private final LongSet newLifecycleChunks; // Chunks loaded since the last tick
+    private long lastLifecycleTick;
+
     private final ClimateModel defaultClimateModel = new BiomeBasedClimateModel();
     @Nullable private ClimateModel climateModel;
+    private final TemperatureTimeline temperatureTimeline = new TemperatureTimeline();
 
     private long rainStartTick, rainEndTick;
     private float rainIntensity;
@@ -69,6 +80,9 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         this.landslideTicks = new BufferedList<>();
         this.isolatedPositions = new BufferedList<>();
         this.collapsesInProgress = new ArrayList<>();
+        this.lifecycleChunks = new LongOpenHashSet();
+        this.newLifecycleChunks = new LongOpenHashSet();
+        this.lastLifecycleTick = Long.MIN_VALUE;
     }
 
     public void addLandslidePos(BlockPos pos)
@@ -86,9 +100,22 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         collapsesInProgress.add(collapse);
     }
 
+    public void addLifecycleChunk(long chunkPos)
+    {
+        lifecycleChunks.add(chunkPos);
+        newLifecycleChunks.add(chunkPos);
+    }
+
+    public void removeLifecycleChunk(long chunkPos)
+    {
+        lifecycleChunks.remove(chunkPos);
+        newLifecycleChunks.remove(chunkPos);
+    }
+
     public void setClimateModel(ClimateModel climateModel)
     {
         this.climateModel = climateModel;
+        this.temperatureTimeline.clear();
     }
 
     public ClimateModel getClimateModel()
@@ -96,6 +123,11 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return climateModel == null ? defaultClimateModel : climateModel;
     }
 
+    public TemperatureTimeline getTemperatureTimeline()
+    {
+        return temperatureTimeline;
+    }
+
     public void addCollapsePositions(BlockPos centerPos, Collection<BlockPos> positions)
     {
         List<BlockPos> collapsePositions = new ArrayList<>();
@@ -198,6 +230,43 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
             }
             isolatedIterator.remove();
         }
+
+        tickLifecycles(level);
+    }
+
+    /**
+     * Bushes catch up when their chunk is loaded, which is handled on the first tick after loading, as they can't be scheduled during the load itself. They also catch up when the calendar jumps forward, which is detected here once per level, rather than by every bush.
+     */
+    private void tickLifecycles(ServerLevel level)
+    {
+        final long tick = Calendars.SERVER.getTicks();
+        final boolean jumped = lastLifecycleTick != Long.MIN_VALUE && LifecycleScheduler.isCatchUpNeeded(tick - lastLifecycleTick);
+        final LongSet chunks = jumped ? lifecycleChunks : newLifecycleChunks;
+
+        lastLifecycleTick = tick;
+        if (!chunks.isEmpty())
+        {
+            final LongIterator iterator = chunks.iterator();
+            while (iterator.hasNext())
+            {
+                final long chunkPos = iterator.nextLong();
+                final LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos));
+                if (chunk != null)
+                {
+                    LifecycleScheduler.get(chunk).ifPresent(scheduler -> {
+                        if (jumped)
+                        {
+                            scheduler.scheduleAll(level);
+                        }
+                        else
+                        {
+                            scheduler.onChunkLoad(level);
+                        }
+                    });
+                }
+            }
+            newLifecycleChunks.clear();
+        }
     }
 
     public void addDebugTooltip(List<String> tooltips)
@@ -7,6 +7,7 @@
 package net.dries007.tfc.world;
 
 import net.dries007.tfc.world.noise.Noise2D;
+import org.jetbrains.annotations.Nullable;
 
 public interface BiomeNoiseSampler
 {
@@ -20,12 +21,27 @@ public interface BiomeNoiseSampler
     {
         return new BiomeNoiseSampler()
         {
+            @Nullable private ColumnBatch batch;
+            private final float[] heights = new float[16 * 16];
+
             private float height;
 
             @Override
             public void setColumn(int x, int z)
             {
-                height = heightNoise.noise(x, z);
+                final int index = batch != null ? batch.indexOf(x, z) : -1;
+                height = index != -1 ? heights[index] : heightNoise.noise(x, z);
+            }
+
+            @Override
+            public void prepareColumns(int chunkMinX, int chunkMinZ, int[] columns, int count)
+            {
+                if (batch == null)
+                {
+                    batch = new ColumnBatch();
+                }
+                batch.prepare(chunkMinX, chunkMinZ, columns, count);
+                batch.fill(heightNoise, heights);
             }
 
             @Override
@@ -46,14 +62,43 @@ public interface BiomeNoiseSampler
     {
         return new BiomeNoiseSampler()
         {
+            @Nullable private ColumnBatch batch;
+            @Nullable private float[] heights, carvingHeights, carvingCenters;
+
             private float height, carvingHeight, carvingCenter;
 
             @Override
             public void setColumn(int x, int z)
             {
-                height = heightNoise.noise(x, z);
-                carvingHeight = carvingHeightNoise.noise(x, z);
-                carvingCenter = carvingCenterNoise.noise(x, z);
+                final int index = batch != null ? batch.indexOf(x, z) : -1;
+                if (index != -1)
+                {
+                    height = heights[index];
+                    carvingHeight = carvingHeights[index];
+                    carvingCenter = carvingCenters[index];
+                }
+                else
+                {
+                    height = heightNoise.noise(x, z);
+                    carvingHeight = carvingHeightNoise.noise(x, z);
+                    carvingCenter = carvingCenterNoise.noise(x, z);
+                }
+            }
+
+            @Override
+            public void prepareColumns(int chunkMinX, int chunkMinZ, int[] columns, int count)
+            {
+                if (batch == null)
+                {
+                    batch = new ColumnBatch();
+                    heights = new float[16 * 16];
+                    carvingHeights = new float[16 * 16];
+                    carvingCenters = new float[16 * 16];
+                }
+                batch.prepare(chunkMinX, chunkMinZ, columns, count);
+                batch.fill(heightNoise, heights);
+                batch.fill(carvingHeightNoise, carvingHeights);
+                batch.fill(carvingCenterNoise, carvingCenters);
             }
 
             @Override
@@ -73,6 +118,15 @@ public interface BiomeNoiseSampler
 
     void setColumn(int x, int z);
 
+    /**
+     * Evaluates this sampler in bulk, for a set of columns within a single chunk. Subsequent calls to {@link #setColumn(int, int)} at any of those columns must then use the precomputed values, which must be identical to evaluating each column individually.
+     * By default this does nothing, and each column is evaluated individually.
+     *
+     * @param columns Chunk local column indexes, {@code x + 16 * z}
+     * @see ColumnBatch
+     */
+    default void prepareColumns(int chunkMinX, int chunkMinZ, int[] columns, int count) {}
+
     double height();
 
     /**
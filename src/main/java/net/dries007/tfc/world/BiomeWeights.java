@@ -0,0 +1,166 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+
+/**
+ * A dense, mutable, weighted set of {@link BiomeExtension}s. This is a primitive replacement for a {@code Object2DoubleMap<BiomeExtension>} which does not box, nor allocate once constructed.
+ * Weights are indexed by {@link BiomeExtension#id()}, and the set of present ids is tracked in an active list, so iteration and clearing only touch present entries.
+ * Like a map, an entry may be present with a weight of zero.
+ */
+public final class BiomeWeights
+{
+    private final double[] weights; // id -> weight
+    private final int[] positions; // id -> index in active, or -1 if not present
+    private final int[] active; // List of present ids
+    private int size;
+
+    public BiomeWeights()
+    {
+        this(TFCBiomes.getExtensionCount());
+    }
+
+    public BiomeWeights(int capacity)
+    {
+        this.weights = new double[capacity];
+        this.positions = new int[capacity];
+        this.active = new int[capacity];
+        this.size = 0;
+
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @return The number of present ids.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param index An index in {@code [0, size())}
+     * @return The id present at that index.
+     */
+    public int idAt(int index)
+    {
+        return active[index];
+    }
+
+    /**
+     * @param index An index in {@code [0, size())}
+     * @return The weight of the id present at that index.
+     */
+    public double weightAt(int index)
+    {
+        return weights[active[index]];
+    }
+
+    public boolean contains(int id)
+    {
+        return positions[id] != -1;
+    }
+
+    public double get(int id)
+    {
+        return weights[id];
+    }
+
+    /**
+     * Equivalent to {@link Object2DoubleMap#put(Object, double)}
+     */
+    public void set(int id, double weight)
+    {
+        if (positions[id] == -1)
+        {
+            positions[id] = size;
+            active[size++] = id;
+        }
+        weights[id] = weight;
+    }
+
+    /**
+     * Equivalent to {@code map.mergeDouble(id, weight, Double::sum)}
+     */
+    public void add(int id, double weight)
+    {
+        if (positions[id] == -1)
+        {
+            positions[id] = size;
+            active[size++] = id;
+            weights[id] = weight;
+        }
+        else
+        {
+            weights[id] += weight;
+        }
+    }
+
+    /**
+     * Removes the id, if present. This moves the last present id into the removed index, so when removing during iteration, iterate in reverse.
+     */
+    public void remove(int id)
+    {
+        final int position = positions[id];
+        if (position != -1)
+        {
+            final int last = active[--size];
+            active[position] = last;
+            positions[last] = position;
+            positions[id] = -1;
+            weights[id] = 0;
+        }
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            final int id = active[i];
+            positions[id] = -1;
+            weights[id] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Adds each present entry of {@code other}, scaled by {@code t}, to this. Only applies if {@code t > 0}.
+     *
+     * @see TFCChunkGenerator#sampleBiomesCornerContribution(Object2DoubleMap, Object2DoubleMap, double)
+     */
+    public void addScaled(BiomeWeights other, double t)
+    {
+        if (t > 0)
+        {
+            for (int i = 0; i < other.size; i++)
+            {
+                final int id = other.active[i];
+                add(id, other.weights[id] * t);
+            }
+        }
+    }
+
+    /**
+     * @return A new map containing the present entries of this.
+     */
+    public Object2DoubleMap<BiomeExtension> toMap()
+    {
+        final Object2DoubleMap<BiomeExtension> map = new Object2DoubleOpenHashMap<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            final int id = active[i];
+            map.put(TFCBiomes.getExtension(id), weights[id]);
+        }
+        return map;
+    }
+}
@@ -19,15 +19,26 @@ import net.dries007.tfc.world.biome.BiomeExtension;
 /**
  * A high level stateless abstraction for height and biome sampling.
  * Allow structures to sample height during {@link net.minecraft.world.level.chunk.ChunkGenerator#getBaseHeight(int, int, Heightmap.Types, LevelHeightAccessor)}.
+ * <p>
+ * The noise samplers used are stateful, so a filler must be confined to a single thread. It may be reused for different chunks via {@link #setSampledBiomeWeights(Object2DoubleMap[])}.
  */
 public class ChunkHeightFiller
 {
     protected final Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers; // Biome -> Noise Samplers
     protected final Object2DoubleMap<BiomeNoiseSampler> columnBiomeNoiseSamplers; // Per column weighted map of biome noises samplers
 
-    protected final Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
+    protected Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
     protected final Object2DoubleMap<BiomeExtension> biomeWeights1; // Local biome weights, for individual column adjustment
 
+    /**
+     * Creates a height filler with no chunk. {@link #setSampledBiomeWeights(Object2DoubleMap[])} must be called before sampling.
+     */
+    @SuppressWarnings("unchecked")
+    public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers)
+    {
+        this(biomeNoiseSamplers, new Object2DoubleMap[0]);
+    }
+
     public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights)
     {
         this.biomeNoiseSamplers = biomeNoiseSamplers;
@@ -36,6 +47,14 @@ public class ChunkHeightFiller
         this.biomeWeights1 = new Object2DoubleOpenHashMap<>();
     }
 
+    /**
+     * Sets the sampled biome weights of the chunk to sample from.
+     */
+    public void setSampledBiomeWeights(Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights)
+    {
+        this.sampledBiomeWeights = sampledBiomeWeights;
+    }
+
     /**
      * Samples the height at a specific location with no side effects.
      *
@@ -28,6 +28,8 @@ import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.dries007.tfc.common.fluids.RiverWaterFluid;
 import net.dries007.tfc.common.fluids.TFCFluids;
 import net.dries007.tfc.world.biome.BiomeExtension;
@@ -246,7 +248,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
      */
     public void fillFromNoise()
     {
-
+        prepareBiomeNoiseSamplers();
         initializeForFirstCellX();
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
         for (int cellX = 0; cellX < settings.cellCountXZ(); cellX++)
@@ -279,6 +281,55 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
 
     }
 
+    /**
+     * Evaluates the noise samplers of every biome which may contribute to a column in this chunk in bulk, for all the columns it may contribute to.
+     * A biome may contribute to a column if it has weight at any of the four quart positions surrounding it, see {@link #prepareColumnBiomeWeights(int, int)}.
+     */
+    private void prepareBiomeNoiseSamplers()
+    {
+        // For each sampler, a bit mask of the 4x4 quart cells within the chunk which it may contribute to
+        final Reference2IntMap<BiomeNoiseSampler> cellMasks = new Reference2IntOpenHashMap<>();
+        for (int cellX = 0; cellX < 4; cellX++)
+        {
+            for (int cellZ = 0; cellZ < 4; cellZ++)
+            {
+                final int bit = 1 << (cellX + 4 * cellZ);
+                for (int dx = 1; dx <= 2; dx++)
+                {
+                    for (int dz = 1; dz <= 2; dz++)
+                    {
+                        for (BiomeExtension biome : sampledBiomeWeights[(cellX + dx) + 7 * (cellZ + dz)].keySet())
+                        {
+                            cellMasks.mergeInt(biomeNoiseSamplers.get(biome), bit, (a, b) -> a | b);
+                        }
+                    }
+                }
+            }
+        }
+
+        final int[] columns = new int[16 * 16];
+        for (Reference2IntMap.Entry<BiomeNoiseSampler> entry : cellMasks.reference2IntEntrySet())
+        {
+            final int mask = entry.getIntValue();
+            int count = 0;
+            for (int cell = 0; cell < 16; cell++)
+            {
+                if ((mask & (1 << cell)) != 0)
+                {
+                    final int minX = (cell & 3) << 2, minZ = (cell >> 2) << 2;
+                    for (int x = 0; x < 4; x++)
+                    {
+                        for (int z = 0; z < 4; z++)
+                        {
+                            columns[count++] = (minX + x) + 16 * (minZ + z);
+                        }
+                    }
+                }
+            }
+            entry.getKey().prepareColumns(chunkMinX, chunkMinZ, columns, count);
+        }
+    }
+
     /**
      * Builds a 6x6, 4x4 resolution slope map for a chunk
      * This is enough to do basic linear interpolation for every point within the chunk.
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Arrays;
+
+import net.dries007.tfc.world.noise.Noise2D;
+
+/**
+ * A batch of columns within a single chunk, used by {@link BiomeNoiseSampler}s to evaluate their noise in bulk via {@link Noise2D#fill(float[], float[], float[], int)}.
+ * Values are stored per chunk-local column index ({@code x + 16 * z}), and may then be looked up per column.
+ */
+public final class ColumnBatch
+{
+    private final float[] xs = new float[16 * 16], zs = new float[16 * 16], values = new float[16 * 16];
+    private final int[] columns = new int[16 * 16];
+    private final boolean[] prepared = new boolean[16 * 16];
+    private int minX, minZ, count;
+
+    /**
+     * Sets the columns of this batch. Columns from a previous batch in the same chunk remain prepared.
+     *
+     * @param columns Chunk local column indexes, {@code x + 16 * z}
+     */
+    public void prepare(int chunkMinX, int chunkMinZ, int[] columns, int count)
+    {
+        if (chunkMinX != minX || chunkMinZ != minZ)
+        {
+            Arrays.fill(prepared, false);
+            minX = chunkMinX;
+            minZ = chunkMinZ;
+        }
+        for (int i = 0; i < count; i++)
+        {
+            final int column = columns[i];
+            this.columns[i] = column;
+            this.xs[i] = chunkMinX + (column & 15);
+            this.zs[i] = chunkMinZ + (column >> 4);
+            this.prepared[column] = true;
+        }
+        this.count = count;
+    }
+
+    /**
+     * Evaluates {@code noise} at each column of the current batch, storing the results in {@code target}, indexed by column.
+     */
+    public void fill(Noise2D noise, float[] target)
+    {
+        noise.fill(xs, zs, values, count);
+        for (int i = 0; i < count; i++)
+        {
+            target[columns[i]] = values[i];
+        }
+    }
+
+    /**
+     * @return The column index of the absolute position (x, z), if it has been prepared, otherwise -1.
+     */
+    public int indexOf(int x, int z)
+    {
+        final int localX = x - minX, localZ = z - minZ;
+        if (((localX | localZ) & ~15) == 0)
+        {
+            final int index = localX + 16 * localZ;
+            if (prepared[index])
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
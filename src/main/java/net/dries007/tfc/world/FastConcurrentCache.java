@@ -6,8 +6,7 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Arrays;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
@@ -17,53 +16,103 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A concurrent (safe to read and write between multiple threads) positional based, lossy, cache.
+ * <p>
+ * This is lock free: each slot holds a single immutable {@link Entry}, which packs both the key and value. As the fields of an entry are final, a reader will always observe a consistent key and value pair, even when racing with a writer.
+ * Races between writers may cause an entry to be dropped, which is acceptable, as this cache is lossy anyway. Values are safely published via the final field, but only their state at the time of {@link #set(int, int, Object)} is guaranteed visible, so should not be modified afterwards.
+ * <p>
+ * Optionally, the cache can be two-way set associative: each key may reside in one of two slots, with the most recently written in the first. This means two hot keys which hash to the same set will not continually evict each other.
  */
 public class FastConcurrentCache<T>
 {
-    private final StampedLock lock = new StampedLock();
-
-    private final long[] keys;
-    private final T[] values;
+    private final Entry<T>[] entries;
     private final int mask;
+    private final int ways;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
-    @SuppressWarnings("unchecked")
     public FastConcurrentCache(int size)
     {
-        size = Mth.smallestEncompassingPowerOfTwo(size);
+        this(size, false);
+    }
 
-        this.mask = size - 1;
-        this.keys = new long[size];
-        this.values = (T[]) new Object[size];
+    /**
+     * @param size        The total number of entries in the cache. This is rounded up to the nearest power of two.
+     * @param associative If {@code true}, the cache will be two-way set associative.
+     */
+    @SuppressWarnings("unchecked")
+    public FastConcurrentCache(int size, boolean associative)
+    {
+        size = Mth.smallestEncompassingPowerOfTwo(Math.max(size, 2));
 
-        Arrays.fill(this.keys, Long.MIN_VALUE);
+        this.ways = associative ? 2 : 1;
+        this.mask = (size / ways) - 1;
+        this.entries = (Entry<T>[]) new Entry[size];
     }
 
     @Nullable
     public T getIfPresent(int x, int z)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.readLock();
-
-        T t = null;
-        if (keys[index] == key)
+        final int index = ((int) HashCommon.mix(key) & mask) * ways;
+        for (int way = 0; way < ways; way++)
         {
-            t = values[index];
+            final Entry<T> entry = entries[index + way];
+            if (entry != null && entry.key == key)
+            {
+                hits.increment();
+                return entry.value;
+            }
         }
-
-        lock.unlockRead(stamp);
-        return t;
+        misses.increment();
+        return null;
     }
 
     public void set(int x, int z, T value)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.writeLock();
+        final int index = ((int) HashCommon.mix(key) & mask) * ways;
+        final Entry<T> entry = new Entry<>(key, value);
+        final Entry<T> first = entries[index];
+
+        if (ways == 2 && (first == null || first.key != key))
+        {
+            // Demote the first entry to the second way, evicting the second, unless it is the key we are replacing
+            final Entry<T> second = entries[index + 1];
+            if (second != null && second.key != key)
+            {
+                evictions.increment();
+            }
+            entries[index + 1] = first;
+        }
+        else if (ways == 1 && first != null && first.key != key)
+        {
+            evictions.increment();
+        }
+        entries[index] = entry;
+    }
+
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    public long misses()
+    {
+        return misses.sum();
+    }
 
-        keys[index] = key;
-        values[index] = value;
+    public long evictions()
+    {
+        return evictions.sum();
+    }
 
-        lock.unlockWrite(stamp);
+    @Override
+    public String toString()
+    {
+        return "FastConcurrentCache[size=" + entries.length + ", ways=" + ways + ", hits=" + hits() + ", misses=" + misses() + ", evictions=" + evictions() + "]";
     }
+
+    record Entry<T>(long key, T value) {}
 }
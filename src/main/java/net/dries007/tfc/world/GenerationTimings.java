@@ -0,0 +1,77 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative time spent in each stage of chunk generation, by {@link TFCChunkGenerator}, across all threads.
+ */
+public final class GenerationTimings
+{
+    private final LongAdder[] nanos = createAdders();
+    private final LongAdder[] counts = createAdders();
+
+    private static LongAdder[] createAdders()
+    {
+        final LongAdder[] adders = new LongAdder[Stage.VALUES.length];
+        for (int i = 0; i < adders.length; i++)
+        {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Records a single chunk passing through {@code stage}.
+     *
+     * @param startNanos The value of {@link System#nanoTime()} at the start of the stage.
+     */
+    public void record(Stage stage, long startNanos)
+    {
+        nanos[stage.ordinal()].add(System.nanoTime() - startNanos);
+        counts[stage.ordinal()].increment();
+    }
+
+    public Snapshot snapshot()
+    {
+        final long[] nanos = new long[Stage.VALUES.length], counts = new long[Stage.VALUES.length];
+        for (int i = 0; i < nanos.length; i++)
+        {
+            nanos[i] = this.nanos[i].sum();
+            counts[i] = this.counts[i].sum();
+        }
+        return new Snapshot(nanos, counts);
+    }
+
+    public enum Stage
+    {
+        BIOMES, NOISE, SURFACE, CARVERS, FEATURES;
+
+        private static final Stage[] VALUES = values();
+    }
+
+    public record Snapshot(long[] nanos, long[] counts)
+    {
+        /**
+         * @return The average time per chunk of each stage, between {@code before} and this snapshot.
+         */
+        public String describeSince(Snapshot before)
+        {
+            final StringJoiner joiner = new StringJoiner(", ");
+            for (Stage stage : Stage.VALUES)
+            {
+                final long count = counts[stage.ordinal()] - before.counts[stage.ordinal()];
+                final double millis = count == 0 ? 0 : (nanos[stage.ordinal()] - before.nanos[stage.ordinal()]) / (1_000_000d * count);
+                joiner.add(String.format(Locale.ROOT, "%s %.2f ms", stage.name().toLowerCase(Locale.ROOT), millis));
+            }
+            return joiner.toString();
+        }
+    }
+}
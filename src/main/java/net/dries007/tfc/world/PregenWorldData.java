@@ -0,0 +1,108 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import org.jetbrains.annotations.Nullable;
+
+import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
+
+/**
+ * The persisted state of a {@link Pregenerator} job, stored in the overworld, so an unfinished job can be resumed after a restart.
+ */
+public class PregenWorldData extends SavedData
+{
+    private static final String NAME = MOD_ID + "_pregen";
+
+    public static PregenWorldData get(ServerLevel overworld)
+    {
+        return overworld.getDataStorage().computeIfAbsent(PregenWorldData::load, PregenWorldData::new, NAME);
+    }
+
+    private static PregenWorldData load(CompoundTag nbt)
+    {
+        final PregenWorldData data = new PregenWorldData();
+        if (nbt.getBoolean("active"))
+        {
+            data.dimension = ResourceKey.create(Registry.DIMENSION_REGISTRY, new ResourceLocation(nbt.getString("dimension")));
+            data.center = new ChunkPos(nbt.getInt("centerX"), nbt.getInt("centerZ"));
+            data.radius = nbt.getInt("radius");
+            data.cursor = nbt.getInt("cursor");
+        }
+        return data;
+    }
+
+    @Nullable private ResourceKey<Level> dimension; // null if there is no active job
+    private ChunkPos center = ChunkPos.ZERO;
+    private int radius;
+    private int cursor; // All chunks before this index in the spiral have been generated
+
+    @Override
+    public CompoundTag save(CompoundTag nbt)
+    {
+        nbt.putBoolean("active", dimension != null);
+        if (dimension != null)
+        {
+            nbt.putString("dimension", dimension.location().toString());
+            nbt.putInt("centerX", center.x);
+            nbt.putInt("centerZ", center.z);
+            nbt.putInt("radius", radius);
+            nbt.putInt("cursor", cursor);
+        }
+        return nbt;
+    }
+
+    @Nullable
+    public ResourceKey<Level> getDimension()
+    {
+        return dimension;
+    }
+
+    public ChunkPos getCenter()
+    {
+        return center;
+    }
+
+    public int getRadius()
+    {
+        return radius;
+    }
+
+    public int getCursor()
+    {
+        return cursor;
+    }
+
+    public void start(ResourceKey<Level> dimension, ChunkPos center, int radius)
+    {
+        this.dimension = dimension;
+        this.center = center;
+        this.radius = radius;
+        this.cursor = 0;
+        setDirty();
+    }
+
+    public void setCursor(int cursor)
+    {
+        this.cursor = cursor;
+        setDirty();
+    }
+
+    public void clear()
+    {
+        this.dimension = null;
+        setDirty();
+    }
+}
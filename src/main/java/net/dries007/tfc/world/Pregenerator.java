@@ -0,0 +1,320 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import net.dries007.tfc.mixin.accessor.ServerChunkCacheAccessor;
+import net.dries007.tfc.util.Helpers;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
+
+/**
+ * Generates all chunks in a square around a center chunk, in a spiral outwards, without blocking the server thread.
+ * <p>
+ * Chunks go through the regular chunk loading pipeline, so TFC's chunk data is created and saved exactly as it would be for chunks generated by players. A bounded number of chunks are in flight at any time, each held by a ticket until fully generated, after which they are free to unload. No new chunks are scheduled while the server is running behind.
+ * <p>
+ * The position in the spiral is persisted by {@link PregenWorldData}, so an unfinished job continues after a restart.
+ */
+public final class Pregenerator
+{
+    public static final String STARTED = "tfc.commands.pregen.started";
+    public static final String PROGRESS = "tfc.commands.pregen.progress";
+    public static final String TIMINGS = "tfc.commands.pregen.timings";
+    public static final String DONE = "tfc.commands.pregen.done";
+    public static final String CANCELLED = "tfc.commands.pregen.cancelled";
+    public static final String ALREADY_RUNNING = "tfc.commands.pregen.already_running";
+    public static final String NOT_RUNNING = "tfc.commands.pregen.not_running";
+
+    public static final TicketType<ChunkPos> TICKET = TicketType.create(MOD_ID + ":pregen", Comparator.comparingLong(ChunkPos::toLong));
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAX_IN_FLIGHT = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+    private static final float MAX_TICK_TIME = 40f; // Average milliseconds per tick, above which no new chunks are scheduled
+    private static final int REPORT_INTERVAL = 20 * 10; // Ticks
+
+    @Nullable private static Pregenerator active;
+    @Nullable private static MinecraftServer loadedServer; // The server for which a persisted job has been resumed, if present
+
+    /**
+     * Starts a new job.
+     *
+     * @return {@code false} if a job is already running.
+     */
+    public static boolean start(CommandSourceStack source, ServerLevel level, ChunkPos center, int radius)
+    {
+        if (active != null)
+        {
+            return false;
+        }
+        final PregenWorldData data = PregenWorldData.get(level.getServer().overworld());
+        data.start(level.dimension(), center, radius);
+        active = new Pregenerator(level, data, source);
+        LOGGER.info("Pregenerating {} chunks in {} around {}", active.total, level.dimension().location(), center);
+        return true;
+    }
+
+    /**
+     * Stops the active job. Chunks which are already generating will still finish.
+     *
+     * @return {@code false} if there is no job running.
+     */
+    public static boolean cancel()
+    {
+        final Pregenerator job = active;
+        if (job == null)
+        {
+            return false;
+        }
+        LOGGER.info("Pregeneration cancelled after {} / {} chunks", job.done(), job.total);
+        job.data.clear();
+        active = null;
+        return true;
+    }
+
+    @Nullable
+    public static Pregenerator getActive()
+    {
+        return active;
+    }
+
+    public static void onServerTick(MinecraftServer server)
+    {
+        if (loadedServer != server)
+        {
+            loadedServer = server;
+            active = resume(server);
+        }
+        if (active != null)
+        {
+            active.tick();
+        }
+    }
+
+    /**
+     * Called when the server stops, to discard any job. It has already been persisted, and will be resumed by the next server to load this world.
+     */
+    public static void onServerStopped()
+    {
+        active = null;
+        loadedServer = null;
+    }
+
+    /**
+     * @return The number of chunks in a square of {@code radius} chunks around a center chunk.
+     */
+    public static int count(int radius)
+    {
+        return (2 * radius + 1) * (2 * radius + 1);
+    }
+
+    /**
+     * The chunk at {@code index} in a spiral around {@code center}. Index zero is the center, and ring {@code r} (the chunks at a distance {@code r}) occupies the indices {@code [(2r - 1)^2, (2r + 1)^2)}, traversed one side at a time.
+     */
+    public static ChunkPos spiral(ChunkPos center, int index)
+    {
+        if (index == 0)
+        {
+            return center;
+        }
+        int r = (int) ((Math.sqrt(index) + 1) / 2);
+        while ((2 * r + 1) * (2 * r + 1) <= index) r++; // Correct any floating point error
+        while ((2 * r - 1) * (2 * r - 1) > index) r--;
+
+        final int ordinal = index - (2 * r - 1) * (2 * r - 1), side = ordinal / (2 * r), d = ordinal % (2 * r);
+        return switch (side)
+            {
+                case 0 -> new ChunkPos(center.x - r + d, center.z - r);
+                case 1 -> new ChunkPos(center.x + r, center.z - r + d);
+                case 2 -> new ChunkPos(center.x + r - d, center.z + r);
+                default -> new ChunkPos(center.x - r, center.z + r - d);
+            };
+    }
+
+    @Nullable
+    private static Pregenerator resume(MinecraftServer server)
+    {
+        final PregenWorldData data = PregenWorldData.get(server.overworld());
+        if (data.getDimension() == null)
+        {
+            return null;
+        }
+        final ServerLevel level = server.getLevel(data.getDimension());
+        if (level == null)
+        {
+            LOGGER.warn("Unable to resume pregeneration, as the dimension {} no longer exists", data.getDimension().location());
+            data.clear();
+            return null;
+        }
+        final Pregenerator job = new Pregenerator(level, data, null);
+        LOGGER.info("Resuming pregeneration in {} around {}, from chunk {} / {}", level.dimension().location(), data.getCenter(), job.next, job.total);
+        return job;
+    }
+
+    private final MinecraftServer server;
+    private final ServerLevel level;
+    private final PregenWorldData data;
+    @Nullable private final CommandSourceStack source; // Receives progress reports, or null if resumed after a restart
+    private final ChunkPos center;
+    private final int total;
+
+    private final IntSortedSet inFlight = new IntRBTreeSet(); // Spiral indexes of chunks which are scheduled, but not yet generated
+    private int next; // The next spiral index to schedule
+
+    private final long startTime;
+    private final int startDone;
+    private long lastReportTime;
+    private int lastReportDone;
+    @Nullable private GenerationTimings.Snapshot lastReportTimings;
+    private long lastReportCarverStartChecksSaved;
+    private int ticks;
+
+    private Pregenerator(ServerLevel level, PregenWorldData data, @Nullable CommandSourceStack source)
+    {
+        this.server = level.getServer();
+        this.level = level;
+        this.data = data;
+        this.source = source;
+        this.center = data.getCenter();
+        this.total = count(data.getRadius());
+        this.next = data.getCursor();
+
+        this.startTime = this.lastReportTime = System.nanoTime();
+        this.startDone = this.lastReportDone = next;
+        this.lastReportTimings = snapshotTimings();
+        this.lastReportCarverStartChecksSaved = carverStartChecksSaved();
+    }
+
+    public int done()
+    {
+        return next - inFlight.size();
+    }
+
+    /**
+     * Sends the progress of this job, since it was started, to {@code target}.
+     */
+    public void sendStatus(CommandSourceStack target)
+    {
+        target.sendSuccess(progress(startTime, startDone), false);
+    }
+
+    private void tick()
+    {
+        final ServerChunkCache chunkSource = level.getChunkSource();
+        while (next < total && inFlight.size() < MAX_IN_FLIGHT && server.getAverageTickTime() < MAX_TICK_TIME)
+        {
+            schedule(chunkSource, next++);
+        }
+
+        if (next >= total && inFlight.isEmpty())
+        {
+            final double seconds = (System.nanoTime() - startTime) / 1_000_000_000d;
+            LOGGER.info("Pregeneration finished: {} chunks in {} s", total, String.format(Locale.ROOT, "%.1f", seconds));
+            report();
+            if (source != null)
+            {
+                source.sendSuccess(Helpers.translatable(DONE, total, String.format(Locale.ROOT, "%.1f", seconds)), true);
+            }
+            data.clear();
+            active = null;
+        }
+        else if (++ticks % REPORT_INTERVAL == 0)
+        {
+            report();
+        }
+    }
+
+    private void schedule(ServerChunkCache chunkSource, int index)
+    {
+        final ChunkPos pos = spiral(center, index);
+
+        inFlight.add(index);
+        chunkSource.addRegionTicket(TICKET, pos, 0, pos); // Level 33, enough to generate the chunk to full, and keep it loaded until then
+        // Not getChunkFuture(), which on the server thread waits until the chunk is generated
+        ((ServerChunkCacheAccessor) chunkSource).invoke$getChunkFutureMainThread(pos.x, pos.z, ChunkStatus.FULL, true).whenCompleteAsync((result, error) -> {
+            chunkSource.removeRegionTicket(TICKET, pos, 0, pos);
+            if (error != null)
+            {
+                LOGGER.warn("Error pregenerating chunk {}", pos, error);
+            }
+            inFlight.remove(index);
+            if (active == this)
+            {
+                // Everything before the earliest chunk in flight has been generated
+                data.setCursor(inFlight.isEmpty() ? next : inFlight.firstInt());
+            }
+        }, server);
+    }
+
+    /**
+     * Reports progress since the last report, to the source (if present) and the log.
+     */
+    private void report()
+    {
+        final GenerationTimings.Snapshot timings = snapshotTimings();
+        final long carverStartChecksSaved = carverStartChecksSaved();
+
+        LOGGER.info("Pregenerated {} / {} chunks, {} chunks/s", done(), total, String.format(Locale.ROOT, "%.1f", chunksPerSecond(lastReportTime, lastReportDone)));
+        if (source != null)
+        {
+            source.sendSuccess(progress(lastReportTime, lastReportDone), false);
+        }
+        if (timings != null && lastReportTimings != null)
+        {
+            final String description = timings.describeSince(lastReportTimings);
+            final long carverChecks = carverStartChecksSaved - lastReportCarverStartChecksSaved;
+            LOGGER.info("Average time per chunk: {}, {} carver start checks saved by caching", description, carverChecks);
+            if (source != null)
+            {
+                source.sendSuccess(Helpers.translatable(TIMINGS, description, carverChecks), false);
+            }
+        }
+
+        lastReportTime = System.nanoTime();
+        lastReportDone = done();
+        lastReportTimings = timings;
+        lastReportCarverStartChecksSaved = carverStartChecksSaved;
+    }
+
+    private Component progress(long sinceTime, int sinceDone)
+    {
+        final int done = done();
+        return Helpers.translatable(PROGRESS, done, total, String.format(Locale.ROOT, "%.1f", 100d * done / total), String.format(Locale.ROOT, "%.1f", chunksPerSecond(sinceTime, sinceDone)), String.format(Locale.ROOT, "%.1f", server.getAverageTickTime()));
+    }
+
+    private double chunksPerSecond(long sinceTime, int sinceDone)
+    {
+        final double seconds = (System.nanoTime() - sinceTime) / 1_000_000_000d;
+        return seconds <= 0 ? 0 : (done() - sinceDone) / seconds;
+    }
+
+    @Nullable
+    private GenerationTimings.Snapshot snapshotTimings()
+    {
+        return level.getChunkSource().getGenerator() instanceof TFCChunkGenerator generator ? generator.getTimings().snapshot() : null;
+    }
+
+    private long carverStartChecksSaved()
+    {
+        return level.getChunkSource().getGenerator() instanceof TFCChunkGenerator generator ? generator.getCarverStartChecksSaved() : 0;
+    }
+}
@@ -8,7 +8,9 @@ package net.dries007.tfc.world;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
@@ -49,8 +51,9 @@ import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import it.unimi.dsi.fastutil.ints.IntArraySet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
-import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.dries007.tfc.mixin.accessor.ChunkAccessAccessor;
@@ -66,6 +69,7 @@ import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
 import net.dries007.tfc.world.noise.Kernel;
 import net.dries007.tfc.world.noise.NoiseSampler;
 import net.dries007.tfc.world.surface.SurfaceManager;
+import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
 
@@ -93,6 +97,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     public static final Kernel KERNEL_9x9 = Kernel.create((x, z) -> 0.0211640211641D * (1 - 0.03125D * (z * z + x * x)), 4);
     public static final Kernel KERNEL_5x5 = Kernel.create((x, z) -> 0.08D * (1 - 0.125D * (z * z + x * x)), 2);
 
+    private static final ThreadLocal<BiomeSamplingScratch> BIOME_SAMPLING_SCRATCH = ThreadLocal.withInitial(BiomeSamplingScratch::new);
+
     /**
      * Composes two levels of sampled weights. It takes two maps of two different resolutions, and re-weights the higher resolution one by replacing specific groups of samples with the respective weights from the lower resolution map.
      * Each element of the higher resolution map is replaced with a proportional average of the same group which is present in the lower resolution map.
@@ -164,12 +170,44 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         }
     }
 
-    private static Map<BiomeExtension, Supplier<BiomeNoiseSampler>> collectBiomeNoiseSamplers(long seed)
+    /**
+     * Computes the placed features to decorate with, for a given set of adjacent biomes.
+     *
+     * @param featuresPerBiome The flattened features, per step, of each adjacent biome.
+     * @param orderedFeatures  The global ordering of features at each step.
+     * @return For each step, the sorted indices of features (in the global order) present in any of the adjacent biomes.
+     */
+    public static int[][] createDecorationPlan(Collection<List<HolderSet<PlacedFeature>>> featuresPerBiome, List<BiomeSource.StepFeatureData> orderedFeatures)
+    {
+        final int[][] plan = new int[orderedFeatures.size()][];
+        for (int decorationIndex = 0; decorationIndex < orderedFeatures.size(); decorationIndex++)
+        {
+            final IntSet featureIndices = new IntArraySet();
+            final BiomeSource.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
+            for (List<HolderSet<PlacedFeature>> features : featuresPerBiome)
+            {
+                if (decorationIndex < features.size())
+                {
+                    for (Holder<PlacedFeature> holder : features.get(decorationIndex))
+                    {
+                        featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
+                    }
+                }
+            }
+
+            final int[] sortedIndices = featureIndices.toIntArray();
+            Arrays.sort(sortedIndices);
+            plan[decorationIndex] = sortedIndices;
+        }
+        return plan;
+    }
+
+    private static Map<BiomeExtension, BiomeNoiseSampler> createBiomeNoiseSamplers(long seed)
     {
-        final ImmutableMap.Builder<BiomeExtension, Supplier<BiomeNoiseSampler>> builder = ImmutableMap.builder();
+        final ImmutableMap.Builder<BiomeExtension, BiomeNoiseSampler> builder = ImmutableMap.builder();
         for (BiomeExtension variant : TFCBiomes.getExtensions())
         {
-            builder.put(variant, () -> variant.createNoiseSampler(seed));
+            builder.put(variant, variant.createNoiseSampler(seed));
         }
         return builder.build();
     }
@@ -180,31 +218,76 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     }
 
     /**
-     * @param pos           The target chunk pos.
-     * @param biomeSampler  A sampler for biomes, in block coordinates.
-     * @param groupFunction A function to access a {@link BiomeExtension.Group} from a {@link Biome}.
+     * Dense equivalent of {@link #composeSampleWeights(Object2DoubleMap, Object2DoubleMap, ToIntFunction, int)}, which does not allocate.
+     *
+     * @param groupById     A mapping of {@link BiomeExtension#id()} to group, or {@code -1} to indicate an id has no group.
+     * @param maxWeights    A scratch array, of at least {@code groups} length.
+     * @param actualWeights A scratch array, of at least {@code groups} length.
+     */
+    public static void composeSampleWeights(BiomeWeights weights, BiomeWeights groupWeights, int[] groupById, int groups, double[] maxWeights, double[] actualWeights)
+    {
+        Arrays.fill(maxWeights, 0, groups, 0);
+        Arrays.fill(actualWeights, 0, groups, 0);
+
+        for (int i = 0; i < groupWeights.size(); i++)
+        {
+            final int group = groupById[groupWeights.idAt(i)];
+            if (group != -1)
+            {
+                maxWeights[group] += groupWeights.weightAt(i);
+            }
+        }
+
+        // Iterate in reverse, as removal moves the last entry into the removed index
+        for (int i = weights.size() - 1; i >= 0; i--)
+        {
+            final int id = weights.idAt(i);
+            final int group = groupById[id];
+            if (group != -1)
+            {
+                actualWeights[group] += weights.weightAt(i);
+                weights.remove(id);
+            }
+        }
+
+        for (int i = 0; i < groupWeights.size(); i++)
+        {
+            final int id = groupWeights.idAt(i);
+            final int group = groupById[id];
+            if (group != -1 && actualWeights[group] > 0 && maxWeights[group] > 0)
+            {
+                weights.set(id, groupWeights.weightAt(i) * actualWeights[group] / maxWeights[group]);
+            }
+        }
+    }
+
+    /**
+     * @param pos          The target chunk pos.
+     * @param biomeSampler A sampler for biomes, in block coordinates.
      * @return A 7x7 array of sampled biome weights, at quart pos resolution, where the (0, 0) index aligns to the (-1, -1) quart position relative to the target chunk.
      */
-    private static <T> Object2DoubleMap<T>[] sampleBiomes(ChunkPos pos, Sampler<T> biomeSampler, Function<T, BiomeExtension.Group> groupFunction)
+    public static Object2DoubleMap<BiomeExtension>[] sampleBiomes(ChunkPos pos, Sampler<BiomeExtension> biomeSampler)
     {
+        final BiomeSamplingScratch scratch = BIOME_SAMPLING_SCRATCH.get();
+
         // First, sample biomes at chunk distance, in a 4x4 grid centered on the target chunk.
         // These are used to build the large-scale biome blending radius
-        final Object2DoubleMap<T>[] chunkBiomeWeightArray = newWeightArray(4 * 4);
+        final BiomeWeights[] chunkBiomeWeightArray = scratch.chunkBiomeWeights;
         final int chunkX = pos.getMinBlockX(), chunkZ = pos.getMinBlockZ(); // Block coordinates
         for (int x = 0; x < 4; x++)
         {
             for (int z = 0; z < 4; z++)
             {
                 // x, z = 0, 0 is the -1, -1 chunk relative to chunkX, chunkZ
-                final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
-                chunkBiomeWeightArray[x | (z << 2)] = chunkBiomeWeight;
+                final BiomeWeights chunkBiomeWeight = chunkBiomeWeightArray[x | (z << 2)];
+                chunkBiomeWeight.clear();
                 sampleBiomesAtPositionWithKernel(chunkBiomeWeight, biomeSampler, KERNEL_9x9, 4, chunkX, chunkZ, x - 1, z - 1);
             }
         }
 
         // A 7x7 grid, in quart positions relative to the target chunk, where (1, 1) is the target chunk origin.
-        final Object2DoubleMap<T>[] quartBiomeWeightArray = newWeightArray(7 * 7);
-        final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>(), wideQuartBiomeWeight = new Object2DoubleOpenHashMap<>();
+        final Object2DoubleMap<BiomeExtension>[] quartBiomeWeightArray = newWeightArray(7 * 7);
+        final BiomeWeights chunkBiomeWeight = scratch.chunkBiomeWeight, wideQuartBiomeWeight = scratch.wideQuartBiomeWeight, quartBiomeWeight = scratch.quartBiomeWeight;
 
         for (int x = 0; x < 7; x++)
         {
@@ -213,6 +296,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 // Reset
                 wideQuartBiomeWeight.clear();
                 chunkBiomeWeight.clear();
+                quartBiomeWeight.clear();
 
                 sampleBiomesAtPositionWithKernel(wideQuartBiomeWeight, biomeSampler, KERNEL_9x9, 2, chunkX, chunkZ, x - 1, z - 1);
 
@@ -229,45 +313,39 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final int index16X = ((x1 - chunkX) >> 4) + 1; // Index into chunkBiomeWeightArray
                 final int index16Z = ((z1 - chunkZ) >> 4) + 1;
 
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
+                chunkBiomeWeight.addScaled(chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
+                chunkBiomeWeight.addScaled(chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
+                chunkBiomeWeight.addScaled(chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
+                chunkBiomeWeight.addScaled(chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
 
                 // Compose chunk weights -> wide quart weights.
-                composeSampleWeights(wideQuartBiomeWeight, chunkBiomeWeight, biome -> {
-                    final BiomeExtension.Group group = groupFunction.apply(biome);
-                    return group.ordinal();
-                }, BiomeExtension.Group.SIZE);
+                composeSampleWeights(wideQuartBiomeWeight, chunkBiomeWeight, scratch.groupById, BiomeExtension.Group.SIZE, scratch.maxWeights, scratch.actualWeights);
 
                 // Same as wideQuartBiomeWeight, but only with a sample radius of 2, rather than 4
-                final Object2DoubleMap<T> quartBiomeWeight = new Object2DoubleOpenHashMap<>();
                 sampleBiomesAtPositionWithKernel(quartBiomeWeight, biomeSampler, KERNEL_5x5, 2, chunkX, chunkZ, x - 1, z - 1);
 
-                composeSampleWeights(quartBiomeWeight, wideQuartBiomeWeight, biome -> {
-                    final BiomeExtension.Group group = groupFunction.apply(biome);
-                    return group == BiomeExtension.Group.RIVER ? 1 : 0;
-                }, 2);
+                composeSampleWeights(quartBiomeWeight, wideQuartBiomeWeight, scratch.riverGroupById, 2, scratch.maxWeights, scratch.actualWeights);
 
-                quartBiomeWeightArray[x + 7 * z] = quartBiomeWeight;
+                quartBiomeWeightArray[x + 7 * z] = quartBiomeWeight.toMap();
             }
         }
         return quartBiomeWeightArray;
     }
 
-    private static <T> void sampleBiomesAtPositionWithKernel(Object2DoubleMap<T> weights, Sampler<T> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
+    private static void sampleBiomesAtPositionWithKernel(BiomeWeights weights, Sampler<BiomeExtension> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
     {
         final int kernelRadius = kernel.radius();
         final int kernelWidth = kernel.width();
+        final double[] values = kernel.values();
         for (int dx = -kernelRadius; dx <= kernelRadius; dx++)
         {
             for (int dz = -kernelRadius; dz <= kernelRadius; dz++)
             {
-                final double weight = kernel.values()[(dx + kernelRadius) + (dz + kernelRadius) * kernelWidth];
+                final double weight = values[(dx + kernelRadius) + (dz + kernelRadius) * kernelWidth];
                 final int blockX = chunkX + ((xOffsetInKernelBits + dx) << kernelBits); // Block positions
                 final int blockZ = chunkZ + ((zOffsetInKernelBits + dz) << kernelBits);
-                final T biome = biomeSampler.get(blockX, blockZ);
-                weights.mergeDouble(biome, weight, Double::sum);
+                final BiomeExtension biome = biomeSampler.get(blockX, blockZ);
+                weights.add(biome.id(), weight);
             }
         }
     }
@@ -290,8 +368,18 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     private final NoiseBasedChunkGenerator stupidMojangChunkGenerator; // Mojang fix your god awful deprecated carver nonsense
     private final FastConcurrentCache<TFCAquifer> aquiferCache;
+    private final FastConcurrentCache<Object2DoubleMap<BiomeExtension>[]> biomeWeightCache; // Sampled biome weights are read only once created, and are shared between fillFromNoise() and getBaseHeight()
+    private final FastConcurrentCache<CarverStarts> carverStartCache; // Carvers which start in each chunk, shared between all chunks those carvers may reach in applyCarvers()
+    private final LongAdder carverStartChecksSaved = new LongAdder();
+    private final GenerationTimings timings = new GenerationTimings();
+
+    // Noise samplers are stateful, but otherwise identical for a given seed, so each thread builds them once and reuses them for every chunk
+    // Height fillers own a set of samplers, and so are also confined to a single thread
+    private final ThreadLocal<Map<BiomeExtension, BiomeNoiseSampler>> biomeNoiseSamplers;
+    private final ThreadLocal<ChunkHeightFiller> heightFiller;
+
+    @Nullable private volatile DecorationContext decorationContext; // Depends on the registry, so is recomputed if that changes
 
-    private final Map<BiomeExtension, Supplier<BiomeNoiseSampler>> biomeNoiseSamplers;
     private final ChunkDataProvider chunkDataProvider;
     private final SurfaceManager surfaceManager;
     private final NoiseSampler noiseSampler;
@@ -309,9 +397,12 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         this.climateSeed = LinearCongruentialGenerator.next(seed, 719283741234L);
 
         this.stupidMojangChunkGenerator = new NoiseBasedChunkGenerator(structures, parameters, biomeSource, seed, settings);
-        this.aquiferCache = new FastConcurrentCache<>(256);
+        this.aquiferCache = new FastConcurrentCache<>(256, true);
+        this.biomeWeightCache = new FastConcurrentCache<>(1024, true);
+        this.carverStartCache = new FastConcurrentCache<>(4096, true);
 
-        this.biomeNoiseSamplers = collectBiomeNoiseSamplers(seed);
+        this.biomeNoiseSamplers = ThreadLocal.withInitial(() -> createBiomeNoiseSamplers(seed));
+        this.heightFiller = ThreadLocal.withInitial(() -> new ChunkHeightFiller(biomeNoiseSamplers.get()));
         this.chunkDataProvider = customBiomeSource.getChunkDataProvider();
         this.surfaceManager = new SurfaceManager(seed);
         this.noiseSampler = new NoiseSampler(this.settings.value().noiseSettings(), seed, parameters);
@@ -357,8 +448,10 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         // This has caused some very weird issue that I don't quite understand
         // Somehow, if this is allowed to be async, in the same fashion as vanilla, this will actually load biomes incorrectly into the chunk, and/or cause the biome source to be inaccurate later. I have no idea how this happens and am at my limit for debugging this multithreading insanity.
         // The symptom of this will be chunks that appear to have generated at a different height or noise from surrounding ones.
+        final long startTime = System.nanoTime();
         chunkDataProvider.get(chunk);
         chunk.fillBiomesFromNoise((quartX, quartY, quartZ, sampler) -> customBiomeSource.getNoiseBiome(quartX, quartZ), climateSampler());
+        timings.record(GenerationTimings.Stage.BIOMES, startTime);
         return CompletableFuture.completedFuture(chunk);
     }
 
@@ -377,6 +470,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             return;
         }
 
+        final long startTime = System.nanoTime();
+
         // N.B. because this ends up sampling biomes way outside of the target chunk range, we cannot guarantee that chunk data will exist for the chunk yet
         // Since that's not the case, when we query the biome source with climate, it may or may not know what climate of biome to return
         // Instead of allowing that unreliability, we assume all biomes carvers are identical to the normal/normal one, and like in base noise generation, only query biomes without climate.
@@ -399,30 +494,76 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             for (int offsetZ = -8; offsetZ <= 8; ++offsetZ)
             {
                 final ChunkPos offsetChunkPos = new ChunkPos(chunkPos.x + offsetX, chunkPos.z + offsetZ);
-                final ChunkAccess offsetChunk = level.getChunk(offsetChunkPos.x, offsetChunkPos.z);
-
-                @SuppressWarnings("deprecation")
-                final Iterable<Holder<ConfiguredWorldCarver<?>>> iterable = offsetChunk
-                    .carverBiome(() -> customBiomeSource.getNoiseBiome(QuartPos.fromBlock(offsetChunkPos.getMinBlockX()), QuartPos.fromBlock(offsetChunkPos.getMinBlockZ())))
-                    .value()
-                    .getGenerationSettings()
-                    .getCarvers(step);
-
-                int i = 1;
-                for (Holder<ConfiguredWorldCarver<?>> holder : iterable)
+                final CarverStarts starts = getOrCreateCarverStarts(level, seed, fork, random, offsetChunkPos, step);
+                for (int i = 0; i < starts.seeds().length; i++)
                 {
-                    final long chunkSeed = fork.at(offsetChunkPos.x, i, offsetChunkPos.z).nextLong();
+                    random.setSeed(starts.seeds()[i]);
+                    final ConfiguredWorldCarver<?> carver = starts.carvers().get(i).value();
 
-                    random.setSeed(chunkSeed);
-                    final ConfiguredWorldCarver<?> carver = holder.value();
-                    if (carver.isStartChunk(random))
-                    {
-                        carver.carve(context, chunk, customBiomeManager::getBiome, random, aquifer, offsetChunkPos, carvingMask);
-                    }
-                    i++;
+                    // Repeat the start check, which is known to pass, so the carver observes the same random sequence
+                    carver.isStartChunk(random);
+                    carver.carve(context, chunk, customBiomeManager::getBiome, random, aquifer, offsetChunkPos, carvingMask);
                 }
             }
         }
+        timings.record(GenerationTimings.Stage.CARVERS, startTime);
+    }
+
+    /**
+     * @return The number of {@link ConfiguredWorldCarver#isStartChunk(Random)} checks that were avoided, by reusing cached carver starts.
+     */
+    public long getCarverStartChecksSaved()
+    {
+        return carverStartChecksSaved.sum();
+    }
+
+    /**
+     * @return The time spent in each stage of generating chunks with this generator.
+     */
+    public GenerationTimings getTimings()
+    {
+        return timings;
+    }
+
+    /**
+     * Queries the cache of carvers which start in a chunk, or computes them if not present.
+     * Each chunk is visited by the carvers of all chunks within eight chunks of it, so this is shared between all of those chunks.
+     */
+    private CarverStarts getOrCreateCarverStarts(WorldGenRegion level, long seed, PositionalRandomFactory fork, Random random, ChunkPos pos, GenerationStep.Carving step)
+    {
+        final CarverStarts cached = carverStartCache.getIfPresent(pos.x, pos.z);
+        if (cached != null && cached.levelSeed() == seed)
+        {
+            carverStartChecksSaved.add(cached.checks());
+            return cached;
+        }
+
+        @SuppressWarnings("deprecation")
+        final Iterable<Holder<ConfiguredWorldCarver<?>>> iterable = level.getChunk(pos.x, pos.z)
+            .carverBiome(() -> customBiomeSource.getNoiseBiome(QuartPos.fromBlock(pos.getMinBlockX()), QuartPos.fromBlock(pos.getMinBlockZ())))
+            .value()
+            .getGenerationSettings()
+            .getCarvers(step);
+
+        final List<Holder<ConfiguredWorldCarver<?>>> carvers = new ArrayList<>();
+        final LongList seeds = new LongArrayList();
+        int i = 1;
+        for (Holder<ConfiguredWorldCarver<?>> holder : iterable)
+        {
+            final long chunkSeed = fork.at(pos.x, i, pos.z).nextLong();
+
+            random.setSeed(chunkSeed);
+            if (holder.value().isStartChunk(random))
+            {
+                carvers.add(holder);
+                seeds.add(chunkSeed);
+            }
+            i++;
+        }
+
+        final CarverStarts starts = new CarverStarts(seed, i - 1, carvers.isEmpty() ? List.of() : carvers, seeds.toLongArray());
+        carverStartCache.set(pos.x, pos.z, starts);
+        return starts;
     }
 
     @Override
@@ -472,6 +613,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public void applyBiomeDecoration(WorldGenLevel level, ChunkAccess chunk, StructureFeatureManager structureFeatureManager)
     {
+        final long startTime = System.nanoTime();
         final ChunkPos chunkPos = chunk.getPos();
         final SectionPos sectionPos = SectionPos.of(chunkPos, level.getMinSection());
         final BlockPos originPos = sectionPos.origin();
@@ -479,22 +621,38 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         final Registry<ConfiguredStructureFeature<?, ?>> structureFeatures = level.registryAccess().registryOrThrow(Registry.CONFIGURED_STRUCTURE_FEATURE_REGISTRY);
         final Registry<PlacedFeature> placedFeatures = level.registryAccess().registryOrThrow(Registry.PLACED_FEATURE_REGISTRY);
 
-        final Map<Integer, List<ConfiguredStructureFeature<?, ?>>> structureFeaturesByStep = structureFeatures.stream()
-            .collect(Collectors.groupingBy(feature -> feature.feature.step().ordinal()));
+        final DecorationContext decorationContext = getDecorationContext(structureFeatures);
+        final Map<Integer, List<ConfiguredStructureFeature<?, ?>>> structureFeaturesByStep = decorationContext.structureFeaturesByStep();
 
         final List<BiomeSource.StepFeatureData> orderedFeatures = customBiomeSource.featuresPerStep();
         final Random random = new Random();
         final long baseSeed = Helpers.hash(128739412341L, originPos);
 
+        // Biomes are identical at all y levels, so only a single layer of the quart biome grid is needed
         final Set<Biome> allAdjacentBiomes = new ObjectArraySet<>();
+        final BitSet allAdjacentBiomeIds = new BitSet();
+        final int quartY = QuartPos.fromBlock(chunk.getMinBuildHeight());
         ChunkPos.rangeClosed(sectionPos.chunk(), 1).forEach((chunkPos1_) -> {
             final ChunkAccess adjChunk = level.getChunk(chunkPos1_.x, chunkPos1_.z);
-            for (LevelChunkSection adjSection : adjChunk.getSections())
+            final int quartX = QuartPos.fromSection(chunkPos1_.x), quartZ = QuartPos.fromSection(chunkPos1_.z);
+            for (int x = 0; x < 4; x++)
             {
-                adjSection.getBiomes().getAll(biome -> allAdjacentBiomes.add(biome.value()));
+                for (int z = 0; z < 4; z++)
+                {
+                    final Biome biome = adjChunk.getNoiseBiome(quartX + x, quartY, quartZ + z).value();
+                    if (allAdjacentBiomes.add(biome))
+                    {
+                        allAdjacentBiomeIds.set(TFCBiomes.getExtensionOrThrow(level, biome).id());
+                    }
+                }
             }
         });
 
+        // The features placed at each step only depend on the set of adjacent biomes, so the plan is computed once per set
+        final int[][] decorationPlan = decorationContext.plans().computeIfAbsent(allAdjacentBiomeIds, key -> createDecorationPlan(allAdjacentBiomes.stream()
+            .map(biome -> TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome))
+            .toList(), orderedFeatures));
+
         for (int decorationIndex = 0; decorationIndex < Math.max(DECORATION_STEPS, orderedFeatures.size()); ++decorationIndex)
         {
             if (structureFeatureManager.shouldGenerateFeatures())
@@ -523,26 +681,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
             if (decorationIndex < orderedFeatures.size())
             {
-                final IntSet featureIndices = new IntArraySet();
-                for (Biome biome : allAdjacentBiomes)
-                {
-                    List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
-                    if (decorationIndex < featuresPerBiome.size())
-                    {
-                        final HolderSet<PlacedFeature> featuresPerBiomeAtStep = featuresPerBiome.get(decorationIndex);
-                        final BiomeSource.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
-                        for (Holder<PlacedFeature> holder : featuresPerBiomeAtStep)
-                        {
-                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
-                        }
-                    }
-                }
-
-                final int[] sortedIndices = featureIndices.toIntArray();
                 final BiomeSource.StepFeatureData step = orderedFeatures.get(decorationIndex);
-
-                Arrays.sort(sortedIndices);
-                for (int featureIndex : sortedIndices)
+                for (int featureIndex : decorationPlan[decorationIndex])
                 {
                     final PlacedFeature feature = step.features().get(featureIndex);
                     Helpers.seedLargeFeatures(random, baseSeed, featureIndex, decorationIndex);
@@ -562,6 +702,20 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         }
 
         level.setCurrentlyGenerating(null);
+        timings.record(GenerationTimings.Stage.FEATURES, startTime);
+    }
+
+    private DecorationContext getDecorationContext(Registry<ConfiguredStructureFeature<?, ?>> structureFeatures)
+    {
+        DecorationContext context = decorationContext;
+        if (context == null || context.structureFeatures() != structureFeatures)
+        {
+            final Map<Integer, List<ConfiguredStructureFeature<?, ?>>> structureFeaturesByStep = structureFeatures.stream()
+                .collect(Collectors.groupingBy(feature -> feature.feature.step().ordinal()));
+            context = new DecorationContext(structureFeatures, structureFeaturesByStep, new ConcurrentHashMap<>());
+            decorationContext = context;
+        }
+        return context;
     }
 
     @Override
@@ -569,6 +723,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     {
         // Debug
         final boolean debugGetBaseHeight = false;
+        final long startTime = System.nanoTime();
 
         // Initialization
         final ChunkNoiseSamplingSettings settings = createNoiseSamplingSettingsForChunk(chunk);
@@ -586,9 +741,9 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             sections.add(section);
         }
 
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(chunkPos, this::sampleBiomeVariants, BiomeExtension::getGroup);
+        final Object2DoubleMap<BiomeExtension>[] biomeWeights = getOrSampleBiomeWeights(chunkPos);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
-        final ChunkNoiseFiller filler = new ChunkNoiseFiller(actualLevel, (ProtoChunk) chunk, biomeWeights, customBiomeSource, createBiomeSamplersForChunk(), customBiomeSource::getBiome, noiseSampler, baseBlockSource, settings, getSeaLevel());
+        final ChunkNoiseFiller filler = new ChunkNoiseFiller(actualLevel, (ProtoChunk) chunk, biomeWeights, customBiomeSource, biomeNoiseSamplers.get(), customBiomeSource::getBiome, noiseSampler, baseBlockSource, settings, getSeaLevel());
 
         filler.setupAquiferSurfaceHeight(this::sampleBiomeVariants);
         chunkData.setAquiferSurfaceHeight(filler.aquifer().getSurfaceHeights()); // Record this in the chunk data so caves can query it accurately
@@ -613,7 +768,11 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             }
         }
 
+        timings.record(GenerationTimings.Stage.NOISE, startTime);
+
+        final long surfaceStartTime = System.nanoTime();
         surfaceManager.buildSurface(actualLevel, chunk, getRockLayerSettings(), chunkData, filler.getLocalBiomes(), filler.getLocalBiomeWeights(), filler.getSlopeMap(), random, getSeaLevel(), settings.minY());
+        timings.record(GenerationTimings.Stage.SURFACE, surfaceStartTime);
 
         return CompletableFuture.completedFuture(chunk);
     }
@@ -633,8 +792,12 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public int getBaseHeight(int x, int z, Heightmap.Types type, LevelHeightAccessor level)
     {
-        final ChunkPos pos = new ChunkPos(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
-        return (int) createHeightFillerForChunk(pos).sampleHeight(x, z);
+        final int chunkX = SectionPos.blockToSectionCoord(x), chunkZ = SectionPos.blockToSectionCoord(z);
+
+        // The height filler is confined to this thread, so it can be reused for any chunk without synchronization
+        final ChunkHeightFiller filler = heightFiller.get();
+        filler.setSampledBiomeWeights(getOrSampleBiomeWeights(new ChunkPos(chunkX, chunkZ)));
+        return (int) filler.sampleHeight(x, z);
     }
 
     @Override
@@ -698,10 +861,46 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return customBiomeSource.getNoiseBiomeVariants(QuartPos.fromBlock(blockX), QuartPos.fromBlock(blockZ));
     }
 
+    /**
+     * @return A height filler for the given chunk. It uses noise samplers confined to the current thread, so must only be used on this thread.
+     */
     public ChunkHeightFiller createHeightFillerForChunk(ChunkPos pos)
     {
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(pos, this::sampleBiomeVariants, BiomeExtension::getGroup);
-        return new ChunkHeightFiller(createBiomeSamplersForChunk(), biomeWeights);
+        final Object2DoubleMap<BiomeExtension>[] biomeWeights = getOrSampleBiomeWeights(pos);
+        return new ChunkHeightFiller(biomeNoiseSamplers.get(), biomeWeights);
+    }
+
+    /**
+     * @return The number of times a chunk's sampled biome weights were found in the cache.
+     */
+    public long getBiomeWeightCacheHits()
+    {
+        return biomeWeightCache.hits();
+    }
+
+    /**
+     * @return The number of times a chunk's sampled biome weights had to be computed.
+     */
+    public long getBiomeWeightCacheMisses()
+    {
+        return biomeWeightCache.misses();
+    }
+
+    /**
+     * Queries the cache of sampled biome weights, or samples them if not present.
+     * The returned array, and the weight maps it contains, are shared and <strong>must not be modified</strong>.
+     *
+     * @see #sampleBiomes(ChunkPos, Sampler)
+     */
+    private Object2DoubleMap<BiomeExtension>[] getOrSampleBiomeWeights(ChunkPos pos)
+    {
+        Object2DoubleMap<BiomeExtension>[] biomeWeights = biomeWeightCache.getIfPresent(pos.x, pos.z);
+        if (biomeWeights == null)
+        {
+            biomeWeights = sampleBiomes(pos, this::sampleBiomeVariants);
+            biomeWeightCache.set(pos.x, pos.z, biomeWeights);
+        }
+        return biomeWeights;
     }
 
     private ChunkBaseBlockSource createBaseBlockSourceForChunk(ChunkAccess chunk)
@@ -734,16 +933,6 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return new ChunkNoiseSamplingSettings(minY, 16 / cellWidth, cellCountY, cellWidth, cellHeight, firstCellX, firstCellY, firstCellZ);
     }
 
-    private Map<BiomeExtension, BiomeNoiseSampler> createBiomeSamplersForChunk()
-    {
-        final ImmutableMap.Builder<BiomeExtension, BiomeNoiseSampler> builder = ImmutableMap.builder();
-        for (Map.Entry<BiomeExtension, Supplier<BiomeNoiseSampler>> entry : biomeNoiseSamplers.entrySet())
-        {
-            builder.put(entry.getKey(), entry.getValue().get());
-        }
-        return builder.build();
-    }
-
     private TFCAquifer getOrCreateAquifer(ChunkAccess chunk, ChunkNoiseSamplingSettings settings, ChunkBaseBlockSource baseBlockSource)
     {
         final ChunkPos chunkPos = chunk.getPos();
@@ -760,4 +949,44 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         }
         return aquifer;
     }
-}
\ No newline at end of file
+
+    /**
+     * Per-thread buffers used by {@link #sampleBiomes(ChunkPos, Sampler)}, so sampling does not allocate any intermediate weights.
+     */
+    private static final class BiomeSamplingScratch
+    {
+        final BiomeWeights[] chunkBiomeWeights = new BiomeWeights[4 * 4];
+        final BiomeWeights chunkBiomeWeight = new BiomeWeights(), wideQuartBiomeWeight = new BiomeWeights(), quartBiomeWeight = new BiomeWeights();
+        final int[] groupById = new int[TFCBiomes.getExtensionCount()]; // id -> group ordinal
+        final int[] riverGroupById = new int[TFCBiomes.getExtensionCount()]; // id -> 1 if river, otherwise 0
+        final double[] maxWeights = new double[BiomeExtension.Group.SIZE], actualWeights = new double[BiomeExtension.Group.SIZE];
+
+        BiomeSamplingScratch()
+        {
+            for (int i = 0; i < chunkBiomeWeights.length; i++)
+            {
+                chunkBiomeWeights[i] = new BiomeWeights();
+            }
+            for (int id = 0; id < groupById.length; id++)
+            {
+                final BiomeExtension.Group group = TFCBiomes.getExtension(id).getGroup();
+                groupById[id] = group.ordinal();
+                riverGroupById[id] = group == BiomeExtension.Group.RIVER ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * The carvers which start in a single chunk, and the seed each carver should be carved with.
+     *
+     * @param levelSeed The seed these starts were computed with.
+     * @param checks    The total number of carvers checked, including those that did not start.
+     */
+    private record CarverStarts(long levelSeed, int checks, List<Holder<ConfiguredWorldCarver<?>>> carvers, long[] seeds) {}
+
+    /**
+     * Structures grouped by decoration step, and decoration plans (see {@link #createDecorationPlan(Collection, List)}) keyed by the set of adjacent {@link BiomeExtension#id()}s.
+     * Both depend only on the registries, and are immutable once created.
+     */
+    private record DecorationContext(Registry<ConfiguredStructureFeature<?, ?>> structureFeatures, Map<Integer, List<ConfiguredStructureFeature<?, ?>>> structureFeaturesByStep, Map<BitSet, int[][]> plans) {}
+}
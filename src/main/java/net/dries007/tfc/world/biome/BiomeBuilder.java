@@ -127,11 +127,11 @@ public class BiomeBuilder
     }
 
 
-    public BiomeExtension build(ResourceKey<Biome> key)
+    public BiomeExtension build(ResourceKey<Biome> key, int id)
     {
         assert noiseFactory != null : "missing noise / heightmap";
         assert surfaceBuilderFactory != null : "missing surface builder";
 
-        return new BiomeExtension(key, noiseFactory, surfaceBuilderFactory, aquiferSurfaceHeight, group, salty, volcanic, volcanoFrequency, volcanoBasaltHeight, spawnable);
+        return new BiomeExtension(key, id, noiseFactory, surfaceBuilderFactory, aquiferSurfaceHeight, group, salty, volcanic, volcanoFrequency, volcanoBasaltHeight, spawnable);
     }
 }
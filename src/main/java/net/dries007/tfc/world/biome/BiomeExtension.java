@@ -31,6 +31,7 @@ import org.jetbrains.annotations.Nullable;
 public class BiomeExtension
 {
     private final ResourceKey<Biome> key;
+    private final int id;
 
     private final LongFunction<BiomeNoiseSampler> noiseFactory;
     private final DoubleUnaryOperator aquiferSurfaceHeight;
@@ -47,9 +48,10 @@ public class BiomeExtension
     @Nullable private Set<PlacedFeature> flattenedFeatureSet;
     @Nullable private Biome prevBiome;
 
-    BiomeExtension(ResourceKey<Biome> key, LongFunction<BiomeNoiseSampler> noiseFactory, SurfaceBuilderFactory surfaceBuilderFactory, DoubleUnaryOperator aquiferSurfaceHeight, Group group, boolean salty, boolean volcanic, int volcanoRarity, int volcanoBasaltHeight, boolean spawnable)
+    BiomeExtension(ResourceKey<Biome> key, int id, LongFunction<BiomeNoiseSampler> noiseFactory, SurfaceBuilderFactory surfaceBuilderFactory, DoubleUnaryOperator aquiferSurfaceHeight, Group group, boolean salty, boolean volcanic, int volcanoRarity, int volcanoBasaltHeight, boolean spawnable)
     {
         this.key = key;
+        this.id = id;
         this.noiseFactory = noiseFactory;
         this.surfaceBuilderFactory = surfaceBuilderFactory;
         this.aquiferSurfaceHeight = aquiferSurfaceHeight;
@@ -66,6 +68,14 @@ public class BiomeExtension
         return key;
     }
 
+    /**
+     * @return A dense, zero-based index for this extension, in the range {@code [0, TFCBiomes.getExtensionCount())}. This is assigned in registration order, and is suitable for use as an array index.
+     */
+    public int id()
+    {
+        return id;
+    }
+
     public Group getGroup()
     {
         return group;
@@ -11,7 +11,9 @@ import java.util.Random;
 import net.minecraft.util.Mth;
 
 import net.dries007.tfc.world.BiomeNoiseSampler;
+import net.dries007.tfc.world.ColumnBatch;
 import net.dries007.tfc.world.noise.*;
+import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.world.TFCChunkGenerator.SEA_LEVEL_Y;
 
@@ -110,17 +112,32 @@ public final class BiomeNoise
 
         return new BiomeNoiseSampler()
         {
+            @Nullable private ColumnBatch batch;
+            private final float[] heights = new float[16 * 16];
+
             private double height;
             private int x, z;
 
             @Override
             public void setColumn(int x, int z)
             {
-                height = riverHeight.noise(x, z);
+                final int index = batch != null ? batch.indexOf(x, z) : -1;
+                height = index != -1 ? heights[index] : riverHeight.noise(x, z);
                 this.x = x;
                 this.z = z;
             }
 
+            @Override
+            public void prepareColumns(int chunkMinX, int chunkMinZ, int[] columns, int count)
+            {
+                if (batch == null)
+                {
+                    batch = new ColumnBatch();
+                }
+                batch.prepare(chunkMinX, chunkMinZ, columns, count);
+                batch.fill(riverHeight, heights);
+            }
+
             @Override
             public double height()
             {
@@ -182,18 +199,37 @@ public final class BiomeNoise
         final Noise2D cliffNoise = new OpenSimplex2D(seed + 2).octaves(2).spread(0.01f).scaled(-25, 25).map(x -> x > 0 ? x : 0);
         final Noise2D cliffHeightNoise = new OpenSimplex2D(seed + 3).octaves(2).spread(0.01f).scaled(140 - 20, 140 + 20);
 
-        return (x, z) -> {
-            float height = baseNoise.noise(x, z);
-            if (height > 120) // Only sample each cliff noise layer if the base noise could be influenced by it
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return addCliffs(x, z, baseNoise.noise(x, z));
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
             {
-                final float cliffHeight = cliffHeightNoise.noise(x, z) - height;
-                if (cliffHeight < 0)
+                baseNoise.fill(xs, zs, out, n);
+                for (int i = 0; i < n; i++)
                 {
-                    final float mappedCliffHeight = Mth.clampedMap(cliffHeight, 0, -1, 0, 1);
-                    height += mappedCliffHeight * cliffNoise.noise(x, z);
+                    out[i] = addCliffs(xs[i], zs[i], out[i]);
                 }
             }
-            return height;
+
+            private float addCliffs(float x, float z, float height)
+            {
+                if (height > 120) // Only sample each cliff noise layer if the base noise could be influenced by it
+                {
+                    final float cliffHeight = cliffHeightNoise.noise(x, z) - height;
+                    if (cliffHeight < 0)
+                    {
+                        final float mappedCliffHeight = Mth.clampedMap(cliffHeight, 0, -1, 0, 1);
+                        height += mappedCliffHeight * cliffNoise.noise(x, z);
+                    }
+                }
+                return height;
+            }
         };
     }
 
@@ -240,7 +276,24 @@ public final class BiomeNoise
     public static Noise2D addVolcanoes(long seed, Noise2D baseNoise, int rarity, int baseVolcanoHeight, int scaleVolcanoHeight)
     {
         final VolcanoNoise volcanoes = new VolcanoNoise(seed);
-        return (x, z) -> volcanoes.modifyHeight(x, z, baseNoise.noise(x, z), rarity, baseVolcanoHeight, scaleVolcanoHeight);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return volcanoes.modifyHeight(x, z, baseNoise.noise(x, z), rarity, baseVolcanoHeight, scaleVolcanoHeight);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
+            {
+                baseNoise.fill(xs, zs, out, n);
+                for (int i = 0; i < n; i++)
+                {
+                    out[i] = volcanoes.modifyHeight(xs[i], zs[i], out[i], rarity, baseVolcanoHeight, scaleVolcanoHeight);
+                }
+            }
+        };
     }
 
     public static BiomeNoiseSampler undergroundRivers(long seed, Noise2D heightNoise)
@@ -259,17 +312,50 @@ public final class BiomeNoise
 
         return new BiomeNoiseSampler()
         {
+            @Nullable private ColumnBatch batch;
+            @Nullable private float[] blobs, depths, surfaceHeights, centers;
+
             private float surfaceHeight, center, height;
 
             @Override
             public void setColumn(int x, int z)
             {
-                float h0 = Mth.clamp((0.7f - blobsNoise.noise(x, z)) * (1 / 0.3f), 0, 1);
-                float h1 = depthNoise.noise(x, z);
+                final int index = batch != null ? batch.indexOf(x, z) : -1;
+                if (index != -1)
+                {
+                    setColumnValues(blobs[index], depths[index], surfaceHeights[index], centers[index]);
+                }
+                else
+                {
+                    setColumnValues(blobsNoise.noise(x, z), depthNoise.noise(x, z), heightNoise.noise(x, z), centerNoise.noise(x, z));
+                }
+            }
+
+            @Override
+            public void prepareColumns(int chunkMinX, int chunkMinZ, int[] columns, int count)
+            {
+                if (batch == null)
+                {
+                    batch = new ColumnBatch();
+                    blobs = new float[16 * 16];
+                    depths = new float[16 * 16];
+                    surfaceHeights = new float[16 * 16];
+                    centers = new float[16 * 16];
+                }
+                batch.prepare(chunkMinX, chunkMinZ, columns, count);
+                batch.fill(blobsNoise, blobs);
+                batch.fill(depthNoise, depths);
+                batch.fill(heightNoise, surfaceHeights);
+                batch.fill(centerNoise, centers);
+            }
+
+            private void setColumnValues(float blob, float depth, float surfaceHeight, float center)
+            {
+                float h0 = Mth.clamp((0.7f - blob) * (1 / 0.3f), 0, 1);
 
-                surfaceHeight = heightNoise.noise(x, z);
-                center = centerNoise.noise(x, z);
-                height = h0 * h1;
+                this.surfaceHeight = surfaceHeight;
+                this.center = center;
+                this.height = h0 * depth;
             }
 
             @Override
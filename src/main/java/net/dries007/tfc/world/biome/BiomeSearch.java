@@ -0,0 +1,259 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.biome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.minecraft.core.BlockPos;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Searches for positions in the world which are expensive to test individually, such as biomes or volcanoes, by testing many positions in parallel.
+ * <p>
+ * The positions to search are split into tiles, of a fixed number of probes each, which are evaluated on an executor. Results are identical to evaluating each position in order on a single thread, as the first match (in search order) always wins, regardless of which tile finds it first.
+ * Probe functions are called concurrently, so must be thread safe.
+ */
+public final class BiomeSearch
+{
+    private static final int TILE_SIZE = 512; // Probes per tile
+    private static final int TILES_PER_BAND = 4 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Finds the nearest match, in order of square rings around a center position, with ring {@code r} at distance {@code r * step}, for {@code r} in {@code [1, radius)}.
+     * Within each ring, positions are ordered in the same way as {@link #ringPosition(int, int, int, int, int)}.
+     * <p>
+     * Rings are searched in bands of {@link #TILES_PER_BAND} tiles. Once a band contains a match, no further bands are searched, and tiles within the band skip all positions after the best match known so far.
+     */
+    public static CompletableFuture<Result> nearest(int centerX, int centerZ, int radius, int step, Probe probe, Executor executor)
+    {
+        return new Nearest(centerX, centerZ, radius, step, probe, executor).searchBand(1, 0);
+    }
+
+    /**
+     * Picks a random match from all positions in a square of {@code [-radius, radius]} around a center position, at intervals of {@code step}. This is the same as sampling each position in order (by z, then x), and picking each match with probability {@code 1 / (1 + the number of previous matches)}, using {@code random}.
+     */
+    public static CompletableFuture<Result> random(int centerX, int centerZ, int radius, int step, Probe probe, Random random, Executor executor)
+    {
+        final long startTime = System.nanoTime();
+        final LongAdder probes = new LongAdder();
+        final int width = 2 * radius / step + 1;
+        final int rowsPerTile = Math.max(1, TILE_SIZE / width);
+
+        final List<CompletableFuture<List<BlockPos>>> tiles = new ArrayList<>();
+        for (int minRow = 0; minRow < width; minRow += rowsPerTile)
+        {
+            final int tileMinRow = minRow, tileMaxRow = Math.min(width, minRow + rowsPerTile);
+            tiles.add(CompletableFuture.supplyAsync(() -> {
+                final List<BlockPos> matches = new ArrayList<>();
+                for (int row = tileMinRow; row < tileMaxRow; row++)
+                {
+                    for (int column = 0; column < width; column++)
+                    {
+                        final BlockPos pos = probe.find(centerX + step * column - radius, centerZ + step * row - radius);
+                        if (pos != null)
+                        {
+                            matches.add(pos);
+                        }
+                    }
+                }
+                probes.add((long) width * (tileMaxRow - tileMinRow));
+                return matches;
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(tiles.toArray(CompletableFuture[]::new)).thenApply(v -> {
+            // Choose in the original order, so the random picks the same match as a sequential search
+            BlockPos result = null;
+            int count = 0;
+            for (CompletableFuture<List<BlockPos>> tile : tiles)
+            {
+                for (BlockPos pos : tile.join())
+                {
+                    if (result == null || random.nextInt(count + 1) == 0)
+                    {
+                        result = pos;
+                    }
+                    count++;
+                }
+            }
+            return new Result(result, probes.sum(), System.nanoTime() - startTime);
+        });
+    }
+
+    /**
+     * Ring {@code r} contains {@code 8r} positions, with ordinals {@code [0, 8r)}. Each ordinal {@code 4d + side} for {@code d in [0, 2r)} is one of the four sides of the ring:
+     * <pre>
+     * a a a a b  +x ->
+     * c . . . b  +z
+     * c . x . b   |
+     * c . . . b   v
+     * c d d d d
+     * </pre>
+     */
+    static long ringPosition(int centerX, int centerZ, int step, int r, int ordinal)
+    {
+        final int d = ordinal >> 2;
+        final int x, z;
+        switch (ordinal & 3)
+        {
+            case 0 -> {
+                x = d - r;
+                z = -r;
+            }
+            case 1 -> {
+                x = r;
+                z = d - r;
+            }
+            case 2 -> {
+                x = -r;
+                z = d + 1 - r;
+            }
+            default -> {
+                x = d + 1 - r;
+                z = r;
+            }
+        }
+        return BlockPos.asLong(centerX + step * x, 0, centerZ + step * z);
+    }
+
+    @FunctionalInterface
+    public interface Probe
+    {
+        @Nullable
+        BlockPos find(int x, int z);
+    }
+
+    /**
+     * @param pos    The position found, or {@code null} if there was no match.
+     * @param probes The number of positions tested.
+     * @param nanos  The total time taken by the search.
+     */
+    public record Result(@Nullable BlockPos pos, long probes, long nanos)
+    {
+        public double probesPerSecond()
+        {
+            return nanos == 0 ? 0 : probes * 1_000_000_000d / nanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s after %d probes in %.1f ms (%.0f probes/s)", pos == null ? "Nothing" : pos.toShortString(), probes, nanos / 1_000_000d, probesPerSecond());
+        }
+    }
+
+    private static final class Nearest
+    {
+        private static long key(int r, int ordinal)
+        {
+            return ((long) r << 32) | ordinal;
+        }
+
+        private final int centerX, centerZ, radius, step;
+        private final Probe probe;
+        private final Executor executor;
+        private final long startTime;
+
+        private final LongAdder probes = new LongAdder();
+        private final AtomicLong bestKey = new AtomicLong(Long.MAX_VALUE); // The search order of the best match so far
+        @Nullable private BlockPos best; // Guarded by this
+
+        Nearest(int centerX, int centerZ, int radius, int step, Probe probe, Executor executor)
+        {
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.radius = radius;
+            this.step = step;
+            this.probe = probe;
+            this.executor = executor;
+            this.startTime = System.nanoTime();
+        }
+
+        /**
+         * Searches the next {@link #TILES_PER_BAND} tiles, starting at {@code (r, ordinal)}, then continues with the next band if nothing was found.
+         */
+        CompletableFuture<Result> searchBand(int r, int ordinal)
+        {
+            final List<CompletableFuture<Void>> tiles = new ArrayList<>();
+            while (r < radius && tiles.size() < TILES_PER_BAND)
+            {
+                final int tileRing = r, tileOrdinal = ordinal;
+                tiles.add(CompletableFuture.runAsync(() -> searchTile(tileRing, tileOrdinal), executor));
+
+                // Advance by the positions covered by the tile, which may span multiple rings
+                ordinal += TILE_SIZE;
+                while (r < radius && ordinal >= 8 * r)
+                {
+                    ordinal -= 8 * r;
+                    r++;
+                }
+            }
+
+            if (tiles.isEmpty())
+            {
+                return CompletableFuture.completedFuture(result());
+            }
+
+            final int nextRing = r, nextOrdinal = ordinal;
+            return CompletableFuture.allOf(tiles.toArray(CompletableFuture[]::new))
+                .thenCompose(v -> bestKey.get() != Long.MAX_VALUE ? CompletableFuture.completedFuture(result()) : searchBand(nextRing, nextOrdinal));
+        }
+
+        /**
+         * Searches up to {@link #TILE_SIZE} positions in order, starting at {@code (r, ordinal)}. Stops at the first match, or once past the best match found by any tile.
+         */
+        private void searchTile(int r, int ordinal)
+        {
+            int count = 0;
+            for (; count < TILE_SIZE && r < radius; count++)
+            {
+                final long key = key(r, ordinal);
+                if (key >= bestKey.get())
+                {
+                    break; // A better match has already been found
+                }
+
+                final long pos = ringPosition(centerX, centerZ, step, r, ordinal);
+                final BlockPos found = probe.find(BlockPos.getX(pos), BlockPos.getZ(pos));
+                if (found != null)
+                {
+                    offer(key, found);
+                    count++;
+                    break;
+                }
+
+                if (++ordinal >= 8 * r)
+                {
+                    ordinal = 0;
+                    r++;
+                }
+            }
+            probes.add(count);
+        }
+
+        private synchronized void offer(long key, BlockPos pos)
+        {
+            if (key < bestKey.get())
+            {
+                bestKey.set(key);
+                best = pos;
+            }
+        }
+
+        private synchronized Result result()
+        {
+            return new Result(best, probes.sum(), System.nanoTime() - startTime);
+        }
+    }
+}
@@ -33,7 +33,6 @@ import net.dries007.tfc.world.chunkdata.TFCChunkDataGenerator;
 import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.layer.framework.ConcurrentArea;
 import net.dries007.tfc.world.river.Flow;
-import net.dries007.tfc.world.river.MidpointFractal;
 import net.dries007.tfc.world.river.Watershed;
 import net.dries007.tfc.world.settings.ClimateSettings;
 import net.dries007.tfc.world.settings.RockLayerSettings;
@@ -68,6 +67,20 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
         return new TFCBiomeSource(seed, 8_000, 0, 0, RockLayerSettings.getDefault(), ClimateSettings.DEFAULT, ClimateSettings.DEFAULT, biomeRegistry);
     }
 
+    /**
+     * The holders are fixed for the lifetime of a registry, and a reload of dynamic registries creates a new biome source, so these never need to be invalidated.
+     */
+    @SuppressWarnings("unchecked")
+    private static Holder<Biome>[] createBiomesById(Registry<Biome> biomeRegistry)
+    {
+        final Holder<Biome>[] biomesById = (Holder<Biome>[]) new Holder[TFCBiomes.getExtensionCount()];
+        for (BiomeExtension extension : TFCBiomes.getExtensions())
+        {
+            biomesById[extension.id()] = biomeRegistry.getHolderOrThrow(extension.key());
+        }
+        return biomesById;
+    }
+
     // Set from codec
     private final long seed;
     private final int spawnDistance;
@@ -76,6 +89,7 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
     private final ClimateSettings temperatureSettings, rainfallSettings;
     private final Registry<Biome> biomeRegistry;
     private final Supplier<List<StepFeatureData>> customFeaturesPerStep;
+    private final Holder<Biome>[] biomesById; // Indexed by BiomeExtension#id(), as a registry lookup for every quart is comparatively expensive
 
     private final ConcurrentArea<BiomeExtension> biomeLayer;
     private final ChunkDataProvider chunkDataProvider;
@@ -98,30 +112,17 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
         this.temperatureSettings = temperatureSettings;
         this.rainfallSettings = rainfallSettings;
         this.biomeRegistry = biomeRegistry;
+        this.biomesById = createBiomesById(biomeRegistry);
         this.customFeaturesPerStep = Suppliers.memoize(() -> FeatureCycleDetector.buildFeaturesPerStep(allBiomes));
         this.chunkDataProvider = new ChunkDataProvider(new TFCChunkDataGenerator(seed, rockLayerSettings, temperatureSettings, rainfallSettings), rockLayerSettings);
         this.watersheds = new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
-        this.biomeLayer = new ConcurrentArea<>(TFCLayers.createOverworldBiomeLayerWithRivers(seed, watersheds, IArtist.nope(), IArtist.nope()), TFCLayers::getFromLayerId);
+        this.biomeLayer = new ConcurrentArea<>(TFCLayers.createOverworldBiomeLayerWithRivers(seed, watersheds, IArtist.nope(), IArtist.nope()), TFCLayers::getFromLayerId, 4); // Tiles of 16x16 quarts, or 4x4 chunks
     }
 
     @Override
     public Flow getRiverFlow(int quartX, int quartZ)
     {
-        final float scale = 1f / (1 << 7);
-        final float x0 = quartX * scale, z0 = quartZ * scale;
-        for (MidpointFractal fractal : getWatersheds().getFractalsByPartition(quartX, quartZ))
-        {
-            // maybeIntersect will skip the more expensive calculation if it fails
-            if (fractal.maybeIntersect(x0, z0, Watershed.RIVER_WIDTH))
-            {
-                final Flow flow = fractal.intersectWithFlow(x0, z0, Watershed.RIVER_WIDTH);
-                if (flow != Flow.NONE)
-                {
-                    return flow;
-                }
-            }
-        }
-        return Flow.NONE;
+        return getWatersheds().getRiverFlow(quartX, quartZ);
     }
 
     @Override
@@ -176,7 +177,7 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
     @Override
     public Holder<Biome> getNoiseBiome(int quartX, int quartZ)
     {
-        return biomeRegistry.getHolderOrThrow(getNoiseBiomeVariants(quartX, quartZ).key());
+        return biomesById[getNoiseBiomeVariants(quartX, quartZ).id()];
     }
 
     @Override
@@ -188,7 +189,7 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
     @Override
     public Holder<Biome> getBiome(BiomeExtension variants)
     {
-        return biomeRegistry.getHolderOrThrow(variants.key());
+        return biomesById[variants.id()];
     }
 
     @Override
@@ -6,8 +6,10 @@
 
 package net.dries007.tfc.world.biome;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -35,6 +37,7 @@ public final class TFCBiomes
     public static final DeferredRegister<Biome> BIOMES = DeferredRegister.create(ForgeRegistries.BIOMES, MOD_ID);
 
     private static final Map<ResourceKey<Biome>, BiomeExtension> EXTENSIONS = new IdentityHashMap<>();
+    private static final List<BiomeExtension> EXTENSIONS_BY_ID = new ArrayList<>();
 
     // Aquatic biomes
     public static final BiomeExtension OCEAN = register("ocean", builder().heightmap(seed -> BiomeNoise.ocean(seed, -26, -12)).surface(OceanSurfaceBuilder.INSTANCE).aquiferHeightOffset(-24).salty().group(BiomeExtension.Group.OCEAN)); // Ocean biome found near continents.
@@ -112,6 +115,23 @@ public final class TFCBiomes
         return EXTENSIONS.values();
     }
 
+    /**
+     * @return The total number of extensions, which is one greater than the maximum {@link BiomeExtension#id()}.
+     */
+    public static int getExtensionCount()
+    {
+        return EXTENSIONS_BY_ID.size();
+    }
+
+    /**
+     * @param id An id, as returned by {@link BiomeExtension#id()}
+     * @return The extension with the given id.
+     */
+    public static BiomeExtension getExtension(int id)
+    {
+        return EXTENSIONS_BY_ID.get(id);
+    }
+
     public static Collection<ResourceLocation> getExtensionKeys()
     {
         return EXTENSIONS.keySet().stream().map(ResourceKey::location).toList();
@@ -135,9 +155,10 @@ public final class TFCBiomes
     {
         final ResourceLocation id = Helpers.identifier(name);
         final ResourceKey<Biome> key = ResourceKey.create(Registry.BIOME_REGISTRY, id);
-        final BiomeExtension variants = builder.build(key);
+        final BiomeExtension variants = builder.build(key, EXTENSIONS_BY_ID.size());
 
         EXTENSIONS.put(key, variants);
+        EXTENSIONS_BY_ID.add(variants);
         TFCBiomes.BIOMES.register(name, OverworldBiomes::theVoid);
 
         return variants;
@@ -267,7 +267,7 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
             }
             if (aquiferSurfaceHeight != null)
             {
-                nbt.putIntArray("aquiferSurfaceHeight", aquiferSurfaceHeight);
+                nbt.putByteArray("aquiferSurfaceHeight", CompactArrays.writeDeltas(aquiferSurfaceHeight));
             }
         }
         return nbt;
@@ -283,7 +283,9 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
             rainfallLayer = nbt.contains("rainfall") ? new LerpFloatLayer(nbt.getCompound("rainfall")) : null;
             temperatureLayer = nbt.contains("temperature") ? new LerpFloatLayer(nbt.getCompound("temperature")) : null;
             rockData = nbt.contains("rockData", Tag.TAG_COMPOUND) ? new RockData(nbt.getCompound("rockData"), rockLayerSettings) : null;
-            aquiferSurfaceHeight = nbt.contains("aquiferSurfaceHeight") ? nbt.getIntArray("aquiferSurfaceHeight") : null;
+            aquiferSurfaceHeight = nbt.contains("aquiferSurfaceHeight", Tag.TAG_BYTE_ARRAY) ? CompactArrays.readDeltas(nbt.getByteArray("aquiferSurfaceHeight")) // Compact format
+                : nbt.contains("aquiferSurfaceHeight", Tag.TAG_INT_ARRAY) ? nbt.getIntArray("aquiferSurfaceHeight") // Legacy format
+                : null;
             forestType = ForestType.valueOf(nbt.getByte("forestType"));
             forestWeirdness = nbt.getFloat("forestWeirdness");
             forestDensity = nbt.getFloat("forestDensity");
@@ -6,10 +6,14 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.Function;
 
 import net.minecraft.server.level.ServerPlayer;
@@ -17,6 +21,11 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.LevelReader;
 import net.minecraftforge.network.PacketDistributor;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.dries007.tfc.network.ChunkWatchBatchPacket;
+import net.dries007.tfc.network.ChunkWatchPacket;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.util.Helpers;
 import org.jetbrains.annotations.Nullable;
@@ -25,6 +34,11 @@ import org.jetbrains.annotations.Nullable;
  * Sided cache of chunk data instances, for when a world context is unavailable.
  * Automatically synchronized on chunk watch / unwatch events, and updated on chunk load and unload.
  * This is only valid in the overworld.
+ * <p>
+ * This is safe to access from multiple threads: worldgen, the server thread, network handlers, and on client, chunk meshing threads all may query it.
+ * Entries are keyed by {@link ChunkPos#toLong()}.
+ * A cache may optionally be bounded, in which case entries are split between a number of segments, each of which is guarded by its own lock, and evicts the least recently used entries once full.
+ * An unbounded cache has no use for access order, its segments are plain hash maps guarded by a {@link StampedLock}, so reads are optimistic and do not lock unless they race with a write.
  */
 public final class ChunkDataCache
 {
@@ -32,13 +46,13 @@ public final class ChunkDataCache
      * This is a cache of client side chunk data, used for when there is no world context available.
      * It is synced on chunk watch / unwatch
      */
-    public static final ChunkDataCache CLIENT = new ChunkDataCache("client");
+    public static final ChunkDataCache CLIENT = new ChunkDataCache("client", 1 << 14);
 
     /**
      * This is a cache of server side chunk data.
      * It is not synced, it is updated on chunk load / unload
      */
-    public static final ChunkDataCache SERVER = new ChunkDataCache("server");
+    public static final ChunkDataCache SERVER = new ChunkDataCache("server", 0);
 
     /**
      * This is a set of chunk positions which have been queued for chunk watch, but were not loaded or generated at the time.
@@ -46,6 +60,11 @@ public final class ChunkDataCache
      */
     public static final WatchQueue WATCH_QUEUE = new WatchQueue();
 
+    /**
+     * This is a set of chunk data which is pending sync to each player. Rather than sending a packet per chunk as it is watched, these are collected, and then flushed once per tick in as few packets as possible.
+     */
+    public static final WatchBatcher WATCH_BATCHER = new WatchBatcher();
+
     /**
      * Gets the normal (not world gen) cache of chunk data for the current logical side
      */
@@ -54,41 +73,293 @@ public final class ChunkDataCache
         return Helpers.isClientSide(world) ? CLIENT : SERVER;
     }
 
-    private final Map<ChunkPos, ChunkData> cache;
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    @Nullable private final Segment[] segments; // If bounded
+    @Nullable private final UnboundedSegment[] unbounded; // If unbounded
     private final String name;
+    private final LongAdder hits, misses;
 
-    private ChunkDataCache(String name)
+    /**
+     * @param maxSize The maximum number of entries, or zero if unbounded.
+     */
+    private ChunkDataCache(String name, int maxSize)
     {
         this.name = name;
-        this.cache = new HashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+
+        if (maxSize > 0)
+        {
+            final int maxSegmentSize = Math.max(1, maxSize / SEGMENTS);
+            this.segments = new Segment[SEGMENTS];
+            this.unbounded = null;
+            for (int i = 0; i < SEGMENTS; i++)
+            {
+                segments[i] = new Segment(maxSegmentSize);
+            }
+        }
+        else
+        {
+            this.segments = null;
+            this.unbounded = new UnboundedSegment[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++)
+            {
+                unbounded[i] = new UnboundedSegment();
+            }
+        }
     }
 
     @Nullable
     public ChunkData get(ChunkPos pos)
     {
-        return cache.get(pos);
+        final long key = pos.toLong();
+        final ChunkData data;
+        if (unbounded != null)
+        {
+            data = unboundedSegment(key).read(key);
+        }
+        else
+        {
+            final Segment segment = segment(key);
+            synchronized (segment)
+            {
+                data = segment.getAndMoveToLast(key);
+            }
+        }
+        (data == null ? misses : hits).increment();
+        return data;
     }
 
     @Nullable
     public ChunkData remove(ChunkPos pos)
     {
-        return cache.remove(pos);
+        final long key = pos.toLong();
+        if (unbounded != null)
+        {
+            final UnboundedSegment segment = unboundedSegment(key);
+            final long stamp = segment.lock.writeLock();
+            try
+            {
+                return segment.remove(key);
+            }
+            finally
+            {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        final Segment segment = segment(key);
+        synchronized (segment)
+        {
+            return segment.remove(key);
+        }
     }
 
     public void update(ChunkPos pos, ChunkData data)
     {
-        cache.put(pos, data);
+        final long key = pos.toLong();
+        if (unbounded != null)
+        {
+            final UnboundedSegment segment = unboundedSegment(key);
+            final long stamp = segment.lock.writeLock();
+            try
+            {
+                segment.put(key, data);
+            }
+            finally
+            {
+                segment.lock.unlockWrite(stamp);
+            }
+            return;
+        }
+        final Segment segment = segment(key);
+        synchronized (segment)
+        {
+            segment.putAndMoveToLast(key, data);
+            segment.evictIfFull();
+        }
     }
 
     public ChunkData computeIfAbsent(ChunkPos pos, Function<ChunkPos, ChunkData> mappingFunction)
     {
-        return cache.computeIfAbsent(pos, mappingFunction);
+        final long key = pos.toLong();
+        if (unbounded != null)
+        {
+            final UnboundedSegment segment = unboundedSegment(key);
+            final ChunkData existing = segment.read(key);
+            if (existing != null)
+            {
+                return existing;
+            }
+            final long stamp = segment.lock.writeLock();
+            try
+            {
+                ChunkData data = segment.get(key);
+                if (data == null)
+                {
+                    data = mappingFunction.apply(pos);
+                    segment.put(key, data);
+                }
+                return data;
+            }
+            finally
+            {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        final Segment segment = segment(key);
+        synchronized (segment)
+        {
+            ChunkData data = segment.getAndMoveToLast(key);
+            if (data == null)
+            {
+                data = mappingFunction.apply(pos);
+                segment.putAndMoveToLast(key, data);
+                segment.evictIfFull();
+            }
+            return data;
+        }
+    }
+
+    public int size()
+    {
+        int size = 0;
+        if (unbounded != null)
+        {
+            for (UnboundedSegment segment : unbounded)
+            {
+                final long stamp = segment.lock.readLock();
+                try
+                {
+                    size += segment.size();
+                }
+                finally
+                {
+                    segment.lock.unlockRead(stamp);
+                }
+            }
+            return size;
+        }
+        for (Segment segment : segments)
+        {
+            synchronized (segment)
+            {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    public long misses()
+    {
+        return misses.sum();
     }
 
     @Override
     public String toString()
     {
-        return "ChunkDataCache[" + name + ']';
+        return "ChunkDataCache[" + name + ", size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ']';
+    }
+
+    private Segment segment(long key)
+    {
+        assert segments != null;
+        return segments[(int) HashCommon.mix(key) & (SEGMENTS - 1)];
+    }
+
+    private UnboundedSegment unboundedSegment(long key)
+    {
+        assert unbounded != null;
+        return unbounded[(int) HashCommon.mix(key) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * A single, insertion and access ordered, segment of the cache. All access must be synchronized on the segment.
+     */
+    static final class Segment extends Long2ObjectLinkedOpenHashMap<ChunkData>
+    {
+        private final int maxSize;
+
+        Segment(int maxSize)
+        {
+            this.maxSize = maxSize;
+        }
+
+        void evictIfFull()
+        {
+            while (size() > maxSize)
+            {
+                removeFirst();
+            }
+        }
+    }
+
+    /**
+     * A single segment of an unbounded cache. Writes must hold the write lock. Reads should use {@link #read(long)}, which does not lock unless it races with a write.
+     */
+    static final class UnboundedSegment extends Long2ObjectOpenHashMap<ChunkData>
+    {
+        final StampedLock lock = new StampedLock();
+
+        @Nullable
+        ChunkData read(long k)
+        {
+            final long stamp = lock.tryOptimisticRead();
+            if (stamp != 0)
+            {
+                final ChunkData data = probe(k);
+                if (lock.validate(stamp))
+                {
+                    return data;
+                }
+            }
+            final long readStamp = lock.readLock();
+            try
+            {
+                return get(k);
+            }
+            finally
+            {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        /**
+         * Looks up {@code k} without holding the lock, so a concurrent write may be seen half done, and the result must be validated against the lock.
+         * The table is read once, and probed at most once around, so a torn table can give a wrong result, but can never throw or loop forever.
+         */
+        @Nullable
+        private ChunkData probe(long k)
+        {
+            final long[] keys = this.key;
+            final Object[] values = this.value;
+            final int n = keys.length - 1, mask = n - 1; // The table has n slots, followed by one for the zero key
+            if (k == 0)
+            {
+                return containsNullKey && n < values.length ? (ChunkData) values[n] : null;
+            }
+            int pos = (int) HashCommon.mix(k) & mask;
+            for (int i = 0; i < n; i++)
+            {
+                final long curr = keys[pos];
+                if (curr == 0)
+                {
+                    return null;
+                }
+                if (curr == k)
+                {
+                    return pos < values.length ? (ChunkData) values[pos] : null;
+                }
+                pos = (pos + 1) & mask;
+            }
+            return null;
+        }
     }
 
     public static class WatchQueue
@@ -125,9 +396,80 @@ public final class ChunkDataCache
                 final Set<ServerPlayer> players = queue.remove(pos);
                 for (ServerPlayer player : players)
                 {
-                    PacketHandler.send(PacketDistributor.PLAYER.with(() -> player), data.getUpdatePacket());
+                    WATCH_BATCHER.enqueue(player, pos, data);
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Collects chunk data to be synced to players, and sends it in batches via {@link ChunkWatchBatchPacket}. Only accessed on the server thread.
+     */
+    public static class WatchBatcher
+    {
+        private final Map<ServerPlayer, Long2ObjectLinkedOpenHashMap<ChunkData>> pending;
+
+        private WatchBatcher()
+        {
+            pending = new HashMap<>();
+        }
+
+        public void enqueue(ServerPlayer player, ChunkPos pos, ChunkData data)
+        {
+            pending.computeIfAbsent(player, key -> new Long2ObjectLinkedOpenHashMap<>()).put(pos.toLong(), data);
+        }
+
+        /**
+         * Removes a pending sync, if there is one. This must be called on unwatch, so the client never receives data for a chunk after it has been unwatched.
+         */
+        public void dequeue(ServerPlayer player, ChunkPos pos)
+        {
+            final Long2ObjectLinkedOpenHashMap<ChunkData> chunks = pending.get(player);
+            if (chunks != null)
+            {
+                chunks.remove(pos.toLong());
+            }
+        }
+
+        /**
+         * Sends all pending chunk data, for all players. Packets are created at this point, so they contain the latest chunk data.
+         */
+        public void flush()
+        {
+            if (pending.isEmpty())
+            {
+                return;
+            }
+            for (Map.Entry<ServerPlayer, Long2ObjectLinkedOpenHashMap<ChunkData>> entry : pending.entrySet())
+            {
+                final ServerPlayer player = entry.getKey();
+                final Long2ObjectLinkedOpenHashMap<ChunkData> chunks = entry.getValue();
+                if (player.hasDisconnected() || chunks.isEmpty())
+                {
+                    continue;
+                }
+
+                List<ChunkWatchPacket> batch = new ArrayList<>(Math.min(chunks.size(), ChunkWatchBatchPacket.MAX_ENTRIES));
+                for (ChunkData data : chunks.values())
+                {
+                    batch.add(data.getUpdatePacket());
+                    if (batch.size() == ChunkWatchBatchPacket.MAX_ENTRIES)
+                    {
+                        send(player, batch);
+                        batch = new ArrayList<>(ChunkWatchBatchPacket.MAX_ENTRIES);
+                    }
+                }
+                if (!batch.isEmpty())
+                {
+                    send(player, batch);
+                }
+            }
+            pending.clear();
+        }
+
+        private void send(ServerPlayer player, List<ChunkWatchPacket> batch)
+        {
+            PacketHandler.send(PacketDistributor.PLAYER.with(() -> player), new ChunkWatchBatchPacket(batch));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+import io.netty.buffer.Unpooled;
+import net.dries007.tfc.util.Helpers;
+
+/**
+ * Compact encodings for the arrays stored in chunk data.
+ * <p>
+ * Height maps are smooth, so adjacent values differ by very little. They are stored as the differences between consecutive values, each as a zig-zag encoded variable length integer, which is typically a single byte per value, rather than four.
+ */
+public final class CompactArrays
+{
+    /**
+     * Encodes {@code values} as a length, followed by the deltas between consecutive values.
+     */
+    public static byte[] writeDeltas(int[] values)
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer(values.length + 5));
+        buffer.writeVarInt(values.length);
+        int previous = 0;
+        for (int value : values)
+        {
+            Helpers.writeZigZagVarInt(buffer, value - previous);
+            previous = value;
+        }
+        final byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        return data;
+    }
+
+    /**
+     * Decodes the output of {@link #writeDeltas(int[])}.
+     *
+     * @throws IllegalArgumentException if the data is truncated.
+     */
+    public static int[] readDeltas(byte[] data)
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.wrappedBuffer(data));
+        try
+        {
+            final int[] values = new int[buffer.readVarInt()];
+            int previous = 0;
+            for (int i = 0; i < values.length; i++)
+            {
+                previous += Helpers.readZigZagVarInt(buffer);
+                values[i] = previous;
+            }
+            return values;
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            throw new IllegalArgumentException("Truncated data at " + buffer.readerIndex() + " of " + data.length + " bytes", e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ package net.dries007.tfc.world.chunkdata;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
 
 import net.dries007.tfc.util.Helpers;
 
@@ -17,6 +18,25 @@ import net.dries007.tfc.util.Helpers;
  */
 public class LerpFloatLayer
 {
+    /**
+     * Quantization used for network sync of climate values. This gives a resolution of 1/64, over a range of +/- 512, which is sufficient for both temperature and rainfall.
+     */
+    private static final float QUANTIZE_SCALE = 64f;
+
+    public static LerpFloatLayer decodeQuantized(FriendlyByteBuf buffer)
+    {
+        final float valueNW = buffer.readShort() / QUANTIZE_SCALE;
+        final float valueNE = buffer.readShort() / QUANTIZE_SCALE;
+        final float valueSW = buffer.readShort() / QUANTIZE_SCALE;
+        final float valueSE = buffer.readShort() / QUANTIZE_SCALE;
+        return new LerpFloatLayer(valueNW, valueNE, valueSW, valueSE);
+    }
+
+    private static int quantize(float value)
+    {
+        return Mth.clamp(Math.round(value * QUANTIZE_SCALE), Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
     private final float valueNW, valueNE, valueSW, valueSE;
 
     public LerpFloatLayer(FriendlyByteBuf buffer)
@@ -64,6 +84,19 @@ public class LerpFloatLayer
         return nbt;
     }
 
+    /**
+     * Encodes this layer in eight bytes, rather than sixteen, with a loss of precision.
+     *
+     * @see #decodeQuantized(FriendlyByteBuf)
+     */
+    public void encodeQuantized(FriendlyByteBuf buffer)
+    {
+        buffer.writeShort(quantize(valueNW));
+        buffer.writeShort(quantize(valueNE));
+        buffer.writeShort(quantize(valueSW));
+        buffer.writeShort(quantize(valueSE));
+    }
+
     public void encode(FriendlyByteBuf buffer)
     {
         buffer.writeFloat(valueNW);
@@ -11,6 +11,13 @@ import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.settings.RockLayerSettings;
@@ -22,6 +29,15 @@ public class RockData
 {
     private static final int SIZE = 16 * 16;
 
+    /**
+     * The format of serialized rock data. Versions:
+     * <ul>
+     *     <li>0: Each layer as an {@code int[]} of indexes into {@link RockLayerSettings#getRocks()}, and heights as {@code int[]}</li>
+     *     <li>1: All layers bit packed into a {@code long[]} of indexes into a palette of the rocks present in this chunk, and heights encoded via {@link CompactArrays#writeDeltas(int[])}</li>
+     * </ul>
+     */
+    private static final int VERSION = 1;
+
     private static int index(int x, int z)
     {
         return (x & 15) | ((z & 15) << 4);
@@ -49,12 +65,27 @@ public class RockData
         this.middleLayer = new RockSettings[SIZE];
         this.topLayer = new RockSettings[SIZE];
 
-        read(bottomLayer, nbt.getIntArray("bottomLayer"), settings);
-        read(middleLayer, nbt.getIntArray("middleLayer"), settings);
-        read(topLayer, nbt.getIntArray("topLayer"), settings);
+        if (nbt.getByte("version") >= 1)
+        {
+            final int[] palette = nbt.getIntArray("palette");
+            final SimpleBitStorage storage = new SimpleBitStorage(bitsFor(palette.length), 3 * SIZE, nbt.getLongArray("layers"));
+            read(bottomLayer, storage, 0, palette, settings);
+            read(middleLayer, storage, SIZE, palette, settings);
+            read(topLayer, storage, 2 * SIZE, palette, settings);
+
+            rockLayerHeight = CompactArrays.readDeltas(nbt.getByteArray("height"));
+            surfaceHeight = nbt.contains("surfaceHeight") ? CompactArrays.readDeltas(nbt.getByteArray("surfaceHeight")) : null;
+        }
+        else
+        {
+            // Legacy format, which is upgraded when next saved
+            read(bottomLayer, nbt.getIntArray("bottomLayer"), settings);
+            read(middleLayer, nbt.getIntArray("middleLayer"), settings);
+            read(topLayer, nbt.getIntArray("topLayer"), settings);
 
-        rockLayerHeight = nbt.getIntArray("height");
-        surfaceHeight = nbt.contains("surfaceHeight") ? nbt.getIntArray("surfaceHeight") : null;
+            rockLayerHeight = nbt.getIntArray("height");
+            surfaceHeight = nbt.contains("surfaceHeight") ? nbt.getIntArray("surfaceHeight") : null;
+        }
     }
 
     public RockSettings getRock(BlockPos pos)
@@ -97,28 +128,60 @@ public class RockData
     {
         final CompoundTag nbt = new CompoundTag();
 
-        // Record the raw byte values
-        nbt.putIntArray("bottomLayer", write(bottomLayer, settings));
-        nbt.putIntArray("middleLayer", write(middleLayer, settings));
-        nbt.putIntArray("topLayer", write(topLayer, settings));
+        // Chunks typically only contain a handful of distinct rocks, so index into a palette of just those
+        final int[] indexes = new int[3 * SIZE];
+        final IntList palette = new IntArrayList();
+        final Int2IntMap paletteIndexes = new Int2IntOpenHashMap();
+        paletteIndexes.defaultReturnValue(-1);
+        write(bottomLayer, indexes, 0, palette, paletteIndexes, settings);
+        write(middleLayer, indexes, SIZE, palette, paletteIndexes, settings);
+        write(topLayer, indexes, 2 * SIZE, palette, paletteIndexes, settings);
+
+        final SimpleBitStorage storage = new SimpleBitStorage(bitsFor(palette.size()), 3 * SIZE);
+        for (int i = 0; i < indexes.length; i++)
+        {
+            storage.set(i, indexes[i]);
+        }
 
-        nbt.putIntArray("height", rockLayerHeight);
+        nbt.putByte("version", (byte) VERSION);
+        nbt.putIntArray("palette", palette.toIntArray());
+        nbt.putLongArray("layers", storage.getRaw());
+        nbt.putByteArray("height", CompactArrays.writeDeltas(rockLayerHeight));
         if (surfaceHeight != null)
         {
-            nbt.putIntArray("surfaceHeight", surfaceHeight);
+            nbt.putByteArray("surfaceHeight", CompactArrays.writeDeltas(surfaceHeight));
         }
         return nbt;
     }
 
-    private int[] write(RockSettings[] layer, RockLayerSettings settings)
+    private static int bitsFor(int paletteSize)
     {
-        final int[] array = new int[SIZE];
-        final List<RockSettings> palette = settings.getRocks();
-        for (int i = 0; i < array.length; i++)
+        return Math.max(1, Mth.ceillog2(paletteSize));
+    }
+
+    private void write(RockSettings[] layer, int[] indexes, int offset, IntList palette, Int2IntMap paletteIndexes, RockLayerSettings settings)
+    {
+        for (int i = 0; i < SIZE; i++)
+        {
+            final int rock = settings.getIndex(layer[i]);
+            int index = paletteIndexes.get(rock);
+            if (index == -1)
+            {
+                index = palette.size();
+                palette.add(rock);
+                paletteIndexes.put(rock, index);
+            }
+            indexes[offset + i] = index;
+        }
+    }
+
+    private void read(RockSettings[] layer, SimpleBitStorage storage, int offset, int[] palette, RockLayerSettings settings)
+    {
+        final List<RockSettings> rocks = settings.getRocks();
+        for (int i = 0; i < SIZE; i++)
         {
-            array[i] = palette.indexOf(layer[i]); // indexOf() is O(n) but should be fast enough for our purposes, this isn't called that often
+            layer[i] = rocks.get(palette[storage.get(offset + i)]);
         }
-        return array;
     }
 
     private void read(RockSettings[] layer, int[] data, RockLayerSettings settings)
@@ -33,7 +33,7 @@ public class TFCChunkDataGenerator implements ChunkDataGenerator
 {
     public static ConcurrentArea<RockSettings> createRockLayer(Random seedGenerator, RockLayerSettings settings, List<RockSettings> rocks)
     {
-        return new ConcurrentArea<>(TFCLayers.createOverworldRockLayer(seedGenerator.nextLong(), settings.getScale(), rocks.size()), rocks::get);
+        return new ConcurrentArea<>(TFCLayers.createOverworldRockLayer(seedGenerator.nextLong(), settings.getScale(), rocks.size()), rocks::get, 4); // Queried for every column in a chunk, so computed in chunk sized tiles
     }
 
     private final ConcurrentArea<RockSettings> bottomRockLayer, middleRockLayer, topRockLayer;
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.vein;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.WorldGenLevel;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A cache of the vein (or lack of) generated at each chunk, for a single {@link VeinConfig}.
+ * Each vein feature queries all chunks in a radius around the chunk being decorated, so without this every vein would be created once for each chunk within that radius.
+ * <p>
+ * Veins are immutable once created, and deterministic based on the level seed and chunk position, so they can be shared between threads, and with anything else that queries veins, such as {@code /tfc locate}.
+ * Each level has a separate cache, which is lossy and bounded, keeping the most recently used entries.
+ */
+public final class VeinCache
+{
+    private static final int SIZE = 1024;
+
+    /**
+     * Marks a chunk as having no vein.
+     */
+    static final Vein NONE = new Vein(BlockPos.ZERO);
+
+    private final Map<Key, FastConcurrentCache<Vein>> levels = new ConcurrentHashMap<>();
+
+    /**
+     * @return The cached vein at a chunk position, or {@link #NONE} if there is no vein, or {@code null} if the position is not cached.
+     */
+    @Nullable
+    Vein get(WorldGenLevel level, int chunkX, int chunkZ)
+    {
+        return cache(level).getIfPresent(chunkX, chunkZ);
+    }
+
+    void set(WorldGenLevel level, int chunkX, int chunkZ, Vein vein)
+    {
+        cache(level).set(chunkX, chunkZ, vein);
+    }
+
+    private FastConcurrentCache<Vein> cache(WorldGenLevel level)
+    {
+        return levels.computeIfAbsent(new Key(level.getLevel().dimension(), level.getSeed()), key -> new FastConcurrentCache<>(SIZE, true));
+    }
+
+    record Key(ResourceKey<Level> dimension, long seed) {}
+}
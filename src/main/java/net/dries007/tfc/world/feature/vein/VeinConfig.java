@@ -54,6 +54,7 @@ public class VeinConfig implements FeatureConfiguration
     @Nullable private final TagKey<Biome> biomes;
 
     private final PositionalRandomFactory fork;
+    private final VeinCache cache;
 
     public VeinConfig(VeinConfig other)
     {
@@ -76,6 +77,7 @@ public class VeinConfig implements FeatureConfiguration
             .forkPositional()
             .fromHashOf(randomName)
             .forkPositional();
+        this.cache = new VeinCache();
     }
 
     public Set<BlockState> getOreStates()
@@ -94,6 +96,14 @@ public class VeinConfig implements FeatureConfiguration
         return null;
     }
 
+    /**
+     * @return The cache of veins generated by this config.
+     */
+    public VeinCache getCache()
+    {
+        return cache;
+    }
+
     public boolean canSpawnInBiome(Holder<Biome> biome)
     {
         return biomes == null || biome.is(biomes);
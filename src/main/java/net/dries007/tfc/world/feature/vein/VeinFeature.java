@@ -63,7 +63,6 @@ public abstract class VeinFeature<C extends VeinConfig, V extends Vein> extends
     public final List<V> getNearbyVeins(WorldGenLevel level, WorldGenerationContext context, ChunkPos pos, int radius, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
     {
         final List<V> veins = new ArrayList<>();
-        final Random random = new Random();
         for (int x = pos.x - radius; x <= pos.x + radius; x++)
         {
             for (int z = pos.z - radius; z <= pos.z + radius; z++)
@@ -76,15 +75,43 @@ public abstract class VeinFeature<C extends VeinConfig, V extends Vein> extends
 
     public final void getVeinsAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, List<V> veins, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
     {
-        final RandomSource forkedRandom = config.random(level.getSeed(), chunkPosX, chunkPosZ);
+        final V vein = getVeinAtChunk(level, context, chunkPosX, chunkPosZ, config, biomeQuery);
+        if (vein != null)
+        {
+            veins.add(vein);
+        }
+    }
+
+    /**
+     * @return The vein generated at the chunk position, or {@code null} if there is none. Results are cached per config in {@link VeinCache}.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public final V getVeinAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
+    {
+        final VeinCache cache = config.getCache();
+        Vein vein = cache.get(level, chunkPosX, chunkPosZ);
+        if (vein == null)
+        {
+            vein = createVeinAtChunk(level, context, chunkPosX, chunkPosZ, config, biomeQuery);
+            cache.set(level, chunkPosX, chunkPosZ, vein == null ? VeinCache.NONE : vein);
+        }
+        return vein == VeinCache.NONE ? null : (V) vein;
+    }
+
+    @Nullable
+    private V createVeinAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
+    {
         if (config.random(level.getSeed(), chunkPosX, chunkPosZ).nextInt(config.getRarity()) == 0)
         {
-            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, forkedRandom, config);
+            // Use a new random, from the same seed, to create the vein
+            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, config.random(level.getSeed(), chunkPosX, chunkPosZ), config);
             if (config.canSpawnInBiome(biomeQuery.apply(vein.getPos())))
             {
-                veins.add(vein);
+                return vein;
             }
         }
+        return null;
     }
 
     protected void place(WorldGenLevel level, ChunkGenerator generator, Random random, int blockX, int blockZ, V vein, C config)
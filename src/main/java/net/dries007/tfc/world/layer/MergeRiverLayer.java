@@ -6,13 +6,11 @@
 
 package net.dries007.tfc.world.layer;
 
-import net.dries007.tfc.world.layer.framework.Area;
 import net.dries007.tfc.world.layer.framework.AreaContext;
-import net.dries007.tfc.world.layer.framework.TransformLayer;
-import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.layer.framework.PositionalTransformLayer;
 import net.dries007.tfc.world.river.Watershed;
 
-public class MergeRiverLayer implements TransformLayer
+public class MergeRiverLayer implements PositionalTransformLayer
 {
     private final Watershed.Context watersheds;
 
@@ -22,21 +20,11 @@ public class MergeRiverLayer implements TransformLayer
     }
 
     @Override
-    public int apply(AreaContext context, Area area, int x, int z)
+    public int apply(AreaContext context, int value, int x, int z)
     {
-        final int value = area.get(x, z);
-        if (TFCLayers.hasRiver(value))
+        if (TFCLayers.hasRiver(value) && watersheds.isRiver(x, z))
         {
-            final float scale = 1f / (1 << 7);
-            final float x0 = x * scale, z0 = z * scale;
-            for (MidpointFractal fractal : watersheds.getFractalsByPartition(x, z))
-            {
-                // maybeIntersect will skip the more expensive calculation if it fails
-                if (fractal.maybeIntersect(x0, z0, Watershed.RIVER_WIDTH) && fractal.intersect(x0, z0, Watershed.RIVER_WIDTH))
-                {
-                    return TFCLayers.riverFor(value);
-                }
-            }
+            return TFCLayers.riverFor(value);
         }
         return value;
     }
@@ -8,6 +8,8 @@ package net.dries007.tfc.world.layer;
 
 import net.dries007.tfc.world.layer.framework.Area;
 import net.dries007.tfc.world.layer.framework.AreaContext;
+import net.dries007.tfc.world.layer.framework.AreaFactory;
+import net.dries007.tfc.world.layer.framework.AreaSource;
 import net.dries007.tfc.world.layer.framework.TransformLayer;
 
 public enum ZoomLayer implements TransformLayer
@@ -50,6 +52,47 @@ public enum ZoomLayer implements TransformLayer
             }
         };
 
+    @Override
+    public AreaFactory apply(long seed, AreaFactory prev)
+    {
+        return () -> {
+            final AreaContext context = new AreaContext(seed);
+            final Area prevArea = prev.get();
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    // No need to set the seed here, as it is always set from the parent position
+                    return ZoomLayer.this.apply(context, prevArea, x, z);
+                }
+
+                @Override
+                public void fill(int[] values, int minX, int minZ, int width, int height)
+                {
+                    // The parent region covers half the size, plus one in the positive direction
+                    final int parentMinX = minX >> 1, parentMinZ = minZ >> 1;
+                    final int parentWidth = ((minX + width - 1) >> 1) - parentMinX + 2;
+                    final int parentHeight = ((minZ + height - 1) >> 1) - parentMinZ + 2;
+                    final int[] parent = new int[parentWidth * parentHeight];
+                    prevArea.fill(parent, parentMinX, parentMinZ, parentWidth, parentHeight);
+
+                    for (int dz = 0; dz < height; dz++)
+                    {
+                        for (int dx = 0; dx < width; dx++)
+                        {
+                            final int x = minX + dx, z = minZ + dz;
+                            final int parentX = x >> 1, parentZ = z >> 1;
+                            final int index = (parentX - parentMinX) + parentWidth * (parentZ - parentMinZ);
+
+                            context.setSeed(parentX, parentZ);
+                            values[dx + width * dz] = zoom(context, x & 1, z & 1, parent[index], parent[index + parentWidth], parent[index + 1], parent[index + 1 + parentWidth]);
+                        }
+                    }
+                }
+            }, 1024);
+        };
+    }
+
     @Override
     public int apply(AreaContext context, Area area, int x, int z)
     {
@@ -74,4 +117,24 @@ public enum ZoomLayer implements TransformLayer
     }
 
     public abstract int choose(AreaContext context, int first, int second, int third, int fourth);
+
+    /**
+     * Equivalent to {@link #apply(AreaContext, Area, int, int)}, but with all parent values already known.
+     */
+    private int zoom(AreaContext context, int offsetX, int offsetZ, int northWest, int southWest, int northEast, int southEast)
+    {
+        if (offsetX == 0 && offsetZ == 0)
+        {
+            return northWest;
+        }
+        else if (offsetX == 0)
+        {
+            return context.choose(northWest, southWest);
+        }
+        else if (offsetZ == 0)
+        {
+            return context.choose(northWest, northEast);
+        }
+        return choose(context, northWest, southWest, northEast, southEast);
+    }
 }
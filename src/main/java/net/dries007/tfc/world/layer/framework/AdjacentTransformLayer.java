@@ -11,6 +11,42 @@ package net.dries007.tfc.world.layer.framework;
  */
 public interface AdjacentTransformLayer extends TransformLayer
 {
+    @Override
+    default AreaFactory apply(long seed, AreaFactory prev)
+    {
+        return () -> {
+            final AreaContext context = new AreaContext(seed);
+            final Area prevArea = prev.get();
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return AdjacentTransformLayer.this.apply(context, prevArea, x, z);
+                }
+
+                @Override
+                public void fill(int[] values, int minX, int minZ, int width, int height)
+                {
+                    // The parent region is padded by one in each direction
+                    final int parentWidth = width + 2;
+                    final int[] parent = new int[parentWidth * (height + 2)];
+                    prevArea.fill(parent, minX - 1, minZ - 1, parentWidth, height + 2);
+
+                    for (int dz = 0; dz < height; dz++)
+                    {
+                        for (int dx = 0; dx < width; dx++)
+                        {
+                            final int index = (dx + 1) + parentWidth * (dz + 1);
+                            context.setSeed(minX + dx, minZ + dz);
+                            values[dx + width * dz] = AdjacentTransformLayer.this.apply(context, parent[index - parentWidth], parent[index + 1], parent[index + parentWidth], parent[index - 1], parent[index]);
+                        }
+                    }
+                }
+            }, 1024);
+        };
+    }
+
     @Override
     default int apply(AreaContext context, Area area, int x, int z)
     {
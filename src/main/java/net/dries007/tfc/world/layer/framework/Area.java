@@ -55,4 +55,14 @@ public class Area
             return value;
         }
     }
+
+    /**
+     * Computes all values in a rectangular region at once. This does not read from, or write to, the cache.
+     *
+     * @see AreaSource#fill(int[], int, int, int, int)
+     */
+    public void fill(int[] values, int minX, int minZ, int width, int height)
+    {
+        source.fill(values, minX, minZ, width, height);
+    }
 }
@@ -13,4 +13,25 @@ package net.dries007.tfc.world.layer.framework;
 public interface AreaSource
 {
     int apply(int x, int z);
+
+    /**
+     * Computes all values in a rectangular region, which <strong>must</strong> be identical to calling {@link #apply(int, int)} for each position.
+     * Implementations may override this to compute their parent's region once, and avoid per-position queries.
+     *
+     * @param values The output array, indexed as {@code values[dx + width * dz]}, where {@code (minX + dx, minZ + dz)} is the position.
+     * @param minX   The minimum x coordinate, inclusive.
+     * @param minZ   The minimum z coordinate, inclusive.
+     * @param width  The width of the region along the x axis.
+     * @param height The height of the region along the z axis.
+     */
+    default void fill(int[] values, int minX, int minZ, int width, int height)
+    {
+        for (int dz = 0; dz < height; dz++)
+        {
+            for (int dx = 0; dx < width; dx++)
+            {
+                values[dx + width * dz] = apply(minX + dx, minZ + dz);
+            }
+        }
+    }
 }
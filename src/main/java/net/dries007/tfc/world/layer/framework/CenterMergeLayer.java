@@ -11,6 +11,41 @@ package net.dries007.tfc.world.layer.framework;
  */
 public interface CenterMergeLayer extends MergeLayer
 {
+    @Override
+    default AreaFactory apply(long seed, AreaFactory first, AreaFactory second)
+    {
+        return () -> {
+            final AreaContext context = new AreaContext(seed);
+            final Area firstArea = first.get();
+            final Area secondArea = second.get();
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return CenterMergeLayer.this.apply(context, firstArea, secondArea, x, z);
+                }
+
+                @Override
+                public void fill(int[] values, int minX, int minZ, int width, int height)
+                {
+                    final int[] secondValues = new int[width * height];
+                    firstArea.fill(values, minX, minZ, width, height);
+                    secondArea.fill(secondValues, minX, minZ, width, height);
+                    for (int dz = 0; dz < height; dz++)
+                    {
+                        for (int dx = 0; dx < width; dx++)
+                        {
+                            final int index = dx + width * dz;
+                            context.setSeed(minX + dx, minZ + dz);
+                            values[index] = CenterMergeLayer.this.apply(context, values[index], secondValues[index]);
+                        }
+                    }
+                }
+            }, 1024);
+        };
+    }
+
     @Override
     default int apply(AreaContext context, Area first, Area second, int x, int z)
     {
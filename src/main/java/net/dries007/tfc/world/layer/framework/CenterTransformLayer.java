@@ -11,6 +11,39 @@ package net.dries007.tfc.world.layer.framework;
  */
 public interface CenterTransformLayer extends TransformLayer
 {
+    @Override
+    default AreaFactory apply(long seed, AreaFactory prev)
+    {
+        return () -> {
+            final AreaContext context = new AreaContext(seed);
+            final Area prevArea = prev.get();
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return CenterTransformLayer.this.apply(context, prevArea, x, z);
+                }
+
+                @Override
+                public void fill(int[] values, int minX, int minZ, int width, int height)
+                {
+                    // The parent region is identical, so it can be computed in place
+                    prevArea.fill(values, minX, minZ, width, height);
+                    for (int dz = 0; dz < height; dz++)
+                    {
+                        for (int dx = 0; dx < width; dx++)
+                        {
+                            final int index = dx + width * dz;
+                            context.setSeed(minX + dx, minZ + dz);
+                            values[index] = CenterTransformLayer.this.apply(context, values[index]);
+                        }
+                    }
+                }
+            }, 1024);
+        };
+    }
+
     @Override
     default int apply(AreaContext context, Area area, int x, int z)
     {
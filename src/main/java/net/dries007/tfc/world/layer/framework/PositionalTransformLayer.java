@@ -0,0 +1,55 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.layer.framework;
+
+/**
+ * An {@link TransformLayer} which access the previous area at the targeted (x, z) position, and may additionally depend on the position itself.
+ *
+ * @see CenterTransformLayer
+ */
+public interface PositionalTransformLayer extends TransformLayer
+{
+    @Override
+    default AreaFactory apply(long seed, AreaFactory prev)
+    {
+        return () -> {
+            final AreaContext context = new AreaContext(seed);
+            final Area prevArea = prev.get();
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return PositionalTransformLayer.this.apply(context, prevArea, x, z);
+                }
+
+                @Override
+                public void fill(int[] values, int minX, int minZ, int width, int height)
+                {
+                    prevArea.fill(values, minX, minZ, width, height);
+                    for (int dz = 0; dz < height; dz++)
+                    {
+                        for (int dx = 0; dx < width; dx++)
+                        {
+                            final int index = dx + width * dz;
+                            context.setSeed(minX + dx, minZ + dz);
+                            values[index] = PositionalTransformLayer.this.apply(context, values[index], minX + dx, minZ + dz);
+                        }
+                    }
+                }
+            }, 1024);
+        };
+    }
+
+    @Override
+    default int apply(AreaContext context, Area area, int x, int z)
+    {
+        return apply(context, area.get(x, z), x, z);
+    }
+
+    int apply(AreaContext context, int value, int x, int z);
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.layer.framework;
+
+import java.util.Arrays;
+
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * A wrapper around an {@link Area} which computes values in square, aligned tiles, using {@link Area#fill(int[], int, int, int, int)}, and caches the most recent tiles.
+ * For areas which are queried in a dense region (i.e. every position in a chunk), this avoids the per-position cache and parent queries of {@link Area#get(int, int)}.
+ * Like {@link Area}, this is not synchronized.
+ */
+public class TiledArea implements AreaSource
+{
+    private static final int CACHE_SIZE = 16;
+
+    private final Area area;
+    private final int tileBits, tileSize, tileMask;
+    private final long[] keys;
+    private final int[][] tiles;
+
+    public TiledArea(Area area, int tileBits)
+    {
+        this.area = area;
+        this.tileBits = tileBits;
+        this.tileSize = 1 << tileBits;
+        this.tileMask = tileSize - 1;
+        this.keys = new long[CACHE_SIZE];
+        this.tiles = new int[CACHE_SIZE][tileSize * tileSize];
+
+        Arrays.fill(keys, Long.MIN_VALUE);
+    }
+
+    @Override
+    public int apply(int x, int z)
+    {
+        final int tileX = x >> tileBits, tileZ = z >> tileBits;
+        final long key = ChunkPos.asLong(tileX, tileZ);
+        final int index = (int) HashCommon.mix(key) & (CACHE_SIZE - 1);
+        final int[] tile = tiles[index];
+        if (keys[index] != key)
+        {
+            area.fill(tile, tileX << tileBits, tileZ << tileBits, tileSize, tileSize);
+            keys[index] = key;
+        }
+        return tile[(x & tileMask) | ((z & tileMask) << tileBits)];
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+/**
+ * Temporary arrays used by the bulk {@code fill} of a single noise combinator, so that filling does not allocate.
+ * Each combinator holds its own scratch per thread, as world generation evaluates the same noise from many threads at once. Arrays are only resized if a larger batch than any before is requested.
+ */
+final class FillScratch
+{
+    static ThreadLocal<FillScratch> create(int arrays)
+    {
+        return ThreadLocal.withInitial(() -> new FillScratch(arrays));
+    }
+
+    private final float[][] arrays;
+    private int[] indexes;
+
+    private FillScratch(int arrays)
+    {
+        this.arrays = new float[arrays][16 * 16];
+        this.indexes = new int[0];
+    }
+
+    /**
+     * @return The {@code index}-th array, with a length of at least {@code n}.
+     */
+    float[] get(int index, int n)
+    {
+        if (arrays[index].length < n)
+        {
+            arrays[index] = new float[n];
+        }
+        return arrays[index];
+    }
+
+    /**
+     * @return An array of indexes, with a length of at least {@code n}.
+     */
+    int[] indexes(int n)
+    {
+        if (indexes.length < n)
+        {
+            indexes = new int[Math.max(n, 16 * 16)];
+        }
+        return indexes;
+    }
+}
@@ -6,16 +6,32 @@
 
 package net.dries007.tfc.world.noise;
 
+import java.util.Arrays;
+
 import net.minecraft.util.Mth;
 
 /**
  * Wrapper for a 2D noise layer
+ * <p>
+ * Noise may be evaluated either for a single point, via {@link #noise(float, float)}, or in bulk, via {@link #fill(float[], float[], float[], int)}. All combinators implement the bulk variant with a simple loop over their input, which avoids walking the full chain of combinators once per point, and use per-thread scratch arrays rather than allocating for each batch. Both must produce identical results.
  */
 @FunctionalInterface
 public interface Noise2D
 {
     float noise(float x, float z);
 
+    /**
+     * Evaluates the noise at {@code n} points, equivalent to {@code out[i] = noise(xs[i], zs[i])} for each {@code i < n}.
+     * The input arrays are not modified.
+     */
+    default void fill(float[] xs, float[] zs, float[] out, int n)
+    {
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = noise(xs[i], zs[i]);
+        }
+    }
+
     /**
      * @param octaves The number of octaves
      */
@@ -28,13 +44,41 @@ public interface Noise2D
             frequency[i] = 1 << i;
             amplitude[i] = (float) Math.pow(0.5f, octaves - i);
         }
-        return (x, y) -> {
-            float value = 0;
-            for (int i = 0; i < octaves; i++)
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(3);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                float value = 0;
+                for (int i = 0; i < octaves; i++)
+                {
+                    value += Noise2D.this.noise(x / frequency[i], z / frequency[i]) * amplitude[i];
+                }
+                return value;
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
             {
-                value += Noise2D.this.noise(x / frequency[i], y / frequency[i]) * amplitude[i];
+                final FillScratch buffers = scratch.get();
+                final float[] octaveXs = buffers.get(0, n), octaveZs = buffers.get(1, n), octave = buffers.get(2, n);
+                Arrays.fill(out, 0, n, 0);
+                for (int i = 0; i < octaves; i++)
+                {
+                    final float f = frequency[i], a = amplitude[i];
+                    for (int j = 0; j < n; j++)
+                    {
+                        octaveXs[j] = xs[j] / f;
+                        octaveZs[j] = zs[j] / f;
+                    }
+                    Noise2D.this.fill(octaveXs, octaveZs, octave, n);
+                    for (int j = 0; j < n; j++)
+                    {
+                        out[j] += octave[j] * a;
+                    }
+                }
             }
-            return value;
         };
     }
 
@@ -45,11 +89,7 @@ public interface Noise2D
      */
     default Noise2D ridged()
     {
-        return (x, y) -> {
-            float value = Noise2D.this.noise(x, y);
-            value = value < 0 ? -value : value;
-            return 1f - 2f * value;
-        };
+        return map(value -> 1f - 2f * (value < 0 ? -value : value));
     }
 
     /**
@@ -59,7 +99,7 @@ public interface Noise2D
      */
     default Noise2D abs()
     {
-        return (x, y) -> Math.abs(Noise2D.this.noise(x, y));
+        return map(Math::abs);
     }
 
     /**
@@ -71,11 +111,11 @@ public interface Noise2D
      */
     default Noise2D terraces(int levels)
     {
-        return (x, y) -> {
-            float value = 0.5f * Noise2D.this.noise(x, y) + 0.5f;
+        return map(noise -> {
+            float value = 0.5f * noise + 0.5f;
             float rounded = (int) (value * levels); // In range [0, levels)
             return (rounded * 2f) / levels - 1f;
-        };
+        });
     }
 
     /**
@@ -86,7 +126,28 @@ public interface Noise2D
      */
     default Noise2D spread(float scaleFactor)
     {
-        return (x, y) -> Noise2D.this.noise(x * scaleFactor, y * scaleFactor);
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(2);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return Noise2D.this.noise(x * scaleFactor, z * scaleFactor);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
+            {
+                final FillScratch buffers = scratch.get();
+                final float[] spreadXs = buffers.get(0, n), spreadZs = buffers.get(1, n);
+                for (int i = 0; i < n; i++)
+                {
+                    spreadXs[i] = xs[i] * scaleFactor;
+                    spreadZs[i] = zs[i] * scaleFactor;
+                }
+                Noise2D.this.fill(spreadXs, spreadZs, out, n);
+            }
+        };
     }
 
     default Noise2D scaled(float min, float max)
@@ -112,7 +173,7 @@ public interface Noise2D
 
     default Noise2D affine(float scale, float shift)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) * scale + shift;
+        return map(value -> value * scale + shift);
     }
 
     default Noise2D warped(OpenSimplex2D warp)
@@ -121,11 +182,33 @@ public interface Noise2D
         warp.fnl.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
         warp.fnl.SetDomainWarpAmp(warp.getAmplitude() * 2);
         final FastNoiseLite.Vector2 cursor = new FastNoiseLite.Vector2(0, 0);
-        return (x, z) -> {
-            cursor.x = x;
-            cursor.y = z;
-            warp.fnl.DomainWarp(cursor);
-            return Noise2D.this.noise(cursor.x, cursor.y);
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(2);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                cursor.x = x;
+                cursor.y = z;
+                warp.fnl.DomainWarp(cursor);
+                return Noise2D.this.noise(cursor.x, cursor.y);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
+            {
+                final FillScratch buffers = scratch.get();
+                final float[] warpedXs = buffers.get(0, n), warpedZs = buffers.get(1, n);
+                for (int i = 0; i < n; i++)
+                {
+                    cursor.x = xs[i];
+                    cursor.y = zs[i];
+                    warp.fnl.DomainWarp(cursor);
+                    warpedXs[i] = cursor.x;
+                    warpedZs[i] = cursor.y;
+                }
+                Noise2D.this.fill(warpedXs, warpedZs, out, n);
+            }
         };
     }
 
@@ -138,7 +221,7 @@ public interface Noise2D
      */
     default Noise2D clamped(float min, float max)
     {
-        return (x, y) -> Mth.clamp(Noise2D.this.noise(x, y), min, max);
+        return map(value -> Mth.clamp(value, min, max));
     }
 
     /**
@@ -146,7 +229,27 @@ public interface Noise2D
      */
     default Noise2D add(Noise2D other)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) + other.noise(x, y);
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(1);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return Noise2D.this.noise(x, z) + other.noise(x, z);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
+            {
+                final float[] values = scratch.get().get(0, n);
+                Noise2D.this.fill(xs, zs, out, n);
+                other.fill(xs, zs, values, n);
+                for (int i = 0; i < n; i++)
+                {
+                    out[i] += values[i];
+                }
+            }
+        };
     }
 
     /**
@@ -154,15 +257,71 @@ public interface Noise2D
      */
     default Noise2D lazyProduct(Noise2D other)
     {
-        return (x, y) -> {
-            final float value = Noise2D.this.noise(x, y);
-            return value == 0 ? 0 : value * other.noise(x, y);
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(3);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                final float value = Noise2D.this.noise(x, z);
+                return value == 0 ? 0 : value * other.noise(x, z);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
+            {
+                Noise2D.this.fill(xs, zs, out, n);
+
+                // Gather only the non-zero points, and evaluate the second noise for those
+                final FillScratch buffers = scratch.get();
+                final int[] indexes = buffers.indexes(n);
+                final float[] nonZeroXs = buffers.get(0, n), nonZeroZs = buffers.get(1, n);
+                int count = 0;
+                for (int i = 0; i < n; i++)
+                {
+                    if (out[i] != 0)
+                    {
+                        indexes[count] = i;
+                        nonZeroXs[count] = xs[i];
+                        nonZeroZs[count] = zs[i];
+                        count++;
+                    }
+                    else
+                    {
+                        out[i] = 0; // Matches the point-wise result for -0
+                    }
+                }
+
+                final float[] values = buffers.get(2, count);
+                other.fill(nonZeroXs, nonZeroZs, values, count);
+                for (int i = 0; i < count; i++)
+                {
+                    out[indexes[i]] *= values[i];
+                }
+            }
         };
     }
 
     default Noise2D map(FloatOperator mappingFunction)
     {
-        return (x, y) -> mappingFunction.applyAsFloat(Noise2D.this.noise(x, y));
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return mappingFunction.applyAsFloat(Noise2D.this.noise(x, z));
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int n)
+            {
+                Noise2D.this.fill(xs, zs, out, n);
+                for (int i = 0; i < n; i++)
+                {
+                    out[i] = mappingFunction.applyAsFloat(out[i]);
+                }
+            }
+        };
     }
 
     @FunctionalInterface
@@ -6,14 +6,30 @@
 
 package net.dries007.tfc.world.noise;
 
+import java.util.Arrays;
+
 /**
  * Wrapper for a 3D Noise Layer
+ *
+ * @see Noise2D
  */
 @FunctionalInterface
 public interface Noise3D
 {
     float noise(float x, float y, float z);
 
+    /**
+     * Evaluates the noise at {@code n} points, equivalent to {@code out[i] = noise(xs[i], ys[i], zs[i])} for each {@code i < n}.
+     * The input arrays are not modified.
+     */
+    default void fill(float[] xs, float[] ys, float[] zs, float[] out, int n)
+    {
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = noise(xs[i], ys[i], zs[i]);
+        }
+    }
+
     /**
      * @param octaves The number of octaves
      */
@@ -26,13 +42,42 @@ public interface Noise3D
             frequency[i] = 1 << i;
             amplitude[i] = (float) Math.pow(0.5f, octaves - i);
         }
-        return (x, y, z) -> {
-            float value = 0;
-            for (int i = 0; i < octaves; i++)
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(4);
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
+            {
+                float value = 0;
+                for (int i = 0; i < octaves; i++)
+                {
+                    value += Noise3D.this.noise(x / frequency[i], y / frequency[i], z / frequency[i]) * amplitude[i];
+                }
+                return value;
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int n)
             {
-                value += Noise3D.this.noise(x / frequency[i], y / frequency[i], z / frequency[i]) * amplitude[i];
+                final FillScratch buffers = scratch.get();
+                final float[] octaveXs = buffers.get(0, n), octaveYs = buffers.get(1, n), octaveZs = buffers.get(2, n), octave = buffers.get(3, n);
+                Arrays.fill(out, 0, n, 0);
+                for (int i = 0; i < octaves; i++)
+                {
+                    final float f = frequency[i], a = amplitude[i];
+                    for (int j = 0; j < n; j++)
+                    {
+                        octaveXs[j] = xs[j] / f;
+                        octaveYs[j] = ys[j] / f;
+                        octaveZs[j] = zs[j] / f;
+                    }
+                    Noise3D.this.fill(octaveXs, octaveYs, octaveZs, octave, n);
+                    for (int j = 0; j < n; j++)
+                    {
+                        out[j] += octave[j] * a;
+                    }
+                }
             }
-            return value;
         };
     }
 
@@ -44,7 +89,29 @@ public interface Noise3D
      */
     default Noise3D spread(float scaleFactor)
     {
-        return (x, y, z) -> Noise3D.this.noise(x * scaleFactor, y * scaleFactor, z * scaleFactor);
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(3);
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
+            {
+                return Noise3D.this.noise(x * scaleFactor, y * scaleFactor, z * scaleFactor);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int n)
+            {
+                final FillScratch buffers = scratch.get();
+                final float[] spreadXs = buffers.get(0, n), spreadYs = buffers.get(1, n), spreadZs = buffers.get(2, n);
+                for (int i = 0; i < n; i++)
+                {
+                    spreadXs[i] = xs[i] * scaleFactor;
+                    spreadYs[i] = ys[i] * scaleFactor;
+                    spreadZs[i] = zs[i] * scaleFactor;
+                }
+                Noise3D.this.fill(spreadXs, spreadYs, spreadZs, out, n);
+            }
+        };
     }
 
     default Noise3D scaled(float min, float max)
@@ -63,9 +130,24 @@ public interface Noise3D
      */
     default Noise3D scaled(float oldMin, float oldMax, float min, float max)
     {
-        return (x, y, z) -> {
-            float value = Noise3D.this.noise(x, y, z);
-            return (value - oldMin) / (oldMax - oldMin) * (max - min) + min;
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
+            {
+                float value = Noise3D.this.noise(x, y, z);
+                return (value - oldMin) / (oldMax - oldMin) * (max - min) + min;
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int n)
+            {
+                Noise3D.this.fill(xs, ys, zs, out, n);
+                for (int i = 0; i < n; i++)
+                {
+                    out[i] = (out[i] - oldMin) / (oldMax - oldMin) * (max - min) + min;
+                }
+            }
         };
     }
 
@@ -75,12 +157,36 @@ public interface Noise3D
         warp.fnl.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
         warp.fnl.SetDomainWarpAmp(warp.getAmplitude() * 2);
         final FastNoiseLite.Vector3 cursor = new FastNoiseLite.Vector3(0, 0, 0);
-        return (x, y, z) -> {
-            cursor.x = x;
-            cursor.y = y;
-            cursor.z = z;
-            warp.fnl.DomainWarp(cursor);
-            return Noise3D.this.noise(cursor.x, cursor.y, cursor.z);
+        final ThreadLocal<FillScratch> scratch = FillScratch.create(3);
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
+            {
+                cursor.x = x;
+                cursor.y = y;
+                cursor.z = z;
+                warp.fnl.DomainWarp(cursor);
+                return Noise3D.this.noise(cursor.x, cursor.y, cursor.z);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int n)
+            {
+                final FillScratch buffers = scratch.get();
+                final float[] warpedXs = buffers.get(0, n), warpedYs = buffers.get(1, n), warpedZs = buffers.get(2, n);
+                for (int i = 0; i < n; i++)
+                {
+                    cursor.x = xs[i];
+                    cursor.y = ys[i];
+                    cursor.z = zs[i];
+                    warp.fnl.DomainWarp(cursor);
+                    warpedXs[i] = cursor.x;
+                    warpedYs[i] = cursor.y;
+                    warpedZs[i] = cursor.z;
+                }
+                Noise3D.this.fill(warpedXs, warpedYs, warpedZs, out, n);
+            }
         };
     }
 }
\ No newline at end of file
@@ -35,6 +35,17 @@ public class OpenSimplex2D implements Noise2D
         return midpoint + fnl.GetNoise(x, z) * amplitude;
     }
 
+    @Override
+    public void fill(float[] xs, float[] zs, float[] out, int n)
+    {
+        final FastNoiseLite fnl = this.fnl;
+        final float midpoint = this.midpoint, amplitude = this.amplitude;
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = midpoint + fnl.GetNoise(xs[i], zs[i]) * amplitude;
+        }
+    }
+
     @Override
     public OpenSimplex2D octaves(int octaves)
     {
@@ -36,6 +36,17 @@ public class OpenSimplex3D implements Noise3D
         return midpoint + fnl.GetNoise(x, y, z) * amplitude;
     }
 
+    @Override
+    public void fill(float[] xs, float[] ys, float[] zs, float[] out, int n)
+    {
+        final FastNoiseLite fnl = this.fnl;
+        final float midpoint = this.midpoint, amplitude = this.amplitude;
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = midpoint + fnl.GetNoise(xs[i], ys[i], zs[i]) * amplitude;
+        }
+    }
+
     @Override
     public OpenSimplex3D octaves(int octaves)
     {
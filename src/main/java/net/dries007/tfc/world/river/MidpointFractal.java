@@ -93,6 +93,22 @@ public class MidpointFractal
         this.norm = ENCOMPASSING_RANGES[bisections] * RiverHelpers.normInf(sourceX - drainX, sourceY - drainY);
     }
 
+    /**
+     * Restores a fractal from previously generated {@link #segments}.
+     */
+    public MidpointFractal(float[] segments)
+    {
+        final int points = segments.length >> 1;
+        Preconditions.checkArgument((segments.length & 1) == 0 && points >= 2 && Integer.bitCount(points - 1) == 1, "Segments must contain 2^n + 1 points");
+
+        final int bisections = Integer.numberOfTrailingZeros(points - 1);
+        Preconditions.checkArgument(bisections < MAX_BISECTIONS, "Bisections must be within [0, MAX_BISECTIONS)");
+
+        final int last = segments.length - 2;
+        this.segments = segments;
+        this.norm = ENCOMPASSING_RANGES[bisections] * RiverHelpers.normInf(segments[0] - segments[last], segments[1] - segments[last + 1]);
+    }
+
     /**
      * Checks if a given point (x, y) comes within a minimum {@code distance} of the bounding box of the fractal.
      * Faster and more efficient than checking {@link #intersect(float, float, float)}.
@@ -120,13 +136,18 @@ public class MidpointFractal
     public Flow intersectWithFlow(float x, float y, float distance)
     {
         final int i = intersectIndex(x, y, distance * distance);
-        if (i != -1)
-        {
-            float sourceX = segments[i], sourceY = segments[i + 1], drainX = segments[i + 2], drainY = segments[i + 3];
-            float angle = (float) Mth.atan2(-(drainY - sourceY), drainX - sourceX);
-            return Flow.fromAngle(angle);
-        }
-        return Flow.NONE;
+        return i != -1 ? getFlow(i) : Flow.NONE;
+    }
+
+    /**
+     * @param index The index of the start of a segment, in {@link #segments}.
+     * @return A vector describing the flow of the river along that segment.
+     */
+    public Flow getFlow(int index)
+    {
+        float sourceX = segments[index], sourceY = segments[index + 1], drainX = segments[index + 2], drainY = segments[index + 3];
+        float angle = (float) Mth.atan2(-(drainY - sourceY), drainX - sourceX);
+        return Flow.fromAngle(angle);
     }
 
     private int intersectIndex(float x, float y, float distSq)
@@ -12,6 +12,8 @@ import java.util.stream.Collectors;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.levelgen.RandomSource;
 
+import com.google.common.base.Preconditions;
+
 public class RiverFractal
 {
     private static final float MIN_BRANCH_ANGLE = 0.4f;
@@ -87,6 +89,17 @@ public class RiverFractal
         this.fractals = edges.stream().map(e -> e.fractal(random, 4)).toList();
     }
 
+    /**
+     * Restores a river from previously generated edges and fractals, which must be in the same order.
+     */
+    public RiverFractal(List<Edge> edges, List<MidpointFractal> fractals)
+    {
+        Preconditions.checkArgument(edges.size() == fractals.size(), "Must have one fractal per edge");
+
+        this.edges = edges;
+        this.fractals = fractals;
+    }
+
     @Override
     public int hashCode()
     {
@@ -0,0 +1,191 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.river;
+
+import java.util.List;
+
+import net.minecraft.util.Mth;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * An immutable spatial index over the segments of all fractals which come near a single partition (a square region of a {@link Watershed.Context}).
+ * The partition is divided into a uniform grid, and each cell stores the segments which come within a fixed distance of that cell. A point query then only needs to check the handful of segments in a single cell, rather than every segment of every fractal.
+ * <p>
+ * Queries are exactly equivalent to checking each fractal, in order, with {@link MidpointFractal#maybeIntersect(float, float, float)} followed by {@link MidpointFractal#intersectWithFlow(float, float, float)}, for any distance up to the distance the index was built with.
+ * In order to preserve this, entries in each cell are ordered by fractal, then by segment.
+ */
+public final class RiverPartition
+{
+    private static final int CELL_BITS = 3;
+    private static final int CELLS = 1 << CELL_BITS;
+
+    private final List<MidpointFractal> fractals;
+    private final float minX, minZ, cellScale, maxDistance;
+
+    private final int[] cellStarts; // Index into entries of the first entry of each cell, with an additional trailing index
+    private final int[] entries; // Each entry is (fractal index << 16) | segment index
+
+    /**
+     * @param fractals    The fractals within this partition.
+     * @param minX        The minimum x of the partition.
+     * @param minZ        The minimum z of the partition.
+     * @param size        The width of the partition.
+     * @param maxDistance The maximum distance for queries against this partition.
+     */
+    public RiverPartition(List<MidpointFractal> fractals, float minX, float minZ, float size, float maxDistance)
+    {
+        this.fractals = fractals;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.cellScale = CELLS / size;
+        this.maxDistance = maxDistance;
+
+        // Expand segment bounds by the query distance, plus enough to account for float rounding in both distance calculations, and in converting to cell coordinates.
+        final float margin = maxDistance * 1.01f + 4 * Math.ulp(Math.max(Math.abs(minX), Math.abs(minZ)) + size);
+
+        // Compute the cell range of each segment, then count entries per cell, and then fill entries, such that they are already sorted.
+        final IntArrayList ranges = new IntArrayList();
+        final int[] counts = new int[CELLS * CELLS];
+        for (int fractalIndex = 0; fractalIndex < fractals.size(); fractalIndex++)
+        {
+            final float[] segments = fractals.get(fractalIndex).segments;
+            for (int i = 0; i < segments.length - 2; i += 2)
+            {
+                final float x0 = segments[i], z0 = segments[i + 1], x1 = segments[i + 2], z1 = segments[i + 3];
+                int minCellX, minCellZ, maxCellX, maxCellZ;
+                if (x0 == x1 && z0 == z1)
+                {
+                    // Degenerate segments are treated as intersecting every point, by RiverHelpers.distancePointToLineSq
+                    minCellX = minCellZ = 0;
+                    maxCellX = maxCellZ = CELLS - 1;
+                }
+                else
+                {
+                    minCellX = Mth.floor((Math.min(x0, x1) - minX - margin) * cellScale);
+                    minCellZ = Mth.floor((Math.min(z0, z1) - minZ - margin) * cellScale);
+                    maxCellX = Mth.floor((Math.max(x0, x1) - minX + margin) * cellScale);
+                    maxCellZ = Mth.floor((Math.max(z0, z1) - minZ + margin) * cellScale);
+                    if (maxCellX < 0 || maxCellZ < 0 || minCellX >= CELLS || minCellZ >= CELLS)
+                    {
+                        continue; // Entirely outside the partition
+                    }
+                    minCellX = Math.max(minCellX, 0);
+                    minCellZ = Math.max(minCellZ, 0);
+                    maxCellX = Math.min(maxCellX, CELLS - 1);
+                    maxCellZ = Math.min(maxCellZ, CELLS - 1);
+                }
+
+                ranges.add((fractalIndex << 16) | i);
+                ranges.add(minCellX | (maxCellX << 8) | (minCellZ << 16) | (maxCellZ << 24));
+                for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+                {
+                    for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+                    {
+                        counts[cellX + CELLS * cellZ]++;
+                    }
+                }
+            }
+        }
+
+        cellStarts = new int[CELLS * CELLS + 1];
+        for (int cell = 0; cell < CELLS * CELLS; cell++)
+        {
+            cellStarts[cell + 1] = cellStarts[cell] + counts[cell];
+        }
+
+        entries = new int[cellStarts[CELLS * CELLS]];
+        final int[] fill = new int[CELLS * CELLS];
+        for (int i = 0; i < ranges.size(); i += 2)
+        {
+            final int entry = ranges.getInt(i), range = ranges.getInt(i + 1);
+            final int minCellX = range & 0xff, maxCellX = (range >> 8) & 0xff, minCellZ = (range >> 16) & 0xff, maxCellZ = (range >>> 24);
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+            {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+                {
+                    final int cell = cellX + CELLS * cellZ;
+                    entries[cellStarts[cell] + fill[cell]++] = entry;
+                }
+            }
+        }
+    }
+
+    public List<MidpointFractal> getFractals()
+    {
+        return fractals;
+    }
+
+    /**
+     * @return {@code true} if the point (x, z) is within {@code distance} of any fractal in this partition.
+     */
+    public boolean intersect(float x, float z, float distance)
+    {
+        return intersectWithFlow(x, z, distance) != Flow.NONE;
+    }
+
+    /**
+     * @return The flow of the first fractal which comes within {@code distance} of the point (x, z), or {@link Flow#NONE} if there are none.
+     */
+    public Flow intersectWithFlow(float x, float z, float distance)
+    {
+        final int cellX = Mth.floor((x - minX) * cellScale), cellZ = Mth.floor((z - minZ) * cellScale);
+        if (distance > maxDistance || cellX < 0 || cellZ < 0 || cellX >= CELLS || cellZ >= CELLS)
+        {
+            return intersectWithFlowSlow(x, z, distance);
+        }
+
+        final float distSq = distance * distance;
+        final int cell = cellX + CELLS * cellZ;
+        int skipFractal = -1;
+        for (int i = cellStarts[cell], end = cellStarts[cell + 1]; i < end; i++)
+        {
+            final int entry = entries[i];
+            final int fractalIndex = entry >>> 16, segment = entry & 0xffff;
+            if (fractalIndex == skipFractal)
+            {
+                continue;
+            }
+
+            final MidpointFractal fractal = fractals.get(fractalIndex);
+            if (!fractal.maybeIntersect(x, z, distance))
+            {
+                skipFractal = fractalIndex;
+                continue;
+            }
+
+            final float[] segments = fractal.segments;
+            if (RiverHelpers.distancePointToLineSq(segments[segment], segments[segment + 1], segments[segment + 2], segments[segment + 3], x, z) < distSq)
+            {
+                // This is the first intersecting segment of this fractal, so it determines the flow
+                final Flow flow = fractal.getFlow(segment);
+                if (flow != Flow.NONE)
+                {
+                    return flow;
+                }
+                skipFractal = fractalIndex;
+            }
+        }
+        return Flow.NONE;
+    }
+
+    private Flow intersectWithFlowSlow(float x, float z, float distance)
+    {
+        for (MidpointFractal fractal : fractals)
+        {
+            if (fractal.maybeIntersect(x, z, distance))
+            {
+                final Flow flow = fractal.intersectWithFlow(x, z, distance);
+                if (flow != Flow.NONE)
+                {
+                    return flow;
+                }
+            }
+        }
+        return Flow.NONE;
+    }
+}
@@ -19,11 +19,13 @@ import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.dries007.tfc.world.FastConcurrentCache;
 import net.dries007.tfc.world.layer.Plate;
 import net.dries007.tfc.world.layer.framework.TypedArea;
 import net.dries007.tfc.world.layer.framework.TypedAreaFactory;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 public abstract class Watershed
@@ -165,6 +167,19 @@ public abstract class Watershed
             this.rivers = context.build();
         }
 
+        /**
+         * Restores a previously generated watershed. The interior is only used while generating rivers, so it is not restored.
+         * @see WatershedStorage
+         */
+        public Rivers(Plate plate, LongSet sources, List<RiverFractal> rivers)
+        {
+            super(plate);
+
+            this.interior = LongSets.EMPTY_SET;
+            this.sources = sources;
+            this.rivers = rivers;
+        }
+
         @Override
         public List<RiverFractal> getRivers()
         {
@@ -209,7 +224,7 @@ public abstract class Watershed
 
         private final ThreadLocal<TypedArea<Plate>> plates;
         private final FastConcurrentCache<Watershed> watershedCache;
-        private final FastConcurrentCache<List<MidpointFractal>> partitionCache;
+        private final FastConcurrentCache<RiverPartition> partitionCache;
 
         private final long seed;
         private final float sourceChance;
@@ -217,11 +232,13 @@ public abstract class Watershed
         private final int depth;
         private final float feather;
 
+        @Nullable private volatile WatershedStorage storage;
+
         public Context(TypedAreaFactory<Plate> plates, long seed, float sourceChance, float length, int depth, float feather)
         {
             this.plates = ThreadLocal.withInitial(plates);
-            this.watershedCache = new FastConcurrentCache<>(1 << WATERSHED_CACHE_BITS);
-            this.partitionCache = new FastConcurrentCache<>(1 << PARTITION_CACHE_BITS);
+            this.watershedCache = new FastConcurrentCache<>(1 << WATERSHED_CACHE_BITS, true);
+            this.partitionCache = new FastConcurrentCache<>(1 << PARTITION_CACHE_BITS, true);
             this.seed = seed;
             this.sourceChance = sourceChance;
             this.length = length;
@@ -229,16 +246,75 @@ public abstract class Watershed
             this.feather = feather;
         }
 
+        /**
+         * @return A hash of all parameters which affect the generated watersheds, excluding the seed.
+         */
+        public long settingsHash()
+        {
+            long hash = Float.floatToIntBits(sourceChance);
+            hash = 31 * hash + Float.floatToIntBits(length);
+            hash = 31 * hash + depth;
+            hash = 31 * hash + Float.floatToIntBits(feather);
+            return hash;
+        }
+
+        public long seed()
+        {
+            return seed;
+        }
+
+        /**
+         * Sets (or clears) a persistent storage, which is queried for watersheds before generating them, and saved to after.
+         */
+        public void setStorage(@Nullable WatershedStorage storage)
+        {
+            this.storage = storage;
+        }
+
+        @Nullable
+        public WatershedStorage getStorage()
+        {
+            return storage;
+        }
+
+        /**
+         * @return All fractals which may intersect the partition containing the quart position (x, z).
+         * @see #getPartition(int, int)
+         */
+        public List<MidpointFractal> getFractalsByPartition(int x, int z)
+        {
+            return getPartition(x, z).getFractals();
+        }
+
+        /**
+         * @return The flow of the river at the quart position (x, z), or {@link Flow#NONE} if there is no river.
+         */
+        public Flow getRiverFlow(int x, int z)
+        {
+            final float scale = 1f / (1 << ZOOM_BITS);
+            return getPartition(x, z).intersectWithFlow(x * scale, z * scale, RIVER_WIDTH);
+        }
+
+        /**
+         * @return {@code true} if there is a river at the quart position (x, z).
+         */
+        public boolean isRiver(int x, int z)
+        {
+            final float scale = 1f / (1 << ZOOM_BITS);
+            return getPartition(x, z).intersect(x * scale, z * scale, RIVER_WIDTH);
+        }
+
         /**
          * Input coordinates are biome quart positions.
          * Partition coordinates are quart positions shifted by {@link #PARTITION_BITS}.
          * Watershed coordinates are quart positions shifted by {@link #ZOOM_BITS}. (Based on the total amount of zoom layers used between plate layers and the final biome area.)
          * In order to compute the partition, we query the four adjacent watersheds, which may overlap the partition area.
+         * The resulting partition is indexed, so point queries only need to check nearby segments, and is immutable so it may be shared between threads.
          */
-        public List<MidpointFractal> getFractalsByPartition(int x, int z)
+        public RiverPartition getPartition(int x, int z)
         {
             final int px = x >> PARTITION_BITS, pz = z >> PARTITION_BITS;
-            List<MidpointFractal> partition = partitionCache.getIfPresent(px, pz);
+            RiverPartition partition = partitionCache.getIfPresent(px, pz);
             if (partition == null)
             {
                 // Locate the four closest adjacent watersheds.
@@ -259,7 +335,7 @@ public abstract class Watershed
                 final float x1 = partitionToWatershedScale * partitionCenterX, z1 = partitionToWatershedScale * partitionCenterZ;
                 final float radius = partitionToWatershedScale * (PARTITION_RADIUS + 2 * RIVER_WIDTH);
 
-                partition = new ArrayList<>(32);
+                final List<MidpointFractal> fractals = new ArrayList<>(32);
                 for (Watershed shed : nearbySheds)
                 {
                     for (RiverFractal river : shed.getRivers())
@@ -268,13 +344,14 @@ public abstract class Watershed
                         {
                             if (fractal.maybeIntersect(x1, z1, radius))
                             {
-                                partition.add(fractal);
+                                fractals.add(fractal);
                             }
                         }
                     }
                 }
 
-                // Enter the resulting partition in the cache
+                // Index, and enter the resulting partition in the cache
+                partition = new RiverPartition(fractals, px * partitionToWatershedScale, pz * partitionToWatershedScale, partitionToWatershedScale, RIVER_WIDTH);
                 partitionCache.set(px, pz, partition);
             }
             return partition;
@@ -290,7 +367,23 @@ public abstract class Watershed
             Watershed shed = watershedCache.getIfPresent(x, z);
             if (shed == null)
             {
-                shed = Watershed.create(plates.get(), x, z, seed, sourceChance, length, depth, feather);
+                final TypedArea<Plate> area = plates.get();
+                final Plate plate = area.get(x, z);
+                final WatershedStorage storage = this.storage;
+                if (storage != null && !plate.oceanic())
+                {
+                    // Watersheds are keyed by their plate, which is cheap to compute compared to generating the watershed. Oceanic plates are always empty, so not worth storing.
+                    shed = storage.load(plate);
+                    if (shed == null)
+                    {
+                        shed = Watershed.create(area, x, z, seed, sourceChance, length, depth, feather);
+                        storage.save(shed);
+                    }
+                }
+                else
+                {
+                    shed = Watershed.create(area, x, z, seed, sourceChance, length, depth, feather);
+                }
                 watershedCache.set(x, z, shed);
             }
             return shed;
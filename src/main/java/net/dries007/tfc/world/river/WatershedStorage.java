@@ -0,0 +1,396 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.river;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import com.mojang.logging.LogUtils;
+import net.dries007.tfc.world.layer.Plate;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * A persistent, on disk, cache of generated {@link Watershed}s, stored under the world save.
+ * Watersheds are deterministic from the world seed and the plate they are generated for, but are expensive to generate (flood filling the plate, and then building river fractals). This avoids paying that cost again after every restart, or cache eviction.
+ * <p>
+ * Watersheds are grouped into region files by their plate position. Each file has a header which is validated against the format version, the world seed, and a hash of the generator settings, and an index of entries. Files are read into memory whole, and individual watersheds are only decoded on demand. The file itself is not held open, so it can be replaced when the region is next written.
+ * Newly generated watersheds are held in memory until {@link #flush()}, at which point each modified region is rewritten. Any errors reading or writing are logged and ignored, as this is only ever a cache.
+ */
+public final class WatershedStorage
+{
+    /**
+     * Must be incremented whenever the generation of watersheds, or the format here, changes.
+     */
+    private static final int VERSION = 2;
+    private static final int MAGIC = 0x54464357; // TFCW
+    private static final int REGION_BITS = 4;
+
+    private static final byte EMPTY = 0;
+    private static final byte RIVERS = 1;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static long key(Plate plate)
+    {
+        return (Float.floatToIntBits(plate.x()) & 0xffffffffL) | ((long) Float.floatToIntBits(plate.z()) << 32);
+    }
+
+    private static long regionKey(Plate plate)
+    {
+        return RiverHelpers.pack(RiverHelpers.floor(plate.x()) >> REGION_BITS, RiverHelpers.floor(plate.z()) >> REGION_BITS);
+    }
+
+    private final Path directory;
+    private final long seed;
+    private final long settings;
+    private final Map<Long, Region> regions;
+
+    /**
+     * @param directory The directory to store region files in.
+     * @param seed      The world seed.
+     * @param settings  A hash of all generator settings which affect the generated watersheds.
+     */
+    public WatershedStorage(Path directory, long seed, long settings)
+    {
+        this.directory = directory;
+        this.seed = seed;
+        this.settings = settings;
+        this.regions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return The watershed for the given plate, if present, otherwise {@code null}
+     */
+    @Nullable
+    public Watershed load(Plate plate)
+    {
+        return region(plate).load(plate);
+    }
+
+    public void save(Watershed watershed)
+    {
+        region(watershed.getPlate()).save(watershed);
+    }
+
+    /**
+     * Writes all modified regions to disk.
+     */
+    public void flush()
+    {
+        for (Region region : regions.values())
+        {
+            region.flush();
+        }
+    }
+
+    private Region region(Plate plate)
+    {
+        return regions.computeIfAbsent(regionKey(plate), Region::new);
+    }
+
+    private static void encode(Watershed watershed, ByteBuffer buffer)
+    {
+        if (watershed instanceof Watershed.Rivers rivers)
+        {
+            buffer.put(RIVERS);
+            encodeSet(rivers.sources, buffer);
+            buffer.putInt(rivers.getRivers().size());
+            for (RiverFractal river : rivers.getRivers())
+            {
+                final List<RiverFractal.Edge> edges = river.getEdges();
+                final List<MidpointFractal> fractals = river.getFractals();
+                buffer.putInt(edges.size());
+                for (int i = 0; i < edges.size(); i++)
+                {
+                    encodeVertex(edges.get(i).source(), buffer);
+                    encodeVertex(edges.get(i).drain(), buffer);
+
+                    final float[] segments = fractals.get(i).segments;
+                    buffer.putInt(segments.length);
+                    for (float value : segments)
+                    {
+                        buffer.putFloat(value);
+                    }
+                }
+            }
+        }
+        else
+        {
+            buffer.put(EMPTY);
+        }
+    }
+
+    private static Watershed decode(Plate plate, ByteBuffer buffer)
+    {
+        if (buffer.get() == EMPTY)
+        {
+            return new Watershed.Empty(plate);
+        }
+
+        final LongSet sources = decodeSet(buffer);
+        final int riverCount = buffer.getInt();
+        final List<RiverFractal> rivers = new ArrayList<>(riverCount);
+        for (int i = 0; i < riverCount; i++)
+        {
+            final int edgeCount = buffer.getInt();
+            final List<RiverFractal.Edge> edges = new ArrayList<>(edgeCount);
+            final List<MidpointFractal> fractals = new ArrayList<>(edgeCount);
+            for (int j = 0; j < edgeCount; j++)
+            {
+                edges.add(new RiverFractal.Edge(decodeVertex(buffer), decodeVertex(buffer)));
+
+                final float[] segments = new float[buffer.getInt()];
+                for (int k = 0; k < segments.length; k++)
+                {
+                    segments[k] = buffer.getFloat();
+                }
+                fractals.add(new MidpointFractal(segments));
+            }
+            rivers.add(new RiverFractal(edges, fractals));
+        }
+        return new Watershed.Rivers(plate, sources, rivers);
+    }
+
+    private static int encodedSize(Watershed watershed)
+    {
+        int size = 1;
+        if (watershed instanceof Watershed.Rivers rivers)
+        {
+            size += 4 + 8 * rivers.sources.size() + 4;
+            for (RiverFractal river : rivers.getRivers())
+            {
+                size += 4;
+                for (MidpointFractal fractal : river.getFractals())
+                {
+                    size += 2 * 20 + 4 + 4 * fractal.segments.length;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static void encodeSet(LongSet set, ByteBuffer buffer)
+    {
+        buffer.putInt(set.size());
+        set.longStream().sorted().forEach(buffer::putLong);
+    }
+
+    private static LongSet decodeSet(ByteBuffer buffer)
+    {
+        final int size = buffer.getInt();
+        final LongSet set = new LongOpenHashSet(size);
+        for (int i = 0; i < size; i++)
+        {
+            set.add(buffer.getLong());
+        }
+        return set;
+    }
+
+    private static void encodeVertex(RiverFractal.Vertex vertex, ByteBuffer buffer)
+    {
+        buffer.putFloat(vertex.x());
+        buffer.putFloat(vertex.y());
+        buffer.putFloat(vertex.angle());
+        buffer.putFloat(vertex.length());
+        buffer.putInt(vertex.distance());
+    }
+
+    private static RiverFractal.Vertex decodeVertex(ByteBuffer buffer)
+    {
+        return new RiverFractal.Vertex(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getInt());
+    }
+
+    /**
+     * A single region file. All access is synchronized on the region.
+     * <p>
+     * File format:
+     * <ul>
+     *     <li>Header: magic (int), version (int), seed (long), settings (long), entry count (int)</li>
+     *     <li>Index: for each entry, plate key (long), offset (int), length (int)</li>
+     *     <li>Data: each encoded watershed</li>
+     * </ul>
+     */
+    private final class Region
+    {
+        private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+        private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+
+        private final Path path;
+        private final Long2ObjectMap<ByteBuffer> stored; // Entries in the file on disk, as slices of a heap buffer holding the whole file
+        private final Long2ObjectMap<Watershed> pending; // Entries generated, but not yet written to disk
+
+        Region(long key)
+        {
+            this.path = directory.resolve("r." + RiverHelpers.unpackX(key) + "." + RiverHelpers.unpackZ(key) + ".bin");
+            this.stored = new Long2ObjectOpenHashMap<>();
+            this.pending = new Long2ObjectOpenHashMap<>();
+            read();
+        }
+
+        @Nullable
+        synchronized Watershed load(Plate plate)
+        {
+            final long key = key(plate);
+            final Watershed watershed = pending.get(key);
+            if (watershed != null)
+            {
+                return watershed;
+            }
+
+            final ByteBuffer data = stored.get(key);
+            if (data != null)
+            {
+                try
+                {
+                    return decode(plate, data.duplicate());
+                }
+                catch (RuntimeException e)
+                {
+                    LOGGER.warn("Corrupt watershed entry in {}, it will be regenerated: {}", path, e.toString());
+                    stored.remove(key);
+                }
+            }
+            return null;
+        }
+
+        synchronized void save(Watershed watershed)
+        {
+            final long key = key(watershed.getPlate());
+            if (!stored.containsKey(key))
+            {
+                pending.put(key, watershed);
+            }
+        }
+
+        synchronized void flush()
+        {
+            if (pending.isEmpty())
+            {
+                return;
+            }
+
+            // Encode all new entries, and collect all existing entries
+            final Long2ObjectMap<ByteBuffer> entries = new Long2ObjectOpenHashMap<>(stored);
+            for (Long2ObjectMap.Entry<Watershed> entry : pending.long2ObjectEntrySet())
+            {
+                final ByteBuffer data = ByteBuffer.allocate(encodedSize(entry.getValue()));
+                encode(entry.getValue(), data);
+                entries.put(entry.getLongKey(), data.flip());
+            }
+
+            int offset = HEADER_SIZE + INDEX_ENTRY_SIZE * entries.size();
+            final ByteBuffer header = ByteBuffer.allocate(offset);
+            header.putInt(MAGIC).putInt(VERSION).putLong(seed).putLong(settings).putInt(entries.size());
+            for (Long2ObjectMap.Entry<ByteBuffer> entry : entries.long2ObjectEntrySet())
+            {
+                final int length = entry.getValue().remaining();
+                header.putLong(entry.getLongKey()).putInt(offset).putInt(length);
+                offset += length;
+            }
+            header.flip();
+
+            // Write to a temporary file, then replace the existing one
+            final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try
+            {
+                Files.createDirectories(directory);
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+                {
+                    writeFully(channel, header);
+                    for (ByteBuffer data : entries.values())
+                    {
+                        writeFully(channel, data.duplicate());
+                    }
+                }
+                try
+                {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (AtomicMoveNotSupportedException e)
+                {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                pending.clear();
+                stored.clear();
+                read();
+            }
+            catch (IOException e)
+            {
+                // Pending entries are kept, and will be retried on the next flush
+                LOGGER.warn("Unable to write watershed cache {}: {}", path, e.toString());
+            }
+        }
+
+        private void read()
+        {
+            if (!Files.isRegularFile(path))
+            {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+            {
+                // Read into the heap, rather than mapping the file, as a mapped file cannot be replaced on some platforms (Windows) until the mapping is released
+                final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+                readFully(channel, buffer);
+                buffer.flip();
+                if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != seed || buffer.getLong() != settings)
+                {
+                    LOGGER.debug("Ignoring outdated watershed cache {}", path);
+                    return;
+                }
+
+                final int count = buffer.getInt();
+                for (int i = 0; i < count; i++)
+                {
+                    final long key = buffer.getLong();
+                    final int offset = buffer.getInt(), length = buffer.getInt();
+                    stored.put(key, buffer.slice(offset, length));
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.warn("Unable to read watershed cache {}, it will be regenerated: {}", path, e.toString());
+                stored.clear();
+            }
+        }
+
+        private void readFully(FileChannel channel, ByteBuffer buffer) throws IOException
+        {
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer) < 0)
+                {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+        }
+
+        private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+    }
+}
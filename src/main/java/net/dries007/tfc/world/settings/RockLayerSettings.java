@@ -19,6 +19,8 @@ import net.minecraft.world.level.block.Block;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.Codecs;
 
@@ -77,6 +79,7 @@ public class RockLayerSettings
 
     private final Map<ResourceLocation, RockSettings> rocksById;
     private final List<RockSettings> rocks;
+    private final Object2IntMap<RockSettings> rockIndices;
     private final Map<Block, RockSettings> rockBlocks;
     private final Map<Block, Block> rawToHardened;
     private final int rockLayerScale; // In [0, 32]
@@ -89,7 +92,13 @@ public class RockLayerSettings
             .sorted(Map.Entry.comparingByKey())
             .map(Map.Entry::getValue)
             .toList();
+        this.rockIndices = new Object2IntOpenHashMap<>();
         this.rockBlocks = new IdentityHashMap<>();
+        this.rockIndices.defaultReturnValue(-1);
+        for (int i = 0; i < rocks.size(); i++)
+        {
+            rockIndices.put(rocks.get(i), i);
+        }
         this.rockLayerScale = rockLayerScale;
 
         for (RockSettings rock : this.rocksById.values())
@@ -137,6 +146,14 @@ public class RockLayerSettings
         return rocks;
     }
 
+    /**
+     * @return The index of {@code rock} in {@link #getRocks()}, or -1 if not present.
+     */
+    public int getIndex(RockSettings rock)
+    {
+        return rockIndices.getInt(rock);
+    }
+
     public List<RockSettings> getRocksForLayer(RockLayer layer)
     {
         return rocks
@@ -11,12 +11,15 @@ import java.util.Set;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.levelgen.RandomSource;
 
@@ -27,6 +30,10 @@ import net.dries007.tfc.world.settings.RockLayerSettings;
 import net.dries007.tfc.world.settings.RockSettings;
 import net.dries007.tfc.world.surface.builder.SurfaceBuilder;
 
+/**
+ * The context for building the surface of a single chunk, one column at a time.
+ * Blocks are read and written directly through the chunk's sections, and the world generation heightmaps are updated once each column is complete, rather than with every block set.
+ */
 public class SurfaceBuilderContext
 {
     private final LevelAccessor level;
@@ -42,6 +49,11 @@ public class SurfaceBuilderContext
     private final Set<BlockState> defaultFluidStates;
 
     private final BlockPos.MutableBlockPos cursor;
+    private final Heightmap oceanFloor, worldSurface;
+
+    @Nullable private LevelChunkSection section; // The section containing the last accessed y level
+    private int sectionY;
+    private int columnMinY, columnMaxY; // The range of y levels set in the current column
 
     @Nullable private Biome biome;
     private double biomeWeight;
@@ -65,6 +77,9 @@ public class SurfaceBuilderContext
         this.defaultFluidStates = new ObjectOpenHashSet<>();
 
         this.cursor = new BlockPos.MutableBlockPos();
+        this.oceanFloor = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.OCEAN_FLOOR_WG);
+        this.worldSurface = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.WORLD_SURFACE_WG);
+        this.sectionY = Integer.MIN_VALUE;
 
         for (RockSettings rock : rockLayerSettings.getRocks())
         {
@@ -87,7 +102,10 @@ public class SurfaceBuilderContext
         final int actualMinSurfaceHeight = Math.max(minY, Math.min(y, oceanFloor) - 20); // Iterate down to at least the ocean floor and below
 
         cursor.set(x, 0, z);
+        columnMinY = Integer.MAX_VALUE;
+        columnMaxY = Integer.MIN_VALUE;
         builder.buildSurface(this, y, actualMinSurfaceHeight);
+        updateHeightmaps();
     }
 
     public Biome biome()
@@ -143,7 +161,9 @@ public class SurfaceBuilderContext
 
     public BlockState getBlockState(int y)
     {
-        return chunk.getBlockState(cursor.setY(y));
+        cursor.setY(y);
+        final LevelChunkSection section = getSection(y);
+        return section == null ? Blocks.VOID_AIR.defaultBlockState() : section.getBlockState(cursor.getX() & 15, y & 15, cursor.getZ() & 15);
     }
 
     public void setBlockState(int y, SurfaceState state)
@@ -152,9 +172,24 @@ public class SurfaceBuilderContext
         state.setState(this);
     }
 
+    /**
+     * Deprecation for the use of {@link BlockState#getLightEmission()}
+     */
+    @SuppressWarnings("deprecation")
     public void setBlockState(int y, BlockState state)
     {
-        chunk.setBlockState(cursor.setY(y), state, false);
+        cursor.setY(y);
+        final LevelChunkSection section = getSection(y);
+        if (section != null)
+        {
+            section.setBlockState(cursor.getX() & 15, y & 15, cursor.getZ() & 15, state, false);
+            if (state.getLightEmission() != 0 && chunk instanceof ProtoChunk protoChunk)
+            {
+                protoChunk.addLight(cursor);
+            }
+            columnMinY = Math.min(columnMinY, y);
+            columnMaxY = Math.max(columnMaxY, y);
+        }
     }
 
     public LevelAccessor level()
@@ -207,6 +242,39 @@ public class SurfaceBuilderContext
         return calculateAltitudeSlopeSurfaceDepth(y, slope, maxDepth, falloff, minimumReturnValue);
     }
 
+    @Nullable
+    private LevelChunkSection getSection(int y)
+    {
+        final int sectionY = SectionPos.blockToSectionCoord(y);
+        if (sectionY != this.sectionY)
+        {
+            final int sectionIndex = chunk.getSectionIndexFromSectionY(sectionY);
+            if (sectionIndex < 0 || sectionIndex >= chunk.getSectionsCount())
+            {
+                return null; // Outside the build height
+            }
+            this.section = chunk.getSection(sectionIndex);
+            this.sectionY = sectionY;
+        }
+        return section;
+    }
+
+    /**
+     * Updates heightmaps for the blocks set in the current column, by replaying the final states from the top down.
+     * Blocks more than one below a heightmap cannot change it, so only those at or above the lowest heightmap are visited.
+     */
+    private void updateHeightmaps()
+    {
+        final int localX = cursor.getX() & 15, localZ = cursor.getZ() & 15;
+        final int minY = Math.max(columnMinY, Math.min(oceanFloor.getFirstAvailable(localX, localZ), worldSurface.getFirstAvailable(localX, localZ)) - 1);
+        for (int y = columnMaxY; y >= minY; y--)
+        {
+            final BlockState state = getBlockState(y);
+            oceanFloor.update(localX, y, localZ, state);
+            worldSurface.update(localX, y, localZ, state);
+        }
+    }
+
     /**
      * Calculates a surface depth value, taking into account altitude and slope
      *
@@ -44,4 +44,9 @@ public @interface MyTest
      * @return A number of ticks that this test must exist and run before success conditions are checked, effectively a setup time.
      */
     int setupTicks() default 0;
+
+    /**
+     * @return The batch this test runs in. Batches run one after another, so a test which changes global state, such as the calendar, should run in its own batch.
+     */
+    String batch() default "default";
 }
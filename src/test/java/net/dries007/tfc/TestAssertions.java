@@ -103,7 +103,7 @@ public final class TestAssertions
 
                     final Consumer<GameTestHelper> testAction = annotation.unitTest() ? asUnitTest(className, methodName, action) : action;
 
-                    functions.add(new TestFunction("default", className + '.' + methodName, Helpers.identifier(annotation.structure()).toString(), annotation.timeoutTicks(), annotation.setupTicks(), true, testAction));
+                    functions.add(new TestFunction(annotation.batch(), className + '.' + methodName, Helpers.identifier(annotation.structure()).toString(), annotation.timeoutTicks(), annotation.setupTicks(), true, testAction));
                 }
             }
             functions.sort(Comparator.comparing(TestFunction::getTestName));
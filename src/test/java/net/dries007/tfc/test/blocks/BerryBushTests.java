@@ -0,0 +1,147 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.blocks;
+
+import java.util.Collection;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestAssertException;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import net.dries007.tfc.MyTest;
+import net.dries007.tfc.TestAssertions;
+import net.dries007.tfc.common.blockentities.BerryBushBlockEntity;
+import net.dries007.tfc.common.blocks.TFCBlocks;
+import net.dries007.tfc.common.blocks.plant.fruit.FruitBlocks;
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.tracker.LifecycleScheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@GameTestHolder
+public class BerryBushTests
+{
+    private static final BlockPos BUSH = new BlockPos(2, 2, 2);
+
+    @GameTestGenerator
+    public Collection<TestFunction> generator()
+    {
+        return TestAssertions.testGenerator();
+    }
+
+    @MyTest(structure = "5x5_platform")
+    public void testBushCatchesUpWhenChunkLoadsAfterElapsedInterval(GameTestHelper helper)
+    {
+        final LifecycleScheduler scheduler = placeBush(helper, 2 * ICalendar.TICKS_IN_DAY);
+
+        // Reload the scheduler, as if it was saved two days ago
+        final CompoundTag nbt = scheduler.serializeNBT();
+        nbt.putLong("savedTick", Calendars.SERVER.getTicks() - 2 * ICalendar.TICKS_IN_DAY);
+        scheduler.deserializeNBT(nbt);
+        scheduler.onChunkLoad(helper.getLevel());
+
+        assertTrue(hasScheduledTick(helper), "Expected a catch-up to be scheduled");
+        succeedWhenCaughtUp(helper, scheduler);
+    }
+
+    @MyTest(structure = "5x5_platform", unitTest = true)
+    public void testBushDoesNotCatchUpWhenChunkLoadsWithinInterval(GameTestHelper helper)
+    {
+        final LifecycleScheduler scheduler = placeBush(helper, 2 * ICalendar.TICKS_IN_DAY);
+
+        final CompoundTag nbt = scheduler.serializeNBT();
+        nbt.putLong("savedTick", Calendars.SERVER.getTicks() - ICalendar.TICKS_IN_HOUR);
+        scheduler.deserializeNBT(nbt);
+        scheduler.onChunkLoad(helper.getLevel());
+
+        assertFalse(hasScheduledTick(helper), "Expected no catch-up to be scheduled");
+        assertEquals(2 * ICalendar.TICKS_IN_DAY, scheduler.getTicksSinceUpdate(helper.absolutePos(BUSH)));
+    }
+
+    @MyTest(structure = "5x5_platform")
+    public void testLegacyBushIsMigratedAndCatchesUp(GameTestHelper helper)
+    {
+        final LifecycleScheduler scheduler = placeBush(helper, 0);
+        final BlockPos pos = helper.absolutePos(BUSH);
+        final long tick = Calendars.SERVER.getTicks();
+
+        // A bush saved by a ticking block entity, in a chunk saved before the scheduler existed
+        scheduler.untrack(pos);
+        final CompoundTag nbt = new CompoundTag();
+        nbt.putLong("lastUpdateTick", tick - 3 * ICalendar.TICKS_IN_DAY);
+        nbt.putLong("lastTick", tick - 3 * ICalendar.TICKS_IN_DAY);
+
+        final BerryBushBlockEntity bush = helper.getBlockEntity(BUSH);
+        bush.load(nbt);
+        bush.onLoad();
+
+        assertEquals(3 * ICalendar.TICKS_IN_DAY, scheduler.getTicksSinceUpdate(pos), "Expected the last update tick to be migrated");
+        assertTrue(hasScheduledTick(helper), "Expected a catch-up to be scheduled");
+        succeedWhenCaughtUp(helper, scheduler);
+    }
+
+    @MyTest(structure = "5x5_platform", batch = "calendar")
+    public void testBushCatchesUpAfterCalendarJump(GameTestHelper helper)
+    {
+        final LifecycleScheduler scheduler = placeBush(helper, 0);
+        final long calendarTick = Calendars.SERVER.getCalendarTicks();
+
+        Calendars.SERVER.setTimeFromCalendarTime(calendarTick + 2 * ICalendar.TICKS_IN_DAY);
+        assertTrue(scheduler.getTicksSinceUpdate(helper.absolutePos(BUSH)) >= 2 * ICalendar.TICKS_IN_DAY);
+
+        helper.succeedWhen(() -> {
+            assertCaughtUp(helper, scheduler);
+            Calendars.SERVER.setTimeFromCalendarTime(calendarTick);
+        });
+    }
+
+    /**
+     * Places a bush, which was last updated {@code ticksSinceUpdate} ago.
+     */
+    private LifecycleScheduler placeBush(GameTestHelper helper, long ticksSinceUpdate)
+    {
+        helper.setBlock(BUSH.below(), Blocks.DIRT);
+        helper.setBlock(BUSH, bush());
+
+        final BlockPos pos = helper.absolutePos(BUSH);
+        final LifecycleScheduler scheduler = LifecycleScheduler.get(helper.getLevel(), pos).resolve().orElseThrow();
+        scheduler.setLastUpdateTick(pos, Calendars.SERVER.getTicks() - ticksSinceUpdate);
+        return scheduler;
+    }
+
+    private boolean hasScheduledTick(GameTestHelper helper)
+    {
+        final ServerLevel level = helper.getLevel();
+        return level.getBlockTicks().hasScheduledTick(helper.absolutePos(BUSH), bush());
+    }
+
+    private void succeedWhenCaughtUp(GameTestHelper helper, LifecycleScheduler scheduler)
+    {
+        helper.succeedWhen(() -> assertCaughtUp(helper, scheduler));
+    }
+
+    private void assertCaughtUp(GameTestHelper helper, LifecycleScheduler scheduler)
+    {
+        final long ticks = scheduler.getTicksSinceUpdate(helper.absolutePos(BUSH));
+        if (ticks >= ICalendar.TICKS_IN_DAY)
+        {
+            throw new GameTestAssertException("Expected bush to catch up, but it was last updated " + ticks + " ticks ago");
+        }
+    }
+
+    private Block bush()
+    {
+        return TFCBlocks.STATIONARY_BUSHES.get(FruitBlocks.StationaryBush.SNOWBERRY).get();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.capabilities;
+
+import java.util.List;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.resources.ResourceLocation;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.capabilities.ItemCapabilityTable;
+import net.dries007.tfc.common.capabilities.heat.HeatDefinition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemCapabilityTableTests extends TestHelper
+{
+    @Test
+    public void testNoDefinitions()
+    {
+        final ItemCapabilityTable.Resolved<HeatDefinition> resolved = ItemCapabilityTable.resolve(List.of());
+
+        assertFalse(resolved.isPossible());
+        assertFalse(resolved.stackDependent());
+        assertNull(resolved.definition());
+    }
+
+    @Test
+    public void testSimpleDefinitionIsResolved()
+    {
+        final HeatDefinition simple = definition("simple", "{\"item\": \"minecraft:iron_ingot\"}");
+        final HeatDefinition complex = definition("complex", "{\"type\": \"tfc:not_rotten\", \"ingredient\": {\"item\": \"minecraft:iron_ingot\"}}");
+        final ItemCapabilityTable.Resolved<HeatDefinition> resolved = ItemCapabilityTable.resolve(List.of(simple, complex));
+
+        assertTrue(simple.isStackIndependent());
+        assertTrue(resolved.isPossible());
+        assertFalse(resolved.stackDependent());
+        assertSame(simple, resolved.definition());
+    }
+
+    @Test
+    public void testStackDependentDefinitionIsNotResolved()
+    {
+        final HeatDefinition simple = definition("simple", "{\"item\": \"minecraft:iron_ingot\"}");
+        final HeatDefinition complex = definition("complex", "{\"type\": \"tfc:not_rotten\", \"ingredient\": {\"item\": \"minecraft:iron_ingot\"}}");
+        final ItemCapabilityTable.Resolved<HeatDefinition> resolved = ItemCapabilityTable.resolve(List.of(complex, simple));
+
+        assertFalse(complex.isStackIndependent());
+        assertTrue(resolved.isPossible());
+        assertTrue(resolved.stackDependent());
+        assertNull(resolved.definition());
+    }
+
+    private HeatDefinition definition(String name, String ingredient)
+    {
+        final JsonObject json = JsonParser.parseString("{\"heat_capacity\": 1.0, \"ingredient\": " + ingredient + "}").getAsJsonObject();
+        return new HeatDefinition(new ResourceLocation("tfc", name), json);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import net.minecraft.util.Mth;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.blockentities.FarmlandBlockEntity;
+import net.dries007.tfc.common.blockentities.IFarmland;
+import net.dries007.tfc.common.blocks.crop.CropHelpers;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.climate.ClimateRange;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static net.dries007.tfc.common.blocks.crop.CropHelpers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CropGrowthTests extends TestHelper
+{
+    @Test
+    public void testIntervalBoundariesMatchSteppedIntervals()
+    {
+        final Random random = new Random(seed());
+        for (int trial = 0; trial < 1000; trial++)
+        {
+            final long firstTick = random.nextInt(1_000_000), thisTick = firstTick + 1 + random.nextInt(random.nextBoolean() ? 200_000 : 5_000_000);
+            final long[] ticks = CropHelpers.intervalBoundaries(firstTick, thisTick);
+
+            int i = 0;
+            long tick = firstTick + UPDATE_INTERVAL, lastTick = firstTick;
+            for (; tick < thisTick; tick += UPDATE_INTERVAL)
+            {
+                assertEquals(lastTick, ticks[i]);
+                assertEquals(tick, ticks[i + 1]);
+                lastTick = tick;
+                i++;
+            }
+            assertEquals(lastTick, ticks[i]);
+            assertEquals(thisTick, ticks[i + 1]);
+            assertEquals(i + 2, ticks.length);
+        }
+    }
+
+    @Test
+    public void testSimulatedGrowthIsEquivalentToSteppedGrowth()
+    {
+        final Random random = new Random(seed());
+        int died = 0;
+        for (int trial = 0; trial < 2000; trial++)
+        {
+            final Scenario scenario = Scenario.create(random);
+            final long seed = random.nextLong();
+
+            final TestFarmland expectedFarmland = scenario.farmland(), actualFarmland = scenario.farmland();
+            final Growth expected = scenario.growth(), actual = scenario.growth();
+
+            final boolean expectedSurvived = steppedGrowth(scenario, new Random(seed), expectedFarmland, expected);
+
+            final long[] ticks = CropHelpers.intervalBoundaries(scenario.firstTick, scenario.thisTick);
+            final float[] temperatures = new float[ticks.length];
+            for (int i = 0; i < ticks.length; i++)
+            {
+                temperatures[i] = scenario.temperature(ticks[i]);
+            }
+            final boolean actualSurvived = CropHelpers.simulateGrowth(scenario.conditions, scenario::checkTemperature, ticks, temperatures, new Random(seed), actualFarmland, scenario.nutrient, actual);
+
+            assertEquals(expectedSurvived, actualSurvived, "Survival, trial " + trial);
+            assertEquals(expected.growth, actual.growth, "Growth, trial " + trial);
+            assertEquals(expected.yield, actual.yield, "Yield, trial " + trial);
+            assertEquals(expected.expiry, actual.expiry, "Expiry, trial " + trial);
+            if (expectedFarmland != null)
+            {
+                assertArrayEquals(expectedFarmland.nutrients, actualFarmland.nutrients, "Nutrients, trial " + trial);
+            }
+            if (!expectedSurvived)
+            {
+                died++;
+            }
+        }
+        assertTrue(died > 0 && died < 2000, "Expected a mix of crops that survive and die, got " + died + " / 2000 dead");
+    }
+
+    /**
+     * The original implementation of {@link CropHelpers#growthTick}, which calls {@link #steppedGrowthStep} for each interval, and samples the temperature at both ends of every interval.
+     */
+    private boolean steppedGrowth(Scenario scenario, Random random, @Nullable TestFarmland farmland, Growth crop)
+    {
+        final long firstTick = scenario.firstTick, thisTick = scenario.thisTick;
+        long tick = firstTick + UPDATE_INTERVAL, lastTick = firstTick;
+        for (; tick < thisTick; tick += UPDATE_INTERVAL)
+        {
+            if (!steppedGrowthStep(scenario, random, lastTick, tick, farmland, crop))
+            {
+                return false;
+            }
+            lastTick = tick;
+        }
+        return lastTick >= thisTick || steppedGrowthStep(scenario, random, lastTick, thisTick, farmland, crop);
+    }
+
+    private boolean steppedGrowthStep(Scenario scenario, Random random, long fromTick, long toTick, @Nullable TestFarmland farmland, Growth crop)
+    {
+        final float startTemperature = scenario.temperature(fromTick);
+        final float endTemperature = scenario.temperature(toTick);
+        final long tickDelta = toTick - fromTick;
+
+        final boolean growing = scenario.checkClimate(startTemperature, endTemperature, false);
+        final boolean healthy = growing || scenario.checkClimate(startTemperature, endTemperature, true);
+
+        float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
+        if (farmland != null)
+        {
+            nutrientsAvailable = farmland.getNutrient(scenario.nutrient);
+            nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(scenario.nutrient, nutrientsRequired);
+        }
+
+        final float growthModifier = scenario.conditions.growthModifier();
+        final float expiryModifier = scenario.conditions.expiryModifier();
+        final float localExpiryLimit = EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+
+        final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * NUTRIENT_GROWTH_FACTOR;
+        final float initialGrowth = crop.growth;
+        float remainingGrowthDelta = totalGrowthDelta;
+        float growth = initialGrowth, expiry = crop.expiry, actualYield = crop.yield;
+
+        expiry *= localExpiryLimit / EXPIRY_LIMIT;
+
+        final float growthLimit = scenario.conditions.growthLimit();
+        if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
+        {
+            final float delta = Math.min(remainingGrowthDelta, growthLimit - growth);
+
+            growth += delta;
+            remainingGrowthDelta -= delta;
+        }
+        if (remainingGrowthDelta > 0)
+        {
+            final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - expiry);
+
+            expiry += delta;
+        }
+
+        final float growthDelta = growth - initialGrowth;
+        final float nutrientSatisfaction;
+        if (growthDelta <= 0 || nutrientsRequired <= 0)
+        {
+            nutrientSatisfaction = 1;
+        }
+        else
+        {
+            nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
+        }
+
+        actualYield += growthDelta * Helpers.lerp(nutrientSatisfaction, YIELD_MIN, YIELD_LIMIT);
+
+        // The original would die here, and leave the state in the crop untouched. Record the final state anyway, in order to compare it.
+        crop.growth = growth;
+        crop.yield = actualYield;
+        crop.expiry = expiry;
+        if (expiry >= localExpiryLimit || !healthy)
+        {
+            return false;
+        }
+
+        expiry *= EXPIRY_LIMIT / localExpiryLimit;
+
+        crop.expiry = expiry;
+        return true;
+    }
+
+    /**
+     * A crop growing over a random period, with a seasonal temperature, and a random climate range that may or may not suit it.
+     */
+    record Scenario(long firstTick, long thisTick, float averageTemperature, float minTemperature, float maxTemperature, float wiggle, CropHelpers.GrowthConditions conditions, FarmlandBlockEntity.NutrientType nutrient, @Nullable float[] initialNutrients, Growth initialGrowth)
+    {
+        static Scenario create(Random random)
+        {
+            final long firstTick = random.nextInt(1_000_000);
+            final long thisTick = firstTick + 1 + random.nextInt(random.nextBoolean() ? 5 * (int) UPDATE_INTERVAL : 100 * (int) UPDATE_INTERVAL);
+            final float minTemperature = random.nextFloat() * 20 - 10;
+            final CropHelpers.GrowthConditions conditions = new CropHelpers.GrowthConditions(random.nextInt(5) != 0, random.nextInt(10) != 0, random.nextBoolean() ? 1f : 0.5f, 0.5f + random.nextFloat() * 1.5f, 0.5f + random.nextFloat() * 1.5f);
+            final float[] nutrients = {random.nextFloat(), random.nextFloat(), random.nextFloat()};
+            return new Scenario(firstTick, thisTick, random.nextFloat() * 30 - 5, minTemperature, minTemperature + 10 + random.nextFloat() * 30, random.nextFloat() * 5, conditions, FarmlandBlockEntity.NutrientType.VALUES[random.nextInt(3)], random.nextInt(4) == 0 ? null : nutrients, new Growth(random.nextFloat() * 0.5f, random.nextFloat() * 0.2f, random.nextFloat() * 0.5f));
+        }
+
+        float temperature(long tick)
+        {
+            final float season = Mth.sin((float) (2 * Math.PI * tick / (12 * 8 * ICalendar.TICKS_IN_DAY)));
+            final float daily = Mth.sin((float) (2 * Math.PI * tick / ICalendar.TICKS_IN_DAY));
+            return averageTemperature + 15 * season + 2 * daily;
+        }
+
+        ClimateRange.Result checkTemperature(float temperature, boolean allowWiggle)
+        {
+            final float wiggle = allowWiggle ? this.wiggle : 0;
+            return temperature < minTemperature - wiggle ? ClimateRange.Result.LOW : temperature > maxTemperature + wiggle ? ClimateRange.Result.HIGH : ClimateRange.Result.VALID;
+        }
+
+        boolean checkClimate(float firstTemperature, float secondTemperature, boolean allowWiggle)
+        {
+            final boolean hydrationValid = allowWiggle ? conditions.hydrationValidWithWiggle() : conditions.hydrationValid();
+            return hydrationValid && checkTemperature(firstTemperature, allowWiggle) == ClimateRange.Result.VALID && checkTemperature(secondTemperature, allowWiggle) == ClimateRange.Result.VALID;
+        }
+
+        @Nullable
+        TestFarmland farmland()
+        {
+            return initialNutrients == null ? null : new TestFarmland(initialNutrients.clone());
+        }
+
+        Growth growth()
+        {
+            return new Growth(initialGrowth.growth, initialGrowth.yield, initialGrowth.expiry);
+        }
+    }
+
+    record TestFarmland(float[] nutrients) implements IFarmland
+    {
+        @Override
+        public float getNutrient(FarmlandBlockEntity.NutrientType type)
+        {
+            return nutrients[type.ordinal()];
+        }
+
+        @Override
+        public void setNutrient(FarmlandBlockEntity.NutrientType type, float value)
+        {
+            nutrients[type.ordinal()] = Mth.clamp(value, 0, 1);
+        }
+    }
+}
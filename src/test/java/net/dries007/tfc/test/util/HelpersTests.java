@@ -9,6 +9,8 @@ package net.dries007.tfc.test.util;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraftforge.items.IItemHandlerModifiable;
@@ -16,6 +18,7 @@ import net.minecraftforge.items.ItemStackHandler;
 
 import net.dries007.tfc.TestHelper;
 import net.dries007.tfc.util.Helpers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import static net.dries007.tfc.TestAssertions.*;
@@ -37,4 +40,47 @@ public class HelpersTests extends TestHelper
             assertEquals(inventory.getStackInSlot(i), iterated.get(i));
         }
     }
+
+    @Test
+    public void testHalfFloatRoundTrip()
+    {
+        for (int i = 0; i <= 0xffff; i++)
+        {
+            final short half = (short) i;
+            final boolean isNaN = (i & 0x7c00) == 0x7c00 && (i & 0x3ff) != 0;
+            if (!isNaN)
+            {
+                Assertions.assertEquals(half, Helpers.floatToHalf(Helpers.halfToFloat(half)), "Half 0x" + Integer.toHexString(i));
+            }
+        }
+    }
+
+    @Test
+    public void testHalfFloatPrecision()
+    {
+        for (float value = 0; value < 2000; value += 0.37f)
+        {
+            // Half floats have 11 bits of precision, so relative error from rounding is at most 2^-11
+            final float actual = Helpers.halfToFloat(Helpers.floatToHalf(value));
+            Assertions.assertEquals(value, actual, value * 0x1p-11f, "Value " + value);
+        }
+        Assertions.assertEquals(Float.POSITIVE_INFINITY, Helpers.halfToFloat(Helpers.floatToHalf(1e6f)));
+        Assertions.assertEquals(0f, Helpers.halfToFloat(Helpers.floatToHalf(1e-10f)));
+    }
+
+    @Test
+    public void testZigZagVarLong()
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        final long[] values = {0, 1, -1, -2, 123456789L, -123456789L, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        for (long value : values)
+        {
+            Helpers.writeZigZagVarLong(buffer, value);
+        }
+        for (long value : values)
+        {
+            Assertions.assertEquals(value, Helpers.readZigZagVarLong(buffer));
+        }
+        Assertions.assertEquals(0, buffer.readableBytes());
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import com.mojang.logging.LogUtils;
+import net.dries007.tfc.MyTest;
+import net.dries007.tfc.TestAssertions;
+import net.dries007.tfc.common.blocks.TFCBlocks;
+import net.dries007.tfc.common.blocks.rock.Rock;
+import net.dries007.tfc.common.blocks.wood.Wood;
+import net.dries007.tfc.util.Support;
+import org.slf4j.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@GameTestHolder
+public class SupportTests
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // A 9x5x9 collapse check, the largest done by CollapseRecipe, centered on a mine 16 blocks wide
+    private static final BlockPos CENTER = new BlockPos(8, 4, 8);
+    private static final BlockPos FROM = CENTER.offset(-4, -2, -4), TO = CENTER.offset(4, 2, 4);
+    private static final int ITERATIONS = 2000;
+
+    @GameTestGenerator
+    public Collection<TestFunction> generator()
+    {
+        return TestAssertions.testGenerator();
+    }
+
+    @MyTest(unitTest = true)
+    public void testCollapseCheckInMineWithoutSupports(GameTestHelper helper)
+    {
+        buildMine(helper, false);
+        final Set<BlockPos> unsupported = benchmark(helper, "without supports");
+        assertEquals(9 * 5 * 9, unsupported.size());
+        clearMine(helper);
+    }
+
+    @MyTest(unitTest = true)
+    public void testCollapseCheckInMineWithSupports(GameTestHelper helper)
+    {
+        buildMine(helper, true);
+        final Set<BlockPos> unsupported = benchmark(helper, "with supports");
+        assertTrue(unsupported.size() < 9 * 5 * 9, "Expected some positions to be supported");
+        assertFalse(Support.isSupported(helper.getLevel(), helper.absolutePos(CENTER.offset(0, 5, 0))), "Expected a position far above the mine to be unsupported");
+
+        // Removing a support, as done by a collapse, must be seen by the index
+        set(helper, new BlockPos(4, 4, 8), Blocks.AIR.defaultBlockState());
+        final Set<BlockPos> unsupportedAfterRemoval = benchmark(helper, "with a support removed");
+        assertTrue(unsupportedAfterRemoval.size() > unsupported.size(), "Expected positions to become unsupported");
+        clearMine(helper);
+    }
+
+    /**
+     * Times the collapse check, using the support index, and scanning for supports, and checks they agree.
+     */
+    private Set<BlockPos> benchmark(GameTestHelper helper, String name)
+    {
+        final ServerLevel level = helper.getLevel();
+        final BlockPos from = helper.absolutePos(FROM), to = helper.absolutePos(TO);
+
+        final Set<BlockPos> expected = Support.findUnsupportedPositions(level, from, to, Support.scanForSupports(level, from, to));
+        final Set<BlockPos> actual = Support.findUnsupportedPositions(level, from, to);
+        assertEquals(expected, actual);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            final List<BlockPos> supports = Support.scanForSupports(level, from, to);
+            Support.findUnsupportedPositions(level, from, to, supports);
+        }
+        final long scanNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            Support.findUnsupportedPositions(level, from, to);
+        }
+        final long indexNanos = System.nanoTime() - start;
+
+        LOGGER.info("9x5x9 collapse check {}: scan = {} us, index = {} us", name, scanNanos / (1000 * ITERATIONS), indexNanos / (1000 * ITERATIONS));
+        return actual;
+    }
+
+    /**
+     * A block of raw rock, with a two block tall tunnel along the x axis, through the center of the collapse check. Optionally with horizontal supports every eight blocks along the ceiling.
+     */
+    private void buildMine(GameTestHelper helper, boolean supports)
+    {
+        final BlockState rock = TFCBlocks.ROCK_BLOCKS.get(Rock.GRANITE).get(Rock.BlockType.RAW).get().defaultBlockState();
+        final BlockState support = TFCBlocks.WOODS.get(Wood.OAK).get(Wood.BlockType.HORIZONTAL_SUPPORT).get().defaultBlockState();
+        for (BlockPos pos : BlockPos.betweenClosed(0, 0, 0, 16, 8, 16))
+        {
+            final boolean tunnel = pos.getZ() == CENTER.getZ() && (pos.getY() == CENTER.getY() - 1 || pos.getY() == CENTER.getY() - 2);
+            set(helper, pos, tunnel ? Blocks.AIR.defaultBlockState() : rock);
+        }
+        if (supports)
+        {
+            for (int x = 4; x <= 12; x += 8)
+            {
+                set(helper, new BlockPos(x, CENTER.getY(), CENTER.getZ()), support);
+            }
+        }
+    }
+
+    private void clearMine(GameTestHelper helper)
+    {
+        for (BlockPos pos : BlockPos.betweenClosed(0, 0, 0, 16, 8, 16))
+        {
+            set(helper, pos, Blocks.AIR.defaultBlockState());
+        }
+    }
+
+    private void set(GameTestHelper helper, BlockPos pos, BlockState state)
+    {
+        // Skip shape updates, which would remove supports that are not held up by vertical supports
+        helper.getLevel().setBlock(helper.absolutePos(pos), state, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
+    }
+}
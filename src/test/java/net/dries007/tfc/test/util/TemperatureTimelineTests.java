@@ -0,0 +1,78 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.climate.TemperatureTimeline;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemperatureTimelineTests extends TestHelper
+{
+    private static final TemperatureTimeline.Sampler SAMPLER = (x, y, z, tick) -> x * 0.001f + y * 0.1f + z * 0.01f + ICalendar.getTotalDays(tick);
+
+    @Test
+    public void testPositionsInChunkAndBandShareTemperature()
+    {
+        final TemperatureTimeline timeline = new TemperatureTimeline();
+        final AtomicInteger samples = new AtomicInteger();
+        final TemperatureTimeline.Sampler sampler = (x, y, z, tick) -> {
+            samples.incrementAndGet();
+            return SAMPLER.sample(x, y, z, tick);
+        };
+
+        final long tick = 100 * ICalendar.TICKS_IN_DAY + 1234;
+        final float expected = timeline.get(16, 64, -16, tick, 8, sampler);
+        for (int x = 16; x < 32; x++)
+        {
+            for (int z = -16; z < 0; z++)
+            {
+                for (int y = 64; y < 64 + TemperatureTimeline.ELEVATION_BAND; y++)
+                {
+                    assertEquals(expected, timeline.get(x, y, z, tick + (x - 16) * 10, 8, sampler));
+                }
+            }
+        }
+        assertEquals(1, samples.get());
+
+        // Sampled at the center of the chunk and band
+        assertEquals(SAMPLER.sample(24, 68, -8, tick), expected);
+
+        // Different chunks, bands, and days are distinct
+        assertNotEquals(expected, timeline.get(32, 64, -16, tick, 8, sampler));
+        assertNotEquals(expected, timeline.get(16, 72, -16, tick, 8, sampler));
+        assertNotEquals(expected, timeline.get(16, 64, -16, tick + ICalendar.TICKS_IN_DAY, 8, sampler));
+        assertEquals(4, samples.get());
+
+        // Changing the length of a month invalidates all temperatures
+        timeline.get(16, 64, -16, tick, 9, sampler);
+        assertEquals(5, samples.get());
+        assertEquals(1, timeline.size());
+    }
+
+    @Test
+    public void testTimelineIsBounded()
+    {
+        final TemperatureTimeline timeline = new TemperatureTimeline();
+        for (int chunk = 0; chunk < 1000; chunk++)
+        {
+            for (int day = 0; day < 100; day++)
+            {
+                timeline.get(chunk * 16, 64, 0, (long) day * ICalendar.TICKS_IN_DAY, 8, SAMPLER);
+            }
+        }
+        for (int day = 0; day < 10_000; day++)
+        {
+            timeline.get(0, 64, 0, (long) day * ICalendar.TICKS_IN_DAY, 8, SAMPLER);
+        }
+        assertTrue(timeline.size() <= 256 * 2048, "Timeline has " + timeline.size() + " entries");
+    }
+}
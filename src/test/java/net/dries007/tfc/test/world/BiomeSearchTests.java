@@ -0,0 +1,124 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.minecraft.core.BlockPos;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.biome.BiomeSearch;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BiomeSearchTests extends TestHelper
+{
+    @Test
+    public void testNearestIsEquivalentToSequentialSearch()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final Random random = new Random(seed());
+            for (int trial = 0; trial < 50; trial++)
+            {
+                final BiomeSearch.Probe probe = createProbe(random.nextLong(), 1 + random.nextInt(20000));
+                final int x = random.nextInt(2000) - 1000, z = random.nextInt(2000) - 1000, radius = 1 + random.nextInt(200), step = 1 + random.nextInt(16);
+
+                final BiomeSearch.Result result = BiomeSearch.nearest(x, z, radius, step, probe, executor).join();
+                assertEquals(radialSearch(x, z, radius, step, probe), result.pos());
+                assertTrue(result.probes() > 0);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRandomIsEquivalentToSequentialSearch()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final Random random = new Random(seed());
+            for (int trial = 0; trial < 50; trial++)
+            {
+                final BiomeSearch.Probe probe = createProbe(random.nextLong(), 1 + random.nextInt(50));
+                final int x = random.nextInt(2000) - 1000, z = random.nextInt(2000) - 1000, radius = random.nextInt(200), step = 1 + random.nextInt(16);
+                final long seed = random.nextLong();
+
+                final BiomeSearch.Result result = BiomeSearch.random(x, z, radius, step, probe, new Random(seed), executor).join();
+                assertEquals(squareSearch(x, z, radius, step, probe, new Random(seed)), result.pos());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A probe which matches roughly one in {@code rarity} positions.
+     */
+    private BiomeSearch.Probe createProbe(long seed, int rarity)
+    {
+        return (x, z) -> Math.floorMod(HashCommon.murmurHash3(seed ^ BlockPos.asLong(x, 0, z)), rarity) == 0 ? new BlockPos(x, 0, z) : null;
+    }
+
+    /**
+     * The original sequential search used by the locate command.
+     */
+    @Nullable
+    private BlockPos radialSearch(int x, int z, int radius, int step, BiomeSearch.Probe function)
+    {
+        BlockPos pos;
+        for (int r = 1; r < radius; r++)
+        {
+            for (int d = 0; d < 2 * r; d++)
+            {
+                if ((pos = function.find(x + step * (d - r), z + step * -r)) != null) return pos;
+                if ((pos = function.find(x + step * r, z + step * (d - r))) != null) return pos;
+                if ((pos = function.find(x + step * -r, z + step * (d + 1 - r))) != null) return pos;
+                if ((pos = function.find(x + step * (d + 1 - r), z + step * r)) != null) return pos;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The original sequential search of {@code BiomeSource#findBiomeHorizontal}, when not finding the closest match.
+     */
+    @Nullable
+    private BlockPos squareSearch(int x, int z, int radius, int step, BiomeSearch.Probe function, Random random)
+    {
+        BlockPos result = null;
+        int count = 0;
+        for (int dz = -radius; dz <= radius; dz += step)
+        {
+            for (int dx = -radius; dx <= radius; dx += step)
+            {
+                final BlockPos pos = function.find(x + dx, z + dz);
+                if (pos != null)
+                {
+                    if (result == null || random.nextInt(count + 1) == 0)
+                    {
+                        result = pos;
+                    }
+                    count++;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Random;
+
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.BiomeWeights;
+import net.dries007.tfc.world.Sampler;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BiomeWeightSamplingTests extends TestHelper
+{
+    @Test
+    public void testBiomeWeightsBehavesLikeAMap()
+    {
+        final Random random = new Random(seed());
+        final int capacity = TFCBiomes.getExtensionCount();
+        final BiomeWeights weights = new BiomeWeights(capacity);
+        final Object2DoubleMap<BiomeExtension> map = new Object2DoubleOpenHashMap<>();
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            final int id = random.nextInt(capacity);
+            final BiomeExtension key = TFCBiomes.getExtension(id);
+            final double value = random.nextDouble();
+            switch (random.nextInt(5))
+            {
+                case 0 -> {
+                    weights.set(id, value);
+                    map.put(key, value);
+                }
+                case 1 -> {
+                    weights.remove(id);
+                    map.removeDouble(key);
+                }
+                case 2 -> {
+                    if (random.nextInt(20) == 0)
+                    {
+                        weights.clear();
+                        map.clear();
+                    }
+                }
+                default -> {
+                    weights.add(id, value);
+                    map.mergeDouble(key, value, Double::sum);
+                }
+            }
+            assertEquals(map, weights.toMap());
+        }
+    }
+
+    @Test
+    public void testSampleBiomesIsEquivalentToMapImplementation()
+    {
+        final Random random = new Random(seed());
+        for (int seedIndex = 0; seedIndex < 20; seedIndex++)
+        {
+            final Sampler<BiomeExtension> sampler = createSampler(random.nextLong(), 1 + random.nextInt(6));
+            for (int chunkIndex = 0; chunkIndex < 50; chunkIndex++)
+            {
+                final ChunkPos pos = new ChunkPos(random.nextInt(20000) - 10000, random.nextInt(20000) - 10000);
+                final Object2DoubleMap<BiomeExtension>[] expected = sampleBiomesWithMaps(pos, sampler);
+                final Object2DoubleMap<BiomeExtension>[] actual = TFCChunkGenerator.sampleBiomes(pos, sampler);
+
+                assertEquals(expected.length, actual.length);
+                for (int i = 0; i < expected.length; i++)
+                {
+                    assertEquals(expected[i].keySet(), actual[i].keySet(), "Different biomes at index " + i + " in chunk " + pos);
+                    for (Object2DoubleMap.Entry<BiomeExtension> entry : expected[i].object2DoubleEntrySet())
+                    {
+                        // Per-biome sums are accumulated in the same order, and are exact. Per-group sums depend on the (identity hash based) iteration order of the map implementation, which is not itself stable between runs, so may differ in the last bit.
+                        assertEquals(entry.getDoubleValue(), actual[i].getDouble(entry.getKey()), 1e-12, "Different weight for " + entry.getKey().key().location() + " at index " + i + " in chunk " + pos);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A sampler which picks a random biome per block of {@code 1 << scale} quarts, so sampled positions include a mix of both large uniform areas and fine transitions.
+     */
+    private Sampler<BiomeExtension> createSampler(long seed, int scale)
+    {
+        final int count = TFCBiomes.getExtensionCount();
+        return (x, z) -> TFCBiomes.getExtension((int) Math.floorMod(HashCommon.mix(seed ^ ChunkPos.asLong(x >> (2 + scale), z >> (2 + scale))), count));
+    }
+
+    /**
+     * The reference implementation of {@link TFCChunkGenerator#sampleBiomes(ChunkPos, Sampler)}, using hash maps.
+     */
+    private Object2DoubleMap<BiomeExtension>[] sampleBiomesWithMaps(ChunkPos pos, Sampler<BiomeExtension> biomeSampler)
+    {
+        @SuppressWarnings("unchecked") final Object2DoubleMap<BiomeExtension>[] chunkBiomeWeightArray = new Object2DoubleMap[4 * 4];
+        final int chunkX = pos.getMinBlockX(), chunkZ = pos.getMinBlockZ();
+        for (int x = 0; x < 4; x++)
+        {
+            for (int z = 0; z < 4; z++)
+            {
+                final Object2DoubleMap<BiomeExtension> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
+                chunkBiomeWeightArray[x | (z << 2)] = chunkBiomeWeight;
+                sampleBiomesAtPositionWithKernel(chunkBiomeWeight, biomeSampler, TFCChunkGenerator.KERNEL_9x9.values(), 4, 4, chunkX, chunkZ, x - 1, z - 1);
+            }
+        }
+
+        @SuppressWarnings("unchecked") final Object2DoubleMap<BiomeExtension>[] quartBiomeWeightArray = new Object2DoubleMap[7 * 7];
+        final Object2DoubleMap<BiomeExtension> chunkBiomeWeight = new Object2DoubleOpenHashMap<>(), wideQuartBiomeWeight = new Object2DoubleOpenHashMap<>();
+        for (int x = 0; x < 7; x++)
+        {
+            for (int z = 0; z < 7; z++)
+            {
+                wideQuartBiomeWeight.clear();
+                chunkBiomeWeight.clear();
+
+                sampleBiomesAtPositionWithKernel(wideQuartBiomeWeight, biomeSampler, TFCChunkGenerator.KERNEL_9x9.values(), 4, 2, chunkX, chunkZ, x - 1, z - 1);
+
+                final int x1 = chunkX + ((x - 1) << 2);
+                final int z1 = chunkZ + ((z - 1) << 2);
+                final double lerpX = (x1 - ((x1 >> 4) << 4)) * (1 / 16d);
+                final double lerpZ = (z1 - ((z1 >> 4) << 4)) * (1 / 16d);
+                final int index16X = ((x1 - chunkX) >> 4) + 1;
+                final int index16Z = ((z1 - chunkZ) >> 4) + 1;
+
+                TFCChunkGenerator.sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
+                TFCChunkGenerator.sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
+                TFCChunkGenerator.sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
+                TFCChunkGenerator.sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
+
+                TFCChunkGenerator.composeSampleWeights(wideQuartBiomeWeight, chunkBiomeWeight, biome -> biome.getGroup().ordinal(), BiomeExtension.Group.SIZE);
+
+                final Object2DoubleMap<BiomeExtension> quartBiomeWeight = new Object2DoubleOpenHashMap<>();
+                sampleBiomesAtPositionWithKernel(quartBiomeWeight, biomeSampler, TFCChunkGenerator.KERNEL_5x5.values(), 2, 2, chunkX, chunkZ, x - 1, z - 1);
+
+                TFCChunkGenerator.composeSampleWeights(quartBiomeWeight, wideQuartBiomeWeight, biome -> biome.isRiver() ? 1 : 0, 2);
+
+                quartBiomeWeightArray[x + 7 * z] = quartBiomeWeight;
+            }
+        }
+        return quartBiomeWeightArray;
+    }
+
+    private void sampleBiomesAtPositionWithKernel(Object2DoubleMap<BiomeExtension> weights, Sampler<BiomeExtension> biomeSampler, double[] kernel, int kernelRadius, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
+    {
+        final int kernelWidth = 2 * kernelRadius + 1;
+        for (int dx = -kernelRadius; dx <= kernelRadius; dx++)
+        {
+            for (int dz = -kernelRadius; dz <= kernelRadius; dz++)
+            {
+                final double weight = kernel[(dx + kernelRadius) + (dz + kernelRadius) * kernelWidth];
+                final int blockX = chunkX + ((xOffsetInKernelBits + dx) << kernelBits);
+                final int blockZ = chunkZ + ((zOffsetInKernelBits + dz) << kernelBits);
+                weights.mergeDouble(biomeSampler.get(blockX, blockZ), weight, Double::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.*;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.levelgen.feature.ConfiguredFeature;
+import net.minecraft.world.level.levelgen.feature.Feature;
+import net.minecraft.world.level.levelgen.feature.configurations.NoneFeatureConfiguration;
+import net.minecraft.world.level.levelgen.placement.CountPlacement;
+import net.minecraft.world.level.levelgen.placement.PlacedFeature;
+
+import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecorationPlanTests extends TestHelper
+{
+    @Test
+    public void testDecorationPlanIsEquivalentToPerChunkOrder()
+    {
+        final Random random = new Random(seed());
+        final int steps = 11;
+
+        // A global ordering of features at each step, with each feature having a random index
+        final List<List<PlacedFeature>> featuresPerStep = new ArrayList<>();
+        final List<BiomeSource.StepFeatureData> orderedFeatures = new ArrayList<>();
+        for (int step = 0; step < steps; step++)
+        {
+            final List<PlacedFeature> features = new ArrayList<>();
+            for (int i = random.nextInt(12); i > 0; i--)
+            {
+                // Placed features are records, so use a distinct count to make each one unique
+                features.add(new PlacedFeature(Holder.direct(new ConfiguredFeature<>(Feature.NO_OP, NoneFeatureConfiguration.INSTANCE)), List.of(CountPlacement.of(step * 100 + i))));
+            }
+            Collections.shuffle(features, random);
+            final List<PlacedFeature> ordered = List.copyOf(features);
+            featuresPerStep.add(ordered);
+            orderedFeatures.add(new BiomeSource.StepFeatureData(ordered, ordered::indexOf));
+        }
+
+        for (int trial = 0; trial < 200; trial++)
+        {
+            // Each biome has a random subset of features, possibly with fewer steps
+            final List<List<HolderSet<PlacedFeature>>> biomes = new ArrayList<>();
+            for (int biome = 1 + random.nextInt(9); biome > 0; biome--)
+            {
+                final List<HolderSet<PlacedFeature>> biomeFeatures = new ArrayList<>();
+                for (int step = 0, biomeSteps = random.nextInt(steps + 1); step < biomeSteps; step++)
+                {
+                    final List<PlacedFeature> features = new ArrayList<>(featuresPerStep.get(step));
+                    features.removeIf(feature -> random.nextBoolean());
+                    biomeFeatures.add(HolderSet.direct(Holder::direct, features));
+                }
+                biomes.add(biomeFeatures);
+            }
+
+            final int[][] expected = createReferencePlan(biomes, orderedFeatures);
+            final int[][] actual = TFCChunkGenerator.createDecorationPlan(biomes, orderedFeatures);
+            assertEquals(expected.length, actual.length);
+            for (int step = 0; step < expected.length; step++)
+            {
+                assertArrayEquals(expected[step], actual[step], "Different features at step " + step);
+            }
+
+            // The order of adjacent biomes must not change the plan, as it is cached by the set of biomes
+            Collections.shuffle(biomes, random);
+            final int[][] shuffled = TFCChunkGenerator.createDecorationPlan(biomes, orderedFeatures);
+            for (int step = 0; step < expected.length; step++)
+            {
+                assertArrayEquals(expected[step], shuffled[step], "Different features at step " + step + " after reordering biomes");
+            }
+        }
+    }
+
+    /**
+     * The original, per-chunk, computation of features to place at each step.
+     */
+    private int[][] createReferencePlan(List<List<HolderSet<PlacedFeature>>> biomes, List<BiomeSource.StepFeatureData> orderedFeatures)
+    {
+        final int[][] plan = new int[orderedFeatures.size()][];
+        for (int decorationIndex = 0; decorationIndex < orderedFeatures.size(); decorationIndex++)
+        {
+            final IntSet featureIndices = new IntArraySet();
+            for (List<HolderSet<PlacedFeature>> featuresPerBiome : biomes)
+            {
+                if (decorationIndex < featuresPerBiome.size())
+                {
+                    final BiomeSource.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
+                    for (Holder<PlacedFeature> holder : featuresPerBiome.get(decorationIndex))
+                    {
+                        featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
+                    }
+                }
+            }
+            final int[] sortedIndices = featureIndices.toIntArray();
+            Arrays.sort(sortedIndices);
+            plan[decorationIndex] = sortedIndices;
+        }
+        return plan;
+    }
+}
@@ -15,6 +15,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.layer.framework.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -103,6 +105,61 @@ public class LayerFrameworkTests extends TestHelper
         }
     }
 
+    @Test
+    public void testBiomeLayerRegionIsEquivalentToPointwise()
+    {
+        assertRegionIsEquivalentToPointwise(TFCLayers.createOverworldBiomeLayer(seed(), IArtist.nope(), IArtist.nope()));
+    }
+
+    @Test
+    public void testForestLayerRegionIsEquivalentToPointwise()
+    {
+        assertRegionIsEquivalentToPointwise(TFCLayers.createOverworldForestLayer(seed(), IArtist.nope()));
+    }
+
+    @Test
+    public void testRockLayerRegionIsEquivalentToPointwise()
+    {
+        assertRegionIsEquivalentToPointwise(TFCLayers.createOverworldRockLayer(seed(), 7, 20));
+    }
+
+    @Test
+    public void testTiledConcurrentAreaIsEquivalentToPointwise()
+    {
+        final AreaFactory factory = TFCLayers.createOverworldRockLayer(seed(), 7, 20);
+        final ConcurrentArea<Integer> pointArea = new ConcurrentArea<>(factory, i -> i);
+        final ConcurrentArea<Integer> tiledArea = new ConcurrentArea<>(factory, i -> i, 4);
+        final Random random = new Random(seed());
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            final int x = random.nextInt(20_000) - 10_000, z = random.nextInt(20_000) - 10_000;
+            assertEquals(pointArea.get(x, z), tiledArea.get(x, z), "Tiled area differs at x=" + x + ", z=" + z);
+        }
+    }
+
+    private void assertRegionIsEquivalentToPointwise(AreaFactory factory)
+    {
+        final Random random = new Random(seed());
+        final Area pointArea = factory.get(), regionArea = factory.get();
+        for (int i = 0; i < 50; i++)
+        {
+            final int minX = random.nextInt(200_000) - 100_000, minZ = random.nextInt(200_000) - 100_000;
+            final int width = 1 + random.nextInt(40), height = 1 + random.nextInt(40);
+            final int[] values = new int[width * height];
+
+            regionArea.fill(values, minX, minZ, width, height);
+            for (int dx = 0; dx < width; dx++)
+            {
+                for (int dz = 0; dz < height; dz++)
+                {
+                    final int x = minX + dx, z = minZ + dz;
+                    assertEquals(pointArea.get(x, z), values[dx + width * dz], () -> "Region differs from point-wise at x=" + x + ", z=" + z);
+                }
+            }
+        }
+    }
+
     private void resolve(ExecutorService service, List<Future<Integer>> futures)
     {
         Integer result = null;
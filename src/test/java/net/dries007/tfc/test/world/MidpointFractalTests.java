@@ -16,11 +16,14 @@ import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
 import net.dries007.tfc.Artist;
 import net.dries007.tfc.TestHelper;
 import net.dries007.tfc.visualizations.RiverVisualizations;
+import net.dries007.tfc.world.river.Flow;
 import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.river.RiverPartition;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MidpointFractalTests extends TestHelper
@@ -43,6 +46,43 @@ public class MidpointFractalTests extends TestHelper
         }
     }
 
+    @RepeatedTest(10)
+    public void testRiverPartitionIsEquivalentToLinearScan()
+    {
+        final long seed = seed();
+        final RandomSource random = new XoroshiroRandomSource(seed);
+        final float size = 0.25f, distance = 0.013f;
+        final float minX = random.nextInt(40000) * size - 5000, minZ = random.nextInt(40000) * size - 5000;
+
+        // Fractals with endpoints scattered around, and through, the partition
+        final List<MidpointFractal> fractals = IntStream.range(0, 1 + random.nextInt(20))
+            .mapToObj(i -> new MidpointFractal(random, random.nextInt(10), minX + 2 * random.nextFloat() - 0.75f, minZ + 2 * random.nextFloat() - 0.75f, minX + 2 * random.nextFloat() - 0.75f, minZ + 2 * random.nextFloat() - 0.75f))
+            .toList();
+        final RiverPartition partition = new RiverPartition(fractals, minX, minZ, size, distance);
+
+        // Query at every quart position (1 / 128 scale) within the partition
+        for (int i = 0; i < 32; i++)
+        {
+            for (int j = 0; j < 32; j++)
+            {
+                final float x = minX + i / 128f, z = minZ + j / 128f;
+                Flow expected = Flow.NONE;
+                for (MidpointFractal fractal : fractals)
+                {
+                    if (fractal.maybeIntersect(x, z, distance))
+                    {
+                        expected = fractal.intersectWithFlow(x, z, distance);
+                        if (expected != Flow.NONE)
+                        {
+                            break;
+                        }
+                    }
+                }
+                assertEquals(expected, partition.intersectWithFlow(x, z, distance), "Seed: " + seed + " point: " + x + ", " + z);
+            }
+        }
+    }
+
     @Test
     @Disabled
     public void drawMidpointExample()
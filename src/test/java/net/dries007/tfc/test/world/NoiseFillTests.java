@@ -0,0 +1,150 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.BiomeNoiseSampler;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+import net.dries007.tfc.world.noise.Noise2D;
+import net.dries007.tfc.world.noise.Noise3D;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+import net.dries007.tfc.world.noise.OpenSimplex3D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseFillTests extends TestHelper
+{
+    @Test
+    public void testCombinatorFillIsEquivalentToNoise()
+    {
+        final long seed = seed();
+        final Noise2D noise = new OpenSimplex2D(seed).octaves(4).spread(0.1f)
+            .add(new OpenSimplex2D(seed + 1).spread(0.3f).ridged().terraces(5))
+            .lazyProduct(new OpenSimplex2D(seed + 2).spread(0.05f).abs().clamped(0.2f, 0.8f))
+            .warped(new OpenSimplex2D(seed + 3).octaves(2).spread(0.02f).scaled(-10, 10))
+            .octaves(3)
+            .scaled(60, 120)
+            .map(x -> x * x);
+        final Noise3D noise3D = new OpenSimplex3D(seed).octaves(2).spread(0.1f).octaves(2).spread(0.5f).scaled(0, 3);
+
+        final Random random = new Random(seed);
+        final int n = 1000;
+        final float[] xs = new float[n], ys = new float[n], zs = new float[n], out = new float[n];
+        for (int i = 0; i < n; i++)
+        {
+            xs[i] = random.nextInt(20000) - 10000;
+            ys[i] = random.nextInt(384) - 64;
+            zs[i] = random.nextInt(20000) - 10000;
+        }
+
+        noise.fill(xs, zs, out, n);
+        for (int i = 0; i < n; i++)
+        {
+            assertEquals(noise.noise(xs[i], zs[i]), out[i], "Different noise at " + xs[i] + ", " + zs[i]);
+        }
+
+        noise3D.fill(xs, ys, zs, out, n);
+        for (int i = 0; i < n; i++)
+        {
+            assertEquals(noise3D.noise(xs[i], ys[i], zs[i]), out[i], "Different noise at " + xs[i] + ", " + ys[i] + ", " + zs[i]);
+        }
+    }
+
+    @Test
+    public void testRepeatedFillsWithSharedNoiseAreEquivalentToNoise()
+    {
+        // A noise used twice within one chain, and batches of different sizes, must not interfere via reused scratch arrays
+        final long seed = seed();
+        final Noise2D shared = new OpenSimplex2D(seed).octaves(3).spread(0.05f);
+        final Noise2D noise = shared.add(shared.spread(2f)).lazyProduct(shared.abs()).octaves(2);
+
+        final Random random = new Random(seed);
+        for (int n : new int[] {256, 17, 1000, 256, 0, 3})
+        {
+            final float[] xs = new float[n], zs = new float[n], out = new float[n];
+            for (int i = 0; i < n; i++)
+            {
+                xs[i] = random.nextInt(20000) - 10000;
+                zs[i] = random.nextInt(20000) - 10000;
+            }
+
+            noise.fill(xs, zs, out, n);
+            for (int i = 0; i < n; i++)
+            {
+                assertEquals(noise.noise(xs[i], zs[i]), out[i], "Different noise at " + xs[i] + ", " + zs[i] + " in a batch of " + n);
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedBiomeNoiseIsEquivalentToPerColumn()
+    {
+        final long seed = seed();
+        final Random random = new Random(seed);
+        for (BiomeExtension biome : TFCBiomes.getExtensions())
+        {
+            final int chunkMinX = (random.nextInt(2000) - 1000) << 4, chunkMinZ = (random.nextInt(2000) - 1000) << 4;
+            final BiomeNoiseSampler expected = biome.createNoiseSampler(seed);
+            final BiomeNoiseSampler actual = biome.createNoiseSampler(seed);
+
+            // Prepare half the columns in the chunk, so we test both the prepared and fallback paths
+            final int[] columns = IntStream.range(0, 16 * 16).filter(i -> (i & 1) == 0).toArray();
+            actual.prepareColumns(chunkMinX, chunkMinZ, columns, columns.length);
+
+            for (int x = chunkMinX - 4; x < chunkMinX + 20; x++)
+            {
+                for (int z = chunkMinZ - 4; z < chunkMinZ + 20; z++)
+                {
+                    expected.setColumn(x, z);
+                    actual.setColumn(x, z);
+
+                    final double height = expected.height();
+                    final String message = "Different noise for " + biome.key().location() + " at " + x + ", " + z;
+                    assertEquals(height, actual.height(), message);
+                    for (int y = (int) height - 40; y < height; y += 3)
+                    {
+                        assertEquals(expected.noise(y), actual.noise(y), message + ", " + y);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReusedBiomeNoiseIsEquivalentToPerColumn()
+    {
+        final long seed = seed();
+        final Random random = new Random(seed);
+        final int[] columns = IntStream.range(0, 16 * 16).toArray();
+        for (BiomeExtension biome : TFCBiomes.getExtensions())
+        {
+            final BiomeNoiseSampler expected = biome.createNoiseSampler(seed);
+            final BiomeNoiseSampler actual = biome.createNoiseSampler(seed);
+
+            // Samplers are reused between chunks, on the same thread, so values from a previous chunk must not be used for the next
+            for (int chunk = 0; chunk < 4; chunk++)
+            {
+                final int chunkMinX = (random.nextInt(4) - 2) << 4, chunkMinZ = (random.nextInt(4) - 2) << 4;
+                actual.prepareColumns(chunkMinX, chunkMinZ, columns, columns.length);
+                for (int x = -48; x < 48; x += 5)
+                {
+                    for (int z = -48; z < 48; z += 5)
+                    {
+                        expected.setColumn(x, z);
+                        actual.setColumn(x, z);
+                        assertEquals(expected.height(), actual.height(), "Different noise for " + biome.key().location() + " at " + x + ", " + z);
+                    }
+                }
+            }
+        }
+    }
+}
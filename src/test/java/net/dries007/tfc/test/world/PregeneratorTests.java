@@ -0,0 +1,43 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.Pregenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PregeneratorTests extends TestHelper
+{
+    @Test
+    public void testSpiralCoversSquareOnce()
+    {
+        final ChunkPos center = new ChunkPos(13, -7);
+        for (int radius = 0; radius <= 20; radius++)
+        {
+            final Set<ChunkPos> seen = new HashSet<>();
+            int previousDistance = 0;
+            for (int i = 0; i < Pregenerator.count(radius); i++)
+            {
+                final ChunkPos pos = Pregenerator.spiral(center, i);
+                final int distance = center.getChessboardDistance(pos);
+
+                assertTrue(seen.add(pos), "Duplicate " + pos + " at index " + i);
+                assertTrue(distance <= radius, "Index " + i + " at " + pos + " is outside radius " + radius);
+                assertTrue(distance >= previousDistance, "Index " + i + " at " + pos + " is closer than the previous chunk");
+                previousDistance = distance;
+            }
+            assertEquals(Pregenerator.count(radius), seen.size());
+        }
+    }
+}
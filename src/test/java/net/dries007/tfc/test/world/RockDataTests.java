@@ -0,0 +1,163 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.chunkdata.CompactArrays;
+import net.dries007.tfc.world.chunkdata.RockData;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RockDataTests extends TestHelper
+{
+    @Test
+    public void testDeltasRoundTrip()
+    {
+        final Random random = new Random(seed());
+        final int[] values = new int[256];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = random.nextInt(3) == 0 ? random.nextInt() : random.nextInt(400) - 64;
+        }
+        assertArrayEquals(values, CompactArrays.readDeltas(CompactArrays.writeDeltas(values)));
+        assertArrayEquals(new int[0], CompactArrays.readDeltas(CompactArrays.writeDeltas(new int[0])));
+        assertThrows(IllegalArgumentException.class, () -> CompactArrays.readDeltas(new byte[] {5, 0, 0}));
+    }
+
+    @Test
+    public void testRockDataRoundTrip() throws IOException
+    {
+        final RockLayerSettings settings = createSettings();
+        final Columns columns = Columns.create(new Random(seed()), settings);
+        final RockData expected = columns.create();
+        final CompoundTag tag = expected.write(settings);
+
+        assertRockDataEquals(expected, new RockData(tag, settings));
+
+        // The compact format should be much smaller than the legacy one
+        final int compactSize = sizeOf(tag), legacySize = sizeOf(columns.writeLegacy(settings));
+        assertTrue(compactSize * 4 < legacySize, "Expected compact size " + compactSize + " to be much smaller than legacy size " + legacySize);
+    }
+
+    @Test
+    public void testLegacyRockDataIsUpgraded()
+    {
+        final RockLayerSettings settings = createSettings();
+        final Columns columns = Columns.create(new Random(seed()), settings);
+        final RockData expected = columns.create();
+        final RockData legacy = new RockData(columns.writeLegacy(settings), settings);
+
+        assertRockDataEquals(expected, legacy);
+        assertRockDataEquals(expected, new RockData(legacy.write(settings), settings));
+    }
+
+    private void assertRockDataEquals(RockData expected, RockData actual)
+    {
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                assertEquals(expected.getBottomRock(x, z), actual.getBottomRock(x, z));
+                for (int y = -64; y < 320; y += 4)
+                {
+                    assertEquals(expected.getRock(x, y, z), actual.getRock(x, y, z), "Different rock at " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    private RockLayerSettings createSettings()
+    {
+        final Map<ResourceLocation, RockSettings> map = new HashMap<>();
+        @SuppressWarnings("deprecation") final List<Block> blocks = Registry.BLOCK.stream().toList();
+        for (int i = 0; i < 20; i++)
+        {
+            final ResourceLocation id = Helpers.identifier("rock_" + i);
+            final Block block = blocks.get(i);
+            map.put(id, new RockSettings(id, block, block, block, block, block, block, Optional.empty(), Optional.empty(), true, true, true));
+        }
+        return new RockLayerSettings(map, 1);
+    }
+
+    private int sizeOf(CompoundTag tag) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NbtIo.write(tag, new DataOutputStream(bytes));
+        return bytes.size();
+    }
+
+    /**
+     * The per-column data of a chunk, resembling generated data: a few rocks per layer, and smooth heights.
+     */
+    record Columns(RockSettings[] bottom, RockSettings[] middle, RockSettings[] top, int[] rockLayerHeight, int[] surfaceHeight)
+    {
+        static Columns create(Random random, RockLayerSettings settings)
+        {
+            final List<RockSettings> rocks = settings.getRocks();
+            final RockSettings[][] layers = new RockSettings[3][256];
+            for (RockSettings[] layer : layers)
+            {
+                final RockSettings first = rocks.get(random.nextInt(rocks.size())), second = rocks.get(random.nextInt(rocks.size()));
+                final int boundary = random.nextInt(16);
+                for (int i = 0; i < 256; i++)
+                {
+                    layer[i] = (i & 15) < boundary ? first : second;
+                }
+            }
+
+            final int[] rockLayerHeight = new int[256], surfaceHeight = new int[256];
+            final int baseHeight = 60 + random.nextInt(100);
+            for (int i = 0; i < 256; i++)
+            {
+                rockLayerHeight[i] = (i & 15) / 2 - 5;
+                surfaceHeight[i] = baseHeight + (i & 15) + (i >> 4) / 3;
+            }
+            return new Columns(layers[0], layers[1], layers[2], rockLayerHeight, surfaceHeight);
+        }
+
+        RockData create()
+        {
+            final RockData data = new RockData(bottom.clone(), middle.clone(), top.clone(), rockLayerHeight.clone());
+            data.setSurfaceHeight(surfaceHeight.clone());
+            return data;
+        }
+
+        /**
+         * Writes the original (version 0) layout.
+         */
+        CompoundTag writeLegacy(RockLayerSettings settings)
+        {
+            final CompoundTag nbt = new CompoundTag();
+            nbt.putIntArray("bottomLayer", indexes(bottom, settings));
+            nbt.putIntArray("middleLayer", indexes(middle, settings));
+            nbt.putIntArray("topLayer", indexes(top, settings));
+            nbt.putIntArray("height", rockLayerHeight);
+            nbt.putIntArray("surfaceHeight", surfaceHeight);
+            return nbt;
+        }
+
+        private static int[] indexes(RockSettings[] layer, RockLayerSettings settings)
+        {
+            return Arrays.stream(layer).mapToInt(settings.getRocks()::indexOf).toArray();
+        }
+    }
+}
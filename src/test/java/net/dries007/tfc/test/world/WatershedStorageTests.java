@@ -0,0 +1,100 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.layer.Plate;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.TypedArea;
+import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.river.RiverFractal;
+import net.dries007.tfc.world.river.Watershed;
+import net.dries007.tfc.world.river.WatershedStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WatershedStorageTests extends TestHelper
+{
+    @Test
+    public void testWatershedsAreIdenticalAfterReload(@TempDir Path directory)
+    {
+        final long seed = seed();
+        final Watershed.Context generated = createContext(seed);
+        generated.setStorage(new WatershedStorage(directory, seed, generated.settingsHash()));
+
+        final Watershed[] expected = new Watershed[100];
+        for (int i = 0; i < expected.length; i++)
+        {
+            expected[i] = generated.create(i % 10 - 5, i / 10 - 5);
+        }
+        generated.getStorage().flush();
+
+        final Watershed.Context restored = createContext(seed);
+        final WatershedStorage storage = new WatershedStorage(directory, seed, restored.settingsHash());
+        final TypedArea<Plate> plates = TFCLayers.createEarlyPlateLayers(seed).get();
+        for (int i = 0; i < expected.length; i++)
+        {
+            final Plate plate = plates.get(i % 10 - 5, i / 10 - 5);
+            final Watershed actual = storage.load(plate);
+            if (plate.oceanic())
+            {
+                assertNull(actual, "Oceanic plates should not be stored");
+                continue;
+            }
+
+            assertNotNull(actual, "Missing watershed for " + plate);
+            assertEquals(expected[i].getClass(), actual.getClass());
+            assertEquals(expected[i].getPlate(), actual.getPlate());
+            if (expected[i] instanceof Watershed.Rivers rivers)
+            {
+                assertEquals(rivers.sources, ((Watershed.Rivers) actual).sources);
+            }
+
+            final List<RiverFractal> expectedRivers = expected[i].getRivers(), actualRivers = actual.getRivers();
+            assertEquals(expectedRivers, actualRivers);
+            for (int j = 0; j < expectedRivers.size(); j++)
+            {
+                final List<MidpointFractal> expectedFractals = expectedRivers.get(j).getFractals(), actualFractals = actualRivers.get(j).getFractals();
+                assertEquals(expectedFractals.size(), actualFractals.size());
+                for (int k = 0; k < expectedFractals.size(); k++)
+                {
+                    assertArrayEquals(expectedFractals.get(k).segments, actualFractals.get(k).segments);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStorageIsIgnoredForDifferentSeed(@TempDir Path directory)
+    {
+        final long seed = seed();
+        final Watershed.Context generated = createContext(seed);
+        generated.setStorage(new WatershedStorage(directory, seed, generated.settingsHash()));
+        for (int i = 0; i < 100; i++)
+        {
+            generated.create(i % 10 - 5, i / 10 - 5);
+        }
+        generated.getStorage().flush();
+
+        final WatershedStorage storage = new WatershedStorage(directory, seed + 1, generated.settingsHash());
+        final TypedArea<Plate> plates = TFCLayers.createEarlyPlateLayers(seed).get();
+        for (int i = 0; i < 100; i++)
+        {
+            assertNull(storage.load(plates.get(i % 10 - 5, i / 10 - 5)));
+        }
+    }
+
+    private Watershed.Context createContext(long seed)
+    {
+        return new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
+    }
+}
@@ -43,6 +43,48 @@ public class ZoomLayerTests extends TestHelper
         assertSameResults(ZoomLayer.FUZZY, new TypedZoomLayer.Fuzzy<>());
     }
 
+    @Test
+    public void testNormalZoomLayerRegionIsEquivalentToPointwise()
+    {
+        assertSameRegionResults(ZoomLayer.NORMAL);
+    }
+
+    @Test
+    public void testFuzzyZoomLayerRegionIsEquivalentToPointwise()
+    {
+        assertSameRegionResults(ZoomLayer.FUZZY);
+    }
+
+    private void assertSameRegionResults(TransformLayer zoom)
+    {
+        final Random random = new Random(seed());
+        final SourceLayer source = (sourceContext, x, z) -> sourceContext.random().nextInt(5);
+
+        AreaFactory layer = source.apply(random.nextLong());
+        for (int i = 1; i <= 5; i++)
+        {
+            layer = zoom.apply(random.nextLong(), layer);
+        }
+
+        final Area pointArea = layer.get(), regionArea = layer.get();
+        for (int i = 0; i < 100; i++)
+        {
+            // Include odd and negative bounds, which are not aligned to the parent layer
+            final int minX = random.nextInt(2000) - 1000, minZ = random.nextInt(2000) - 1000;
+            final int width = 1 + random.nextInt(33), height = 1 + random.nextInt(33);
+            final int[] values = new int[width * height];
+
+            regionArea.fill(values, minX, minZ, width, height);
+            for (int dx = 0; dx < width; dx++)
+            {
+                for (int dz = 0; dz < height; dz++)
+                {
+                    assertEquals(pointArea.get(minX + dx, minZ + dz), values[dx + width * dz], "Zoom layer region and point-wise behave differently");
+                }
+            }
+        }
+    }
+
     private void testMode(Mode mode)
     {
         assertEquals(1, mode.call(1, 1, 1, 1));